@@ -0,0 +1,214 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The AnswerSet class records which names of a PlaceIndex have already been answered in a game played at one
+ * Difficulty. Answers are kept as a bitset over gazetteer ids together with a count of answered names per starting
+ * letter, so marking an answer and asking how many playable names are left for a letter are both constant-time.
+ * Answers are also counted per (first, last) letter pair, which together with the LetterGraph of the level tells how
+ * many names are left on every edge of the graph.
+ */
+public class AnswerSet {
+    private final PlaceIndex gazetteer;
+    private final GazetteerView view;
+    private long[] answered;
+    private int[] answeredByLetter;
+    private final int[] answeredByPair = new int[LetterGraph.PAIRS];
+    private int answeredCount;
+    private int playableAnswered;
+
+    /**
+     * REQUIRES: gazetteer and difficulty are not null.
+     * MODIFIES: this.
+     * EFFECTS: Creates an empty answer set over the names of gazetteer that are playable at the given level.
+     */
+    public AnswerSet(PlaceIndex gazetteer, Difficulty difficulty) {
+        this.gazetteer = gazetteer;
+        this.view = gazetteer.view(difficulty);
+        this.answered = new long[Math.max(1, (gazetteer.size() + 63) >>> 6)];
+        this.answeredByLetter = new int[Gazetteer.LETTERS];
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns true if the name with the given id has been answered.
+     */
+    public boolean isAnswered(int id) {
+        int word = id >>> 6;
+        return word < answered.length && (answered[word] & (1L << id)) != 0;
+    }
+
+    /**
+     * REQUIRES: 0 <= id < gazetteer.size().
+     * MODIFIES: this.
+     * EFFECTS: Marks the name with the given id as answered. Returns false if it was already answered.
+     */
+    public boolean markAnswered(int id) {
+        if (isAnswered(id)) {
+            return false;
+        }
+        int word = id >>> 6;
+        if (word >= answered.length) {
+            answered = Arrays.copyOf(answered, Math.max(word + 1, answered.length * 2));
+        }
+        answered[word] |= 1L << id;
+        answeredCount++;
+        if (view.includes(id)) {
+            playableAnswered++;
+            int index = Gazetteer.letterIndex(gazetteer.firstLetter(id));
+            if (index >= 0) {
+                answeredByLetter[index]++;
+            }
+            int pair = LetterGraph.pair(gazetteer.firstLetter(id), gazetteer.lastLetter(id));
+            if (pair >= 0) {
+                answeredByPair[pair]++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Marks every name as not answered, keeping the arrays, so the set can be reused for another game.
+     */
+    public void clear() {
+        Arrays.fill(answered, 0);
+        Arrays.fill(answeredByLetter, 0);
+        Arrays.fill(answeredByPair, 0);
+        answeredCount = 0;
+        playableAnswered = 0;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of playable names starting with the given letter that have not been answered yet.
+     */
+    public int remainingFor(char letter) {
+        int index = Gazetteer.letterIndex(letter);
+        return index < 0 ? 0 : view.countStartingWith(letter) - answeredByLetter[index];
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the letter-transition graph of the names playable at the level of this game, building it if
+     *          no game has asked for it yet.
+     */
+    public LetterGraph letterGraph() {
+        return view.letterGraph(gazetteer);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns, for every edge of letterGraph(), the number of its names that have not been answered yet.
+     */
+    public int[] remainingPairs() {
+        int[] remaining = letterGraph().counts();
+        for (int pair = 0; pair < LetterGraph.PAIRS; pair++) {
+            remaining[pair] -= answeredByPair[pair];
+        }
+        return remaining;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of playable names that have not been answered yet.
+     */
+    public int remainingTotal() {
+        return view.size() - playableAnswered;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns true if the name with the given id is playable at the level of this game.
+     */
+    public boolean isPlayable(int id) {
+        return view.includes(id);
+    }
+
+    public PlaceIndex getPlaces() {
+        return gazetteer;
+    }
+
+    public GazetteerView getView() {
+        return view;
+    }
+
+    public Difficulty getDifficulty() {
+        return view.getDifficulty();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of answered names.
+     */
+    public int size() {
+        return answeredCount;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the ids of the answered names in ascending order.
+     */
+    public int[] answeredIds() {
+        int[] ids = new int[answeredCount];
+        int n = 0;
+        for (int word = 0; word < answered.length; word++) {
+            for (long bits = answered[word]; bits != 0; bits &= bits - 1) {
+                ids[n++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns a copy of the bitset of answered ids: bit id % 64 of word id / 64 is set if the name with that
+     *          id has been answered.
+     */
+    public long[] answeredBits() {
+        return answered.clone();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the names that have been answered, in gazetteer order.
+     */
+    public List<String> answeredNames() {
+        List<String> result = new ArrayList<>(answeredCount);
+        for (int id = 0; id < gazetteer.size(); id++) {
+            if (isAnswered(id)) {
+                result.add(gazetteer.nameAt(id));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the playable names that have not been answered yet, in gazetteer order.
+     */
+    public List<String> remainingNames() {
+        List<String> result = new ArrayList<>();
+        for (int id = 0; id < gazetteer.size(); id++) {
+            if (view.includes(id) && !isAnswered(id)) {
+                result.add(gazetteer.nameAt(id));
+            }
+        }
+        return result;
+    }
+}
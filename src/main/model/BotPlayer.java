@@ -0,0 +1,207 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The BotPlayer class is a computer player. On its turn it picks the last letter to leave the next player, by a
+ * lookahead search over the letter-transition graph of the game (see LetterGraph): at depth one it picks the letter
+ * with the fewest names left, and each extra level assumes the next player answers the same way. Players are taken to
+ * alternate, as in a game of two. A letter with no names left is rerolled by the engine, so the search scores it as a
+ * letter with an average number of names. The search only counts names, never looks at them, and at most
+ * MAX_LOOKAHEAD levels of at most 26 letters each are searched, so a move costs the same however many places there
+ * are. The name answered is then taken from the edge chosen.
+ *
+ * The Skill of a bot sets how far it looks ahead and how often it cannot think of an answer and lets the turn run out.
+ */
+public class BotPlayer extends Player {
+    public static final int MAX_LOOKAHEAD = 3;
+
+    /**
+     * How well a bot plays: how many turns it looks ahead and the chance that it cannot think of an answer.
+     */
+    public enum Skill {
+        EASY(0, 0.25),
+        MEDIUM(1, 0.10),
+        HARD(MAX_LOOKAHEAD, 0.0);
+
+        private final int lookahead;
+        private final double slips;
+
+        Skill(int lookahead, double slips) {
+            this.lookahead = lookahead;
+            this.slips = slips;
+        }
+
+        public int getLookahead() {
+            return lookahead;
+        }
+    }
+
+    private static final int LETTERS = Gazetteer.LETTERS;
+
+    private final Skill skill;
+    private final Random random;
+    private final int[] cursors = new int[LetterGraph.PAIRS];
+    private AnswerSet cursorsOf;
+
+    /**
+     * REQUIRES: name, skill and random are not null.
+     * MODIFIES: this.
+     * EFFECTS: Creates a bot called name that plays at the given skill, breaking ties and slipping with random.
+     */
+    public BotPlayer(String name, Skill skill, Random random) {
+        super(name);
+        this.skill = skill;
+        this.random = random;
+    }
+
+    public Skill getSkill() {
+        return skill;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Takes back every letter of this bot and forgets where its scans stopped, so it can play another game,
+     *          even one over the same AnswerSet after it was cleared.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        Arrays.fill(cursors, 0);
+        cursorsOf = null;
+    }
+
+    /**
+     * REQUIRES: It is this bot's turn in session.
+     * MODIFIES: this.
+     * EFFECTS: Returns the place this bot answers, or null if it cannot think of one.
+     */
+    public String chooseAnswer(GameSession session) {
+        AnswerSet answers = session.getAnswers();
+        int first = Gazetteer.letterIndex(session.getCurrentLetter());
+        if (first < 0 || answers.remainingFor(session.getCurrentLetter()) == 0 || random.nextDouble() < skill.slips) {
+            return null;
+        }
+        int[] pairs = answers.remainingPairs();
+        int[] totals = new int[LETTERS];
+        for (int letter = 0; letter < LETTERS; letter++) {
+            totals[letter] = answers.remainingFor((char) ('a' + letter));
+        }
+        int last = chooseLast(new Search(pairs, totals, Math.max(1, answers.remainingTotal() / LETTERS)), first);
+        return last < 0 ? null : nameOn(answers, first * LETTERS + last);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the last letter, as an index, of the answer the search rates best from the letter with index
+     *          first, choosing among equally good ones at random, or -1 if no name starts with it.
+     */
+    private int chooseLast(Search search, int first) {
+        int best = -1;
+        int bestScore = Integer.MIN_VALUE;
+        int ties = 0;
+        for (int last = 0; last < LETTERS; last++) {
+            if (search.pairs[first * LETTERS + last] <= 0) {
+                continue;
+            }
+            int score = skill.lookahead == 0 ? 0 : -search.play(first, last, skill.lookahead - 1);
+            if (score > bestScore) {
+                best = last;
+                bestScore = score;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = last;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * REQUIRES: 0 <= pair < LetterGraph.PAIRS.
+     * MODIFIES: this.
+     * EFFECTS: Returns a name on the given edge that has not been answered, or null if there is none. Each edge is
+     *          scanned from where the last scan of this game stopped, since answered names stay answered.
+     */
+    private String nameOn(AnswerSet answers, int pair) {
+        if (cursorsOf != answers) {
+            Arrays.fill(cursors, 0);
+            cursorsOf = answers;
+        }
+        LetterGraph graph = answers.letterGraph();
+        for (int i = cursors[pair]; i < graph.count(pair); i++) {
+            int id = graph.idAt(pair, i);
+            if (!answers.isAnswered(id)) {
+                cursors[pair] = i;
+                return graph.getPlaces().nameAt(id);
+            }
+        }
+        cursors[pair] = graph.count(pair);
+        return null;
+    }
+
+    /**
+     * A negamax search over the names left on each edge. Moves are made and unmade on the same two arrays.
+     */
+    private static final class Search {
+        private final int[] pairs;
+        private final int[] totals;
+        private final int average;
+
+        Search(int[] pairs, int[] totals, int average) {
+            this.pairs = pairs;
+            this.totals = totals;
+            this.average = average;
+        }
+
+        /**
+         * REQUIRES: A name from first to last is left.
+         * MODIFIES: None.
+         * EFFECTS: Returns how good it is for the next player to face the letter last after a name from first to
+         *          last is answered, looking depth more turns ahead.
+         */
+        int play(int first, int last, int depth) {
+            pairs[first * LETTERS + last]--;
+            totals[first]--;
+            int value = value(last, depth);
+            pairs[first * LETTERS + last]++;
+            totals[first]++;
+            return value;
+        }
+
+        private int value(int letter, int depth) {
+            if (totals[letter] <= 0) {
+                return average;
+            }
+            if (depth <= 1) {
+                return depth == 0 ? totals[letter] : lastValue(letter);
+            }
+            int best = Integer.MIN_VALUE;
+            for (int last = 0; last < LETTERS; last++) {
+                if (pairs[letter * LETTERS + last] > 0) {
+                    best = Math.max(best, -play(letter, last, depth - 1));
+                }
+            }
+            return best == Integer.MIN_VALUE ? totals[letter] : best;
+        }
+
+        /**
+         * REQUIRES: totals[letter] > 0.
+         * MODIFIES: None.
+         * EFFECTS: Returns value(letter, 1) without making any moves: the player facing letter leaves the next one
+         *          the letter with the fewest names, where only a name from letter back to letter uses one up.
+         */
+        private int lastValue(int letter) {
+            int fewest = Integer.MAX_VALUE;
+            for (int last = 0; last < LETTERS; last++) {
+                if (pairs[letter * LETTERS + last] > 0) {
+                    int left = last == letter ? totals[last] - 1 : totals[last];
+                    fewest = Math.min(fewest, left <= 0 ? average : left);
+                }
+            }
+            return fewest == Integer.MAX_VALUE ? totals[letter] : -fewest;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package model;
+
+/**
+ * The Category enum tags every place in the gazetteer with the kind of place it is.
+ */
+public enum Category {
+    COUNTRY,
+    STATE,
+    CITY
+}
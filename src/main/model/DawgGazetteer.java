@@ -0,0 +1,265 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The DawgGazetteer class is a read-only PlaceIndex stored as a minimized word graph (DAWG) in a byte buffer,
+ * normally a memory-mapped file written by persistence.DawgWriter. Shared prefixes and suffixes are stored once, and
+ * every edge carries the number of names that sort before it, so the id of a name is its rank in sorted order and all
+ * lookups run straight off the buffer without creating a String per name.
+ *
+ * Layout (big-endian): a header of MAGIC, VERSION, size, root offset and category offset, followed by nodes. A node
+ * is a final flag (u8), an edge count (u16) and the number of names below it (i32), followed by its edges sorted by
+ * label. An edge is a UTF-8 byte label (u8), the offset of its target node (i32) and the number of names before it
+ * in the node (i32). The file ends with one Category ordinal (u8) per id.
+ */
+public class DawgGazetteer implements PlaceIndex {
+    public static final int MAGIC = 0x434D5044;
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 20;
+    public static final int NODE_HEADER_SIZE = 7;
+    public static final int EDGE_SIZE = 9;
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final ByteBuffer bytes;
+    private final int size;
+    private final int root;
+    private final int categoryOffset;
+    private final Map<Difficulty, GazetteerView> views = new EnumMap<>(Difficulty.class);
+
+    /**
+     * REQUIRES: bytes holds a gazetteer in the layout described above.
+     * MODIFIES: this.
+     * EFFECTS: Wraps the given buffer and builds the view of each level. Throws IllegalArgumentException if the
+     *          header does not match.
+     */
+    public DawgGazetteer(ByteBuffer bytes) {
+        this.bytes = bytes.duplicate();
+        if (bytes.limit() < HEADER_SIZE || bytes.getInt(0) != MAGIC || bytes.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a gazetteer file (version " + VERSION + ")");
+        }
+        this.size = bytes.getInt(8);
+        this.root = bytes.getInt(12);
+        this.categoryOffset = bytes.getInt(16);
+        for (Difficulty d : Difficulty.values()) {
+            views.put(d, GazetteerView.build(this, d));
+        }
+    }
+
+    @Override
+    public int indexOf(String name) {
+        long state = walk(name);
+        return (state >= 0 && isFinal((int) state)) ? (int) (state >>> 32) : -1;
+    }
+
+    @Override
+    public String nameAt(int id) {
+        byte[] buffer = new byte[32];
+        int length = 0;
+        int node = root;
+        int rank = id;
+        while (!isFinal(node) || rank != 0) {
+            int edge = lastEdgeAtMost(node, rank);
+            rank -= before(edge);
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, length * 2);
+            }
+            buffer[length++] = (byte) label(edge);
+            node = target(edge);
+        }
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * REQUIRES: 0 <= id < size().
+     * MODIFIES: None.
+     * EFFECTS: Returns the first byte of the name with the given id, which is its first letter for ASCII names.
+     */
+    @Override
+    public char firstLetter(int id) {
+        return (char) label(lastEdgeAtMost(root, id));
+    }
+
+    @Override
+    public Category categoryOf(int id) {
+        return CATEGORIES[bytes.get(categoryOffset + id)];
+    }
+
+    @Override
+    public GazetteerView view(Difficulty difficulty) {
+        return views.get(difficulty);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int countStartingWith(char letter) {
+        int edge = letterEdge(letter);
+        return edge < 0 ? 0 : words(target(edge));
+    }
+
+    @Override
+    public int idStartingWith(char letter, int i) {
+        return before(letterEdge(letter)) + i;
+    }
+
+    /**
+     * REQUIRES: prefix is already canonical.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of names starting with prefix. Their ids are consecutive, starting at
+     *          firstIdWithPrefix(prefix).
+     */
+    public int countWithPrefix(String prefix) {
+        long state = walk(prefix);
+        return state < 0 ? 0 : words((int) state);
+    }
+
+    /**
+     * REQUIRES: prefix is already canonical.
+     * MODIFIES: None.
+     * EFFECTS: Returns the smallest id of a name starting with prefix, or -1 if there is none.
+     */
+    public int firstIdWithPrefix(String prefix) {
+        long state = walk(prefix);
+        return state < 0 ? -1 : (int) (state >>> 32);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Follows prefix from the root and returns the reached node and the rank of its first name packed as
+     *          (rank << 32 | node), or -1 if no name starts with prefix.
+     */
+    private long walk(String prefix) {
+        long state = root & 0xFFFFFFFFL;
+        for (int i = 0; i < prefix.length() && state >= 0; ) {
+            int codePoint = prefix.codePointAt(i);
+            i += Character.charCount(codePoint);
+            state = stepCodePoint(state, codePoint);
+        }
+        return state;
+    }
+
+    /**
+     * REQUIRES: state >= 0.
+     * MODIFIES: None.
+     * EFFECTS: Follows the UTF-8 bytes of codePoint from the node in state, or returns -1 if there is no such path.
+     */
+    private long stepCodePoint(long state, int codePoint) {
+        if (codePoint < 0x80) {
+            return step(state, codePoint);
+        } else if (codePoint < 0x800) {
+            state = step(state, 0xC0 | (codePoint >>> 6));
+        } else if (codePoint < 0x10000) {
+            state = step(step(state, 0xE0 | (codePoint >>> 12)), 0x80 | ((codePoint >>> 6) & 0x3F));
+        } else {
+            state = step(step(state, 0xF0 | (codePoint >>> 18)), 0x80 | ((codePoint >>> 12) & 0x3F));
+            state = step(state, 0x80 | ((codePoint >>> 6) & 0x3F));
+        }
+        return step(state, 0x80 | (codePoint & 0x3F));
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Follows the edge labelled label from the node in state and adds the names it skips to the rank, or
+     *          returns -1 if state is -1 or there is no such edge.
+     */
+    private long step(long state, int label) {
+        if (state < 0) {
+            return -1;
+        }
+        int edge = findEdge((int) state, label);
+        if (edge < 0) {
+            return -1;
+        }
+        long rank = (state >>> 32) + before(edge);
+        return (rank << 32) | target(edge);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the root edge for the given letter, or -1 if no name starts with it.
+     */
+    private int letterEdge(char letter) {
+        int index = Gazetteer.letterIndex(letter);
+        return index < 0 ? -1 : findEdge(root, 'a' + index);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Binary-searches the edges of node for label and returns the edge offset, or -1 if it is absent.
+     */
+    private int findEdge(int node, int label) {
+        int low = 0;
+        int high = edgeCount(node) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int found = label(edge(node, mid));
+            if (found < label) {
+                low = mid + 1;
+            } else if (found > label) {
+                high = mid - 1;
+            } else {
+                return edge(node, mid);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * REQUIRES: node has at least one edge whose before count is <= rank.
+     * MODIFIES: None.
+     * EFFECTS: Binary-searches the edges of node for the last edge whose before count is <= rank.
+     */
+    private int lastEdgeAtMost(int node, int rank) {
+        int low = 0;
+        int high = edgeCount(node) - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (before(edge(node, mid)) <= rank) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return edge(node, low);
+    }
+
+    private boolean isFinal(int node) {
+        return bytes.get(node) != 0;
+    }
+
+    private int edgeCount(int node) {
+        return bytes.getShort(node + 1) & 0xFFFF;
+    }
+
+    private int words(int node) {
+        return bytes.getInt(node + 3);
+    }
+
+    private int edge(int node, int i) {
+        return node + NODE_HEADER_SIZE + i * EDGE_SIZE;
+    }
+
+    private int label(int edge) {
+        return bytes.get(edge) & 0xFF;
+    }
+
+    private int target(int edge) {
+        return bytes.getInt(edge + 1);
+    }
+
+    private int before(int edge) {
+        return bytes.getInt(edge + 5);
+    }
+}
@@ -0,0 +1,15 @@
+package model;
+
+/**
+ * The DeadEndRule enum decides what happens when a correct answer ends with a letter for which no playable names are
+ * left, so the next player could not possibly answer.
+ * SKIP moves on to the next letter of the alphabet that still has names left.
+ * REROLL draws a new letter from Game.START_WORD, as at the start of a game.
+ * NO_PENALTY keeps the turn order honest: the next player is passed over without earning a letter, and the player
+ * after them gets a letter drawn as for REROLL.
+ */
+public enum DeadEndRule {
+    SKIP,
+    REROLL,
+    NO_PENALTY
+}
@@ -0,0 +1,31 @@
+package model;
+
+/**
+ * The Difficulty enum represents the levels a game can be played at. Each level accepts places from a fixed set of
+ * categories: EASY accepts countries, states and cities, MEDIUM accepts countries and states, and HARD accepts only
+ * countries.
+ */
+public enum Difficulty {
+    EASY(Category.COUNTRY, Category.STATE, Category.CITY),
+    MEDIUM(Category.COUNTRY, Category.STATE),
+    HARD(Category.COUNTRY);
+
+    private final int categoryMask;
+
+    Difficulty(Category... categories) {
+        int mask = 0;
+        for (Category c : categories) {
+            mask |= 1 << c.ordinal();
+        }
+        this.categoryMask = mask;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns true if places of the given category are accepted at this level.
+     */
+    public boolean includes(Category category) {
+        return (categoryMask & (1 << category.ordinal())) != 0;
+    }
+}
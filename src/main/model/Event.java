@@ -1,15 +1,31 @@
 package model;
 
-import java.util.Calendar;
 import java.util.Date;
 
 
 /**
  * Represents an alarm system event.
+ * An event keeps its time as a primitive timestamp and its contents as a type and a few small arguments; the text
+ * description is only rendered when someone reads it.
  */
 public class Event {
     private static final int HASH_CONSTANT = 13;
-    private Date dateLogged;
+
+    /**
+     * How important an event is. The EventLog drops events below its level before they are created.
+     */
+    public enum Level {
+        DEBUG,
+        INFO,
+        WARN
+    }
+
+    private final long timestamp;
+    private final long session;
+    private final EventType type;
+    private final String player;
+    private final char letter;
+    private final Object detail;
     private String description;
 
     /**
@@ -18,8 +34,56 @@ public class Event {
      * @param description  a description of the event
      */
     public Event(String description) {
-        dateLogged = Calendar.getInstance().getTime();
-        this.description = description;
+        this(EventType.MESSAGE, null, '\0', description);
+    }
+
+    /**
+     * Creates an event of the given type with the current time stamp.
+     * @param type    the type of the event
+     * @param player  the name of the player it concerns, or null
+     * @param letter  the letter it concerns, or '\0'
+     * @param detail  any other detail its description needs, or null; rendered with String.valueOf when read
+     */
+    public Event(EventType type, String player, char letter, Object detail) {
+        this(System.currentTimeMillis(), type, player, letter, detail);
+    }
+
+    /**
+     * Creates an event of the given type that happened at the given time, such as one read back from a file.
+     * @param timestamp the time of the event in milliseconds since the epoch
+     * @param type      the type of the event
+     * @param player    the name of the player it concerns, or null
+     * @param letter    the letter it concerns, or '\0'
+     * @param detail    any other detail its description needs, or null
+     */
+    public Event(long timestamp, EventType type, String player, char letter, Object detail) {
+        this(timestamp, 0, type, player, letter, detail);
+    }
+
+    /**
+     * Creates an event of the given type that happened at the given time in a hosted session.
+     * @param timestamp the time of the event in milliseconds since the epoch
+     * @param session   the id of the session it happened in, or 0
+     * @param type      the type of the event
+     * @param player    the name of the player it concerns, or null
+     * @param letter    the letter it concerns, or '\0'
+     * @param detail    any other detail its description needs, or null
+     */
+    public Event(long timestamp, long session, EventType type, String player, char letter, Object detail) {
+        this.timestamp = timestamp;
+        this.session = session;
+        this.type = type;
+        this.player = player;
+        this.letter = letter;
+        this.detail = detail;
+    }
+
+    /**
+     * Gets the time of this event in milliseconds since the epoch.
+     * @return  the time stamp of the event
+     */
+    public long getTimestamp() {
+        return timestamp;
     }
 
     /**
@@ -27,15 +91,44 @@ public class Event {
      * @return  the date of the event
      */
     public Date getDate() {
-        return dateLogged;
+        return new Date(timestamp);
     }
 
     /**
-     * Gets the description of this event.
+     * Gets the id of the session this event happened in.
+     * @return  the session id, or 0 if the event does not belong to a hosted session
+     */
+    public long getSession() {
+        return session;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    public char getLetter() {
+        return letter;
+    }
+
+    public Object getDetail() {
+        return detail;
+    }
+
+    /**
+     * Gets the description of this event, rendering it on first use.
      * @return  the description of the event
      */
     public String getDescription() {
-        return description;
+        String rendered = description;
+        if (rendered == null) {
+            rendered = type.render(player, letter, detail);
+            description = rendered;
+        }
+        return rendered;
     }
 
     @Override
@@ -50,17 +143,18 @@ public class Event {
 
         Event otherEvent = (Event) other;
 
-        return (this.dateLogged.equals(otherEvent.dateLogged)
-                && this.description.equals(otherEvent.description));
+        return (this.timestamp == otherEvent.timestamp
+                && this.type == otherEvent.type
+                && this.getDescription().equals(otherEvent.getDescription()));
     }
 
     @Override
     public int hashCode() {
-        return (HASH_CONSTANT * dateLogged.hashCode() + description.hashCode());
+        return (HASH_CONSTANT * Long.hashCode(timestamp) + getDescription().hashCode());
     }
 
     @Override
     public String toString() {
-        return dateLogged.toString() + "\n" + description;
+        return getDate().toString() + "\n" + getDescription();
     }
 }
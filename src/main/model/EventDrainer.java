@@ -0,0 +1,118 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The EventDrainer class moves events from an EventLog to an EventSink on a background thread, in batches. Threads
+ * that log events only ever touch the in-memory ring, so they never wait for the disk; under DROP_OLDEST a sink that
+ * falls behind loses the oldest events instead, and the log counts them as dropped.
+ */
+public class EventDrainer implements Closeable {
+    private final EventLog log;
+    private final EventSink sink;
+    private final int batchSize;
+    private final long idleNanos;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * REQUIRES: batchSize > 0; idleMillis > 0; no other drainer drains log.
+     * MODIFIES: this.
+     * EFFECTS: Starts a daemon thread that writes the events of log to sink in batches of at most batchSize, and
+     *          whenever the log is empty lets the sink flush what is due and waits idleMillis.
+     */
+    public EventDrainer(EventLog log, EventSink sink, int batchSize, long idleMillis) {
+        this.log = log;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.idleNanos = idleMillis * 1_000_000;
+        this.worker = new Thread(this::run, "event-drainer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, sink.
+     * EFFECTS: Drains the log until the drainer is closed.
+     */
+    private void run() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (drainOnce(batch) == 0) {
+                flushIdle();
+                LockSupport.parkNanos(this, idleNanos);
+            }
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, sink.
+     * EFFECTS: Lets the sink finish work that came due while the log is empty, counting a failure if it cannot.
+     */
+    private void flushIdle() {
+        try {
+            sink.flushIfDue();
+        } catch (IOException e) {
+            failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * REQUIRES: batch is empty.
+     * MODIFIES: this, sink, batch.
+     * EFFECTS: Writes one batch of events to the sink and returns its size. A batch the sink fails to write is
+     *          counted as a failure and skipped.
+     */
+    private int drainOnce(List<Event> batch) {
+        int count = log.drain(batch::add, batchSize);
+        if (count > 0) {
+            try {
+                sink.write(batch);
+                written.addAndGet(count);
+            } catch (IOException e) {
+                failures.incrementAndGet();
+            }
+            batch.clear();
+        }
+        return count;
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, sink.
+     * EFFECTS: Stops the background thread, writes the events still in the log and closes the sink.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Event> batch = new ArrayList<>(batchSize);
+        int drained;
+        do {
+            drained = drainOnce(batch);
+        } while (drained > 0);
+        sink.close();
+    }
+}
@@ -1,26 +1,70 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
 /**
  * Represents a log of alarm system events.
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
+ *
+ * The log is a bounded ring buffer that any number of threads can append to without a lock: a writer claims the next
+ * sequence number with a compare-and-set and then publishes its event into the slot of that number. When the ring is
+ * full, DROP_OLDEST overwrites the oldest events and BLOCK makes writers wait until a consumer has drained some.
+ * Iterating gives a consistent snapshot of the events in order, so the log can be read while it is written.
+ *
+ * Events can be switched off by level and by type. The log(...) methods check this before creating the event, so a
+ * disabled event costs one read of a bit mask and allocates nothing.
  */
 public class EventLog implements Iterable<Event> {
-    /** the only EventLog in the system (Singleton Design Pattern) */
-    private static EventLog theLog;
-    private Collection<Event> events;
+    public static final int DEFAULT_CAPACITY = 8192;
 
     /**
-     * Prevent external construction.
-     * (Singleton Design Pattern).
+     * What a writer does when the ring is full. BLOCK only makes sense while a consumer drains the log.
      */
-    private EventLog() {
-        events = new ArrayList<Event>();
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        BLOCK
+    }
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    private final OverflowPolicy policy;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong cleared = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long disabledTypes;
+    private volatile Event.Level level = Event.Level.INFO;
+    private volatile long enabledTypes = typesAtLevel(Event.Level.INFO, 0);
+
+    /**
+     * Holds the only EventLog in the system (Singleton Design Pattern). The class loader creates it once, on first
+     * use, so no thread can see it half-built. Its size and policy come from the system properties
+     * compas.eventlog.capacity and compas.eventlog.policy.
+     */
+    private static class Holder {
+        private static final EventLog THE_LOG = new EventLog(
+                Integer.getInteger("compas.eventlog.capacity", DEFAULT_CAPACITY),
+                OverflowPolicy.valueOf(System.getProperty("compas.eventlog.policy", "DROP_OLDEST")));
+    }
+
+    /**
+     * Creates a log that holds at most capacity events, rounded up to a power of two.
+     * @param capacity the number of events kept; must be positive
+     * @param policy   what to do when the log is full
+     */
+    public EventLog(int capacity, OverflowPolicy policy) {
+        this.slots = new AtomicReferenceArray<>(capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+        this.mask = slots.length() - 1;
+        this.policy = policy;
     }
 
     /**
@@ -30,31 +74,248 @@ public class EventLog implements Iterable<Event> {
      * @return  instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
+        return Holder.THE_LOG;
+    }
+
+    /**
+     * Tells whether events of the given type are logged.
+     * @param type the type of event
+     * @return true if events of type are at or above the level of the log and have not been switched off
+     */
+    public boolean isEnabled(EventType type) {
+        return (enabledTypes & (1L << type.ordinal())) != 0;
+    }
+
+    /**
+     * Logs only events at or above the given level from now on.
+     * @param level the lowest level logged
+     */
+    public synchronized void setLevel(Event.Level level) {
+        this.level = level;
+        enabledTypes = typesAtLevel(level, disabledTypes);
+    }
+
+    public Event.Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Switches the events of one type on or off, within the level of the log.
+     * @param type    the type of event
+     * @param enabled whether events of type are logged
+     */
+    public synchronized void setEnabled(EventType type, boolean enabled) {
+        long bit = 1L << type.ordinal();
+        disabledTypes = enabled ? disabledTypes & ~bit : disabledTypes | bit;
+        enabledTypes = typesAtLevel(level, disabledTypes);
+    }
+
+    private static long typesAtLevel(Event.Level level, long disabled) {
+        long mask = 0;
+        for (EventType type : EventType.values()) {
+            if (type.getLevel().compareTo(level) >= 0) {
+                mask |= 1L << type.ordinal();
+            }
         }
+        return mask & ~disabled;
+    }
 
-        return theLog;
+    /**
+     * Logs an event of the given type if it is enabled.
+     * @param type the type of event
+     */
+    public void log(EventType type) {
+        if (isEnabled(type)) {
+            append(new Event(type, null, '\0', null));
+        }
     }
 
     /**
-     * Adds an event to the event log.
+     * Logs an event of the given type about a player if it is enabled.
+     * @param type   the type of event
+     * @param player the name of the player
+     * @param detail any other detail, or null
+     */
+    public void log(EventType type, String player, Object detail) {
+        if (isEnabled(type)) {
+            append(new Event(type, player, '\0', detail));
+        }
+    }
+
+    /**
+     * Logs an event of the given type about a player and a letter if it is enabled.
+     * @param type   the type of event
+     * @param player the name of the player
+     * @param letter the letter
+     * @param detail any other detail, or null
+     */
+    public void log(EventType type, String player, char letter, Object detail) {
+        if (isEnabled(type)) {
+            append(new Event(type, player, letter, detail));
+        }
+    }
+
+    /**
+     * Logs an event of the given type about a player and a letter in a hosted session if it is enabled.
+     * @param session the id of the session
+     * @param type    the type of event
+     * @param player  the name of the player
+     * @param letter  the letter
+     * @param detail  any other detail, or null
+     */
+    public void log(long session, EventType type, String player, char letter, Object detail) {
+        if (isEnabled(type)) {
+            append(new Event(System.currentTimeMillis(), session, type, player, letter, detail));
+        }
+    }
+
+    /**
+     * Adds an event to the event log if its type is enabled. Under BLOCK this waits while the log is full.
      * @param e the event to be added
      */
     public void logEvent(Event e) {
-        events.add(e);
+        if (isEnabled(e.getType())) {
+            append(e);
+        }
+    }
+
+    /**
+     * Adds an event to the ring. Under BLOCK this waits while the log is full.
+     * @param e the event to be added
+     */
+    private void append(Event e) {
+        long sequence = policy == OverflowPolicy.BLOCK ? claimWhenFree() : head.getAndIncrement();
+        Slot slot = new Slot(sequence, e);
+        int index = (int) (sequence & mask);
+        while (true) {
+            Slot current = slots.get(index);
+            if (current != null && current.sequence > sequence) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (slots.compareAndSet(index, current, slot)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Claims the next sequence number once it no longer falls on an event that has not been consumed.
+     * @return the claimed sequence number
+     */
+    private long claimWhenFree() {
+        int spins = 0;
+        while (true) {
+            long next = head.get();
+            if (next - Math.max(consumed.get(), cleared.get()) >= slots.length()) {
+                if (++spins < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(10_000);
+                }
+            } else if (head.compareAndSet(next, next + 1)) {
+                return next;
+            }
+        }
     }
 
     /**
      * Clears the event log and logs the event.
      */
     public void clear() {
-        events.clear();
-        logEvent(new Event("Event log cleared."));
+        cleared.accumulateAndGet(head.get(), Math::max);
+        log(EventType.LOG_CLEARED);
+    }
+
+    /**
+     * Passes the events logged since the last drain to consumer, oldest first, and marks them as consumed. Only one
+     * thread may drain a log at a time. Events that were overwritten before they could be drained are counted as
+     * dropped, and draining stops at the first event that has been claimed but not yet published.
+     * @param consumer receives the events
+     * @param max      the most events to pass on
+     * @return the number of events passed on
+     */
+    public int drain(Consumer<Event> consumer, int max) {
+        int count = 0;
+        long next = Math.max(consumed.get(), cleared.get());
+        long oldest = head.get() - slots.length();
+        if (oldest > next) {
+            dropped.addAndGet(oldest - next);
+            next = oldest;
+        }
+        while (count < max && next < head.get()) {
+            Slot slot = slots.get((int) (next & mask));
+            if (slot == null || slot.sequence < next) {
+                break;
+            }
+            if (slot.sequence == next) {
+                consumer.accept(slot.event);
+                count++;
+            } else {
+                dropped.incrementAndGet();
+            }
+            consumed.set(++next);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the events currently in the log, oldest first. Events that are still being written when the snapshot
+     * is taken, or that are overwritten while it is taken, are left out.
+     * @return an unmodifiable snapshot of the log
+     */
+    public List<Event> snapshot() {
+        long end = head.get();
+        long start = Math.max(cleared.get(), Math.max(0, end - slots.length()));
+        List<Event> events = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Slot slot = slots.get((int) (sequence & mask));
+            if (slot != null && slot.sequence == sequence) {
+                events.add(slot.event);
+            }
+        }
+        return Collections.unmodifiableList(events);
+    }
+
+    /**
+     * Gets the number of events logged over the life of this log, including those no longer kept.
+     * @return the number of events logged
+     */
+    public long getLogged() {
+        return head.get();
+    }
+
+    /**
+     * Gets the number of events lost because a newer event took their slot before they were published or drained.
+     * @return the number of events dropped
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
     }
 
     @Override
     public Iterator<Event> iterator() {
-        return events.iterator();
+        return snapshot().iterator();
+    }
+
+    /**
+     * An event together with its sequence number. Slots are never changed, so a reader always sees a matching pair.
+     */
+    private static final class Slot {
+        private final long sequence;
+        private final Event event;
+
+        Slot(long sequence, Event event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
     }
 }
@@ -0,0 +1,28 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The EventSink interface is a destination for events drained from an EventLog, such as a file. An EventDrainer
+ * calls it from a single background thread, so implementations need not be thread-safe and may block on I/O.
+ */
+public interface EventSink extends Closeable {
+
+    /**
+     * REQUIRES: batch is not empty.
+     * MODIFIES: this.
+     * EFFECTS: Writes the events of batch, oldest first.
+     */
+    void write(List<Event> batch) throws IOException;
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Completes any work the sink put off while it was busy, such as a sync that has come due since the
+     *          last write. Called whenever the log is empty; does nothing by default.
+     */
+    default void flushIfDue() throws IOException {
+    }
+}
@@ -0,0 +1,58 @@
+package model;
+
+/**
+ * The kinds of Event the game logs. Each kind has a level, used to switch whole groups of events off, and a template
+ * for its description in which %p stands for the player, %l for the letter and %d for the detail of the event.
+ */
+public enum EventType {
+    GAME_STARTED(Event.Level.INFO, "Game started."),
+    GAME_EXITED(Event.Level.INFO, "Exited the game."),
+    PLAYER_ADDED(Event.Level.INFO, "%p added as a player."),
+    PLAYER_RENAMED(Event.Level.INFO, "Modified %p to %d."),
+    PLAYERS_DISPLAYED(Event.Level.DEBUG, "Displayed all players."),
+    TURN_PLAYED(Event.Level.INFO, "%p: %d on letter '%l'."),
+    TIMER_FAILED(Event.Level.WARN, "Turn timer task failed: %d"),
+    LOG_CLEARED(Event.Level.INFO, "Event log cleared."),
+    MESSAGE(Event.Level.INFO, "%d");
+
+    private final Event.Level level;
+    private final String template;
+
+    EventType(Event.Level level, String template) {
+        this.level = level;
+        this.template = template;
+    }
+
+    public Event.Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Renders the description of an event of this type.
+     * @param player the player of the event, or null
+     * @param letter the letter of the event, or '\0'
+     * @param detail the detail of the event, or null
+     * @return the template with its placeholders filled in
+     */
+    String render(String player, char letter, Object detail) {
+        StringBuilder sb = new StringBuilder(template.length() + 16);
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c != '%' || i + 1 == template.length()) {
+                sb.append(c);
+                continue;
+            }
+            char field = template.charAt(++i);
+            if (field == 'p') {
+                sb.append(player);
+            } else if (field == 'l') {
+                sb.append(letter);
+            } else if (field == 'd') {
+                sb.append(detail);
+            } else {
+                sb.append(c).append(field);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -1,17 +1,21 @@
 package model;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
+import persistence.BinaryGameFormat;
 import persistence.GameReader;
-import persistence.GameWriter;
+import persistence.SaveStore;
+import persistence.TurnJournal;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
- * The `Game` class represents the core logic and management of the game.
- * It handles player management, gameplay, and game-related data, such as the list of players,
- * the active player, the current letter, and game constants.
+ * The `Game` class represents the management of the game and its console interface.
+ * It handles player management, menus, saving and loading, and game-related data such as the list of players and
+ * game constants. The rules themselves live in TurnEngine, which Game drives one answer at a time.
  */
 
 public class Game {
@@ -19,21 +23,53 @@ public class Game {
     // will assign a letter from "GLOBE" to each player on miss
 
     private List<Player> lop;
-    private int activePlayerIndex;
-    private Player activePlayer;
-    private char currentLetter;
-    private String answer;
-    char loadLetter;
-    String loadPlayer;
+    private GameSession session;
     private int command;
     private Scanner input;
     Random random = new Random();
 
     private static final String JSON_PATH = "./data/data.json";
-
-    public static final String START_WORD = "atlas";
-    public static final List<String> DATABASE = new ArrayList<>();
-    private static List<String> ANSWERS = new ArrayList<>();
+    private static final String SAVES_PATH = "./data/saves";
+    private static final int SNAPSHOT_EVERY = 50;
+
+    private static final String[] COUNTRIES = {
+            "singapore", "sri lanka", "spain", "switzerland", "south africa",
+            "south sudan", "sweden", "estonia", "england", "egypt", "afghanistan",
+            "azerbaijan", "america", "australia", "austria", "albania", "armenia",
+            "algeria", "new zealand", "netherlands", "nepal", "namibia", "denmark",
+            "dominican republic", "djibouti", "dominica", "latvia", "lebanon",
+            "luxembourg", "libya", "laos", "kuwait", "kenya", "kazakhstan", "kyrgyzstan",
+            "costa rica", "chile", "cameroon", "chad", "india", "italy", "iran", "iraq",
+            "ghana", "germany", "georgia", "guinea", "greece", "qatar", "turkey",
+            "yemen", "lebanon"
+    };
+    private static final String[] STATES = {
+            "alberta", "alaska", "arizona", "texas", "tasmania", "tamil nadu", "ontario", "oregon",
+            "ohio", "quebec", "queensland", "california", "colorado", "nevada", "new south wales",
+            "kerala", "karnataka", "goa", "gujarat", "punjab", "rajasthan", "saskatchewan",
+            "sikkim", "utah", "victoria", "yukon", "manitoba", "maharashtra", "bavaria", "hesse"
+    };
+    private static final String[] CITIES = {
+            "amsterdam", "athens", "auckland", "toronto", "tokyo", "oslo", "ottawa", "lima",
+            "lagos", "london", "nairobi", "new delhi", "sydney", "seoul", "yokohama", "yangon",
+            "edinburgh", "dublin", "delhi", "kyoto", "kolkata", "rome", "riyadh", "madrid",
+            "mumbai", "berlin", "boston", "vancouver", "vienna", "zurich", "hanoi", "havana"
+    };
+
+    public static final String START_WORD = TurnEngine.START_WORD;
+    public static final long TURN_LIMIT_MILLIS = 30_000;
+    public static final String BOT_NAME = "Computer";
+    private final Gazetteer database = new Gazetteer();
+    private final SpellingIndex spelling = new SpellingIndex(database);
+    private final TurnEngine engine = new TurnEngine(database, spelling);
+    private long timedTurn = -1;
+    private long turnDeadline;
+    private Difficulty difficulty = Difficulty.EASY;
+    private DeadEndRule deadEndRule = DeadEndRule.SKIP;
+    private BotPlayer.Skill botSkill = BotPlayer.Skill.MEDIUM;
+    private final TurnJournal journal = new TurnJournal(JSON_PATH, SNAPSHOT_EVERY);
+    private SaveStore saves;
+    private final List<PlayerListener> playerListeners = new CopyOnWriteArrayList<>();
 
     public static final String RESET = "\u001B[0m";
     public static final String BLUE = "\u001B[34m";
@@ -41,41 +77,50 @@ public class Game {
     // Creates a new game instance with an empty list of players and initializes the game.
     public Game() {
         lop = new ArrayList<>();
-        EventLog.getInstance().logEvent(new Event("Game started."));
+        EventLog.getInstance().log(EventType.GAME_STARTED);
         //init();
     }
 
     /**
      * Requires: None.
-     * Modifies: None.
-     * Effects: Initializes the database of place names.
+     * Modifies: database.
+     * Effects: Initializes the database of place names of this game.
      */
     public void createData() {
-        String[] countries = {
-                "singapore", "sri lanka", "spain", "switzerland", "south africa",
-                "south sudan", "sweden", "estonia", "england", "egypt", "afghanistan",
-                "azerbaijan", "america", "australia", "austria", "albania", "armenia",
-                "algeria", "new zealand", "netherlands", "nepal", "namibia", "denmark",
-                "dominican republic", "djibouti", "dominica", "latvia", "lebanon",
-                "luxembourg", "libya", "laos", "kuwait", "kenya", "kazakhstan", "kyrgyzstan",
-                "costa rica", "chile", "cameroon", "chad", "india", "italy", "iran", "iraq",
-                "ghana", "germany", "georgia", "guinea", "greece", "qatar", "turkey",
-                "yemen", "lebanon"
-        };
+        addDefaultPlaces(database);
+        spelling.update();
+    }
 
-        DATABASE.addAll(Arrays.asList(countries));
+    /**
+     * Requires: places is not null.
+     * Modifies: places.
+     * Effects: Adds the built-in place names to places, tagging each with its category. Countries are added first so
+     *          that a name which is also a state or city (e.g. "georgia") is playable at every level.
+     */
+    public static void addDefaultPlaces(Gazetteer places) {
+        for (String country : COUNTRIES) {
+            places.add(country, Category.COUNTRY);
+        }
+        for (String state : STATES) {
+            places.add(state, Category.STATE);
+        }
+        for (String city : CITIES) {
+            places.add(city, Category.CITY);
+        }
     }
 
     /**
      * Requires: None.
      * Modifies: None.
-     * Effects: Initializes the game input scanner and creates place name data.
+     * Effects: Initializes the game input scanner and shows the main menu until the user quits.
      */
     public void init() {
         input = new Scanner(System.in);
         input.useDelimiter("\n");
 
-        showMainMenu();
+        while (true) {
+            showMainMenu();
+        }
     }
 
     /**
@@ -87,6 +132,7 @@ public class Game {
         System.out.println("1 --> Start Game");
         System.out.println("2 --> Quit Game");
         System.out.println("3 --> Load Game");
+        System.out.println("4 --> Load Saved Game");
         command = input.nextInt();
 
         handleMainMenu();
@@ -100,8 +146,8 @@ public class Game {
      * effects Adds the specified player to the List of Players.
      */
     public void addToLop(Player p) {
-        lop.add(p);
-        EventLog.getInstance().logEvent(new Event(p.getName() + " added as a player."));
+        join(p);
+        EventLog.getInstance().log(EventType.PLAYER_ADDED, p.getName(), null);
     }
 
     /**
@@ -112,7 +158,7 @@ public class Game {
      * return The List of Players.
      */
     public List<Player> getLop() {
-        EventLog.getInstance().logEvent(new Event("Displayed all players."));
+        EventLog.getInstance().log(EventType.PLAYERS_DISPLAYED);
         return lop;
     }
 
@@ -127,8 +173,9 @@ public class Game {
     public void modifyPlayerFromLop(String name, String newName) {
         for (Player p: lop) {
             if (p.getName().toLowerCase().equals(name.toLowerCase())) {
-                EventLog.getInstance().logEvent(new Event("Modified " + p.getName() + " to " + newName + "."));
+                EventLog.getInstance().log(EventType.PLAYER_RENAMED, p.getName(), newName);
                 p.setName(newName);
+                firePlayers(listener -> listener.playerChanged(p));
             }
         }
     }
@@ -140,7 +187,56 @@ public class Game {
      */
     public void resetVars() {
         lop = new ArrayList<>();
-        ANSWERS = new ArrayList<>();
+        session = null;
+        firePlayers(PlayerListener::playersCleared);
+    }
+
+    /**
+     * Requires: listener is not null.
+     * Modifies: this.
+     * Effects: Tells listener about every change to the players from now on.
+     */
+    public void addPlayerListener(PlayerListener listener) {
+        playerListeners.add(listener);
+    }
+
+    private void firePlayers(Consumer<PlayerListener> event) {
+        for (PlayerListener listener : playerListeners) {
+            event.accept(listener);
+        }
+    }
+
+    private void firePlayersAdded() {
+        for (Player p : lop) {
+            firePlayers(listener -> listener.playerAdded(p));
+        }
+    }
+
+    /**
+     * Requires: p is not null.
+     * Modifies: lop.
+     * Effects: Adds p after the other players and tells the player listeners.
+     */
+    private void join(Player p) {
+        lop.add(p);
+        firePlayers(listener -> listener.playerAdded(p));
+    }
+
+    /**
+     * Requires: None.
+     * Modifies: lop.
+     * Effects: Adds a computer player that plays at the skill set by setBotSkill().
+     */
+    public void addComputerPlayer() {
+        addToLop(new BotPlayer(BOT_NAME, botSkill, new Random(random.nextLong())));
+    }
+
+    public void setBotSkill(BotPlayer.Skill botSkill) {
+        this.botSkill = botSkill;
+    }
+
+    public BotPlayer.Skill getBotSkill() {
+        return botSkill;
     }
 
     /**
@@ -151,66 +247,256 @@ public class Game {
     public void handleMainMenu() {
         if (command == 1) {
             showStartMenu();
-            showMainMenu();
         } else if (command == 2) {
             System.out.println("Thank you for playing!");
             System.exit(0);
-        } else if (command == 3) {
-            handleLoad();
-            startGame(true);
+        } else if (command == 3 || command == 4) {
+            if (command == 3 ? handleLoad() : handleLoadSaved()) {
+                System.out.println("LET THE GAME BEGIN!");
+                handleGame();
+            }
         } else {
             System.out.println("Invalid Entry!");
-            showMainMenu();
         }
     }
 
     /**
     * REQUIRES: None.
-    * MODIFIES: loadLetter, loadPlayer, DATABASE, ANSWERS, lop.
-    * EFFECTS: Reads game data from a JSON file and loads it into the game. If the JSON data is not empty, it updates
-      the game state with the loaded data, including the current letter, active player, remaining countries, answered
-      countries, and list of players. If the JSON data is empty, it displays a message and returns to the main menu.
+    * MODIFIES: difficulty, database, session, lop.
+    * EFFECTS: Streams game data from the JSON file into the game in one pass. If the file is not empty, it creates
+      a session from the loaded data, including the current letter, active player, difficulty, answered countries,
+      and list of players, replays the turns journaled since the snapshot, and returns true. If the file is empty, it
+      displays a message and returns false. Places in the save that are missing from the database are added as
+      countries so they stay playable. A binary save (see BinaryGameFormat) is recognised by its header and decoded
+      instead.
+     */
+    public boolean handleLoad() {
+        return load(null);
+    }
+
+    /**
+    * REQUIRES: None.
+    * MODIFIES: difficulty, database, session, lop.
+    * EFFECTS: Same as handleLoad(), for the game saved in the given slot of the save store.
+     */
+    public boolean handleLoad(String slot) {
+        return load(slot);
+    }
+
+    /**
+    * REQUIRES: None.
+    * MODIFIES: command, difficulty, database, session, lop.
+    * EFFECTS: Lists the games in the save store, most recent first, and loads the one the user picks. Returns false
+      if there are none or the choice is invalid.
      */
-    public void handleLoad() {
-        GameReader reader = new GameReader(JSON_PATH);
+    public boolean handleLoadSaved() {
+        List<SaveStore.Entry> entries = listSaves();
+        if (entries.isEmpty()) {
+            System.out.println("No saved games!");
+            return false;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            System.out.println((i + 1) + " --> " + describeSave(entries.get(i)));
+        }
+        command = input.nextInt();
+        if (command < 1 || command > entries.size()) {
+            System.out.println("Invalid Entry!");
+            return false;
+        }
+        return handleLoad(entries.get(command - 1).getSlot());
+    }
+
+    private boolean load(String slot) {
+        createData();
         try {
-            JSONObject data = reader.read();
-            if (!data.isEmpty()) {
-                loadLetter = data.getString("currentLetter").charAt(0);
-                loadPlayer = data.getString("activePlayer");
-                for (int i = 0; i < data.getJSONArray("countriesLeft").length(); i++) {
-                    DATABASE.add(data.getJSONArray("countriesLeft").getString(i));
-                }
-                for (int i = 0; i < data.getJSONArray("countriesAnswered").length(); i++) {
-                    ANSWERS.add(data.getJSONArray("countriesAnswered").getString(i));
-                }
-                for (int i = 0; i < data.getJSONArray("listOfPlayers").length(); i++) {
-                    lop.add(parsePlayer(data.getJSONArray("listOfPlayers").getJSONObject(i)));
-                }
-                System.out.println("Data Loaded");
-            } else {
+            byte[] stored = slot == null ? null : saves().read(slot);
+            if (slot == null ? BinaryGameFormat.isBinary(Paths.get(JSON_PATH))
+                    : stored != null && BinaryGameFormat.isBinary(stored)) {
+                return loadBinary(slot == null ? Files.readAllBytes(Paths.get(JSON_PATH)) : stored);
+            }
+            SaveLoader save = new SaveLoader();
+            save.tail = slot == null ? null : saves().readTail(slot);
+            if (!(slot == null ? new GameReader(JSON_PATH).stream(save) : stored != null
+                    && GameReader.stream(stored, save))) {
                 System.out.println("No data to load!");
-                showMainMenu();
+                return false;
             }
+            loadJson(save);
+            return true;
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
     /**
-    * REQUIRES: A valid JSON object representing a player with a "name" field and an array "lettersAssigned."
-    * MODIFIES: Creates a new Player object and assigns letters to it.
-    * EFFECTS: Parses the JSON object to create a Player with the specified name and assigned letters. Returns the
-       Player object.
-    */
-    private Player parsePlayer(JSONObject json) {
-        Player p = new Player(json.getString("name"));
-        JSONArray lettersAssigned = json.getJSONArray("lettersAssigned");
-        for (int i = 0; i < lettersAssigned.length(); i++) {
-            p.assignLetter(lettersAssigned.getString(i).toCharArray()[0]);
+     * Requires: save has streamed a JSON save.
+     * Modifies: difficulty, deadEndRule, session, lop, journal.
+     * Effects: Starts the game save holds, from its snapshot and the turns journaled since, and then tells the player
+     *          listeners about the players left in it.
+     */
+    private void loadJson(SaveLoader save) throws IOException {
+        resetVars();
+        lop.addAll(save.players);
+        difficulty = Difficulty.valueOf(save.difficultyName);
+        deadEndRule = DeadEndRule.valueOf(save.deadEndRuleName);
+        newSession(save.sessionId == 0 ? System.currentTimeMillis() : save.sessionId);
+        save.restore();
+        firePlayersAdded();
+        System.out.println("Data Loaded");
+    }
+
+    /**
+     * Requires: save starts like a binary save (see BinaryGameFormat).
+     * Modifies: difficulty, deadEndRule, session, lop.
+     * Effects: Loads the game in save, which must have been made with the built-in places, and returns true, or says
+     *          why it cannot be loaded and returns false.
+     */
+    private boolean loadBinary(byte[] save) {
+        GameSession loaded;
+        try {
+            loaded = BinaryGameFormat.decode(save, database, new SeededRandom(random.nextLong()));
+        } catch (IOException e) {
+            System.out.println("Could not load the game: " + e.getMessage());
+            return false;
+        }
+        resetVars();
+        lop = loaded.getPlayers();
+        difficulty = loaded.getDifficulty();
+        deadEndRule = loaded.getDeadEndRule();
+        session = loaded;
+        session.setId(System.currentTimeMillis());
+        timedTurn = -1;
+        journal.reset();
+        firePlayersAdded();
+        System.out.println("Data Loaded");
+        return true;
+    }
+
+    /**
+     * Collects a save as GameReader streams it. Places go straight into the database as they are read; answered
+     * places are kept as ids in a bitset until the session exists, since a save may list them before its difficulty.
+     * Saves made before levels existed are loaded as EASY.
+     */
+    private class SaveLoader implements GameReader.Visitor {
+        private final List<Player> players = new ArrayList<>();
+        private final BitSet answered = new BitSet();
+        private String difficultyName = Difficulty.EASY.name();
+        private String deadEndRuleName = deadEndRule.name();
+        private char letter;
+        private String activePlayer;
+        private long journalSequence = -1;
+        private long sessionId;
+        private byte[] tail;
+        private GameRecord record;
+        private long randomState = -1;
+
+        @Override
+        public void difficulty(String difficulty) {
+            difficultyName = difficulty;
+        }
+
+        @Override
+        public void deadEndRule(String deadEndRule) {
+            deadEndRuleName = deadEndRule;
+        }
+
+        @Override
+        public void player(String name, List<Character> lettersAssigned, String botSkill) {
+            Player p = botSkill == null ? new Player(name)
+                    : new BotPlayer(name, BotPlayer.Skill.valueOf(botSkill), new Random(random.nextLong()));
+            for (char c : lettersAssigned) {
+                p.assignLetter(c);
+                p.incrementLettersAssigned();
+            }
+            players.add(p);
+        }
+
+        @Override
+        public void countryLeft(String name) {
+            database.add(name, Category.COUNTRY);
         }
 
-        return p;
+        @Override
+        public void countryAnswered(String name) {
+            answered.set(database.add(name, Category.COUNTRY));
+        }
+
+        @Override
+        public void currentLetter(char letter) {
+            this.letter = letter;
+        }
+
+        @Override
+        public void activePlayer(String name) {
+            activePlayer = name;
+        }
+
+        @Override
+        public void journalSequence(long sequence) {
+            journalSequence = sequence;
+        }
+
+        @Override
+        public void sessionId(long id) {
+            sessionId = id;
+        }
+
+        @Override
+        public void record(GameRecord record) {
+            this.record = record;
+        }
+
+        @Override
+        public void randomState(long state) {
+            randomState = state;
+        }
+
+        /**
+         * Requires: The session has been created for the players of the save.
+         * Modifies: session, spelling, journal.
+         * Effects: Marks the answered places, which rebuilds the per-letter counts of names left, restores the
+         *          record and random numbers of the game if the save has them and the current letter and active
+         *          player, then replays the turns journaled after the save: from the journal tail if the save came
+         *          from the save store, in which case the next save starts a new snapshot, or from the journal next to
+         *          the save file.
+         */
+        private void restore() throws IOException {
+            for (int id = answered.nextSetBit(0); id >= 0; id = answered.nextSetBit(id + 1)) {
+                session.getAnswers().markAnswered(id);
+            }
+            spelling.update();
+            restoreRecord();
+            session.setCurrentLetter(letter);
+            for (Player p : lop) {
+                if (p.getName().equals(activePlayer)) {
+                    session.setActivePlayerIndex(lop.indexOf(p));
+                }
+            }
+            if (tail == null) {
+                journal.replay(journalSequence, session, database);
+            } else {
+                TurnJournal.replayTail(journalSequence, tail, session, database);
+                journal.reset();
+            }
+        }
+
+        /**
+         * Requires: The session has been created with a SeededRandom.
+         * Modifies: session.
+         * Effects: Gives the session the record of the save and the seed and state its random numbers were saved
+         *          with. A save made before games were recorded leaves the session unrecorded.
+         */
+        private void restoreRecord() {
+            if (record == null) {
+                return;
+            }
+            session.setRecord(record);
+            SeededRandom numbers = (SeededRandom) session.getRandom();
+            numbers.setSeed(record.getSeed());
+            if (randomState >= 0) {
+                numbers.setState(randomState);
+            }
+        }
     }
 
     /**
@@ -220,15 +506,54 @@ public class Game {
      */
     public void showStartMenu() {
         createData();
+        selectDifficulty();
         resetVars();
-        System.out.println("Enter number of players (1 - 5)");
-        command = input.nextInt();
+        command = 0;
+        while (command < 1 || command > 5) {
+            System.out.println("Enter number of players (1 - 5)");
+            command = input.nextInt();
+            handleStartMenu();
+        }
+    }
 
-        handleStartMenu();
+    /**
+     * Requires: None.
+     * Modifies: difficulty.
+     * Effects: Asks for the level of difficulty until a valid one is chosen.
+     */
+    public void selectDifficulty() {
+        Difficulty[] levels = Difficulty.values();
+        int choice = 0;
+        while (choice < 1 || choice > levels.length) {
+            System.out.println("Select difficulty:");
+            for (int i = 0; i < levels.length; i++) {
+                System.out.println((i + 1) + " --> " + levels[i]);
+            }
+            choice = input.nextInt();
+        }
+        difficulty = levels[choice - 1];
     }
 
     /**
-     * Requires: The number of players 'nop' should be between 1 and 5.
+     * Requires: None.
+     * Modifies: botSkill.
+     * Effects: Asks for the skill of the computer player until a valid one is chosen.
+     */
+    public void selectBotSkill() {
+        BotPlayer.Skill[] skills = BotPlayer.Skill.values();
+        int choice = 0;
+        while (choice < 1 || choice > skills.length) {
+            System.out.println("Select the skill of your computer opponent:");
+            for (int i = 0; i < skills.length; i++) {
+                System.out.println((i + 1) + " --> " + skills[i]);
+            }
+            choice = input.nextInt();
+        }
+        botSkill = skills[choice - 1];
+    }
+
+    /**
+     * Requires: None.
      * Modifies: Initializes the list of players by calling 'addPlayers' if 'nop' is valid.
      * Effects: Handles user choices from the start menu and adds players if the input is valid.
      */
@@ -237,7 +562,6 @@ public class Game {
             addPlayers(command);
         } else {
             System.out.println("Invalid Entry!");
-            showStartMenu();
         }
 
     }
@@ -250,10 +574,16 @@ public class Game {
     public void addPlayers(int nop) {
         for (int i = 0; i <= nop - 1; i++) {
             System.out.println("\nEnter name for Player " + (i + 1) + " : ");
-            lop.add(new Player(input.next()));
+            join(new Player(input.next()));
         }
-        gameStatus(nop);
-        startGame(false);
+        if (nop == 1) {
+            selectBotSkill();
+            addComputerPlayer();
+        }
+        gameStatus(lop.size());
+        startGame();
+        System.out.println("LET THE GAME BEGIN!");
+        handleGame();
     }
 
     /**
@@ -287,142 +617,230 @@ public class Game {
 
     /**
      * Requires: None.
-     * Modifies: Initializes the game with a randomly selected active player and a starting letter if not loaded.
-                 If loaded, sets the current letter and active player based on loaded data.
-     * Effects: Initiates the game and displays information about the starting player and letter.
+     * Modifies: session.
+     * Effects: Creates a session with the given id for the current players, difficulty and dead-end rule. The id
+     *          names the slot the game is saved in.
      */
-    public void startGame(boolean loaded) {
-        if (loaded) {
-            currentLetter = loadLetter;
-            for (Player p : lop) {
-                if (p.getName().equals(loadPlayer)) {
-                    activePlayer = p;
-                }
-            }
-        } else {
-            currentLetter = START_WORD.charAt(random.nextInt(START_WORD.length()));
-            activePlayerIndex = random.nextInt(lop.size());
-            activePlayer = lop.get(activePlayerIndex);
+    private void newSession(long id) {
+        session = new GameSession(lop, database, difficulty, new SeededRandom(random.nextLong()));
+        session.setId(id);
+        session.setDeadEndRule(deadEndRule);
+        timedTurn = -1;
+        journal.reset();
+    }
 
+    /**
+     * Requires: At least one player has been added.
+     * Modifies: session.
+     * Effects: Starts a new game with a random starting letter and player, as chosen by the engine. The game is
+     *          recorded from its seed, so that it can be replayed exactly.
+     */
+    public void startGame() {
+        newSession(System.currentTimeMillis());
+        GameRecord.of(session);
+        if (lop.stream().anyMatch(p -> p instanceof BotPlayer)) {
+            session.getAnswers().letterGraph();
         }
-        System.out.println("LET THE GAME BEGIN!");
-        handleGame();
+        engine.start(session);
     }
 
     /**
-     * Requires: None.
-     * Modifies: None.
-     * Effects: Handles the game logic, player interactions, and user choices during the game.
+     * Requires: startGame() or handleLoad() has been called.
+     * Modifies: session.
+     * Effects: Submits an answer for the active player to the engine and returns what happened. An answer given
+     *          after the turn's deadline is ignored and the turn times out instead.
      */
-    public void handleGame() {
-        System.out.println("\nThe letter is : " + currentLetter);
-        System.out.println("The player is : " + activePlayer.getName());
-        System.out.println("\nType 'quit' to quit to the Main Menu.");
-        System.out.println("\nType 'status' to display Game Status.");
-        System.out.println("\nAnswer : ");
-        answer = input.next().toLowerCase();
-
-        if (answer.equals("quit")) {
-            handleSave();
-            resetVars();
-            showMainMenu();
-        } else if (answer.equals("status")) {
-            gameStatus(lop.size());
-            handleGame();
-        } else {
-            checkCorrect();
+    public TurnResult submitAnswer(String answer) {
+        TurnResult timedOut = checkTimeout();
+        return timedOut != null ? timedOut : played(engine.submitAnswer(session, answer));
+    }
+
+    /**
+     * Requires: result is what the last turn of the session did.
+     * Modifies: journal.
+     * Effects: Records the turn for the next save, tells the player listeners about a letter assigned or a player
+     *          eliminated, and returns result.
+     */
+    private TurnResult played(TurnResult result) {
+        journal.record(session, result);
+        if (result.getLetterAssigned() != '\0') {
+            firePlayers(listener -> listener.playerChanged(result.getPlayer()));
+        }
+        if (result.getEliminated() != null) {
+            firePlayers(listener -> listener.playerRemoved(result.getEliminated()));
+        }
+        return result;
+    }
+
+    /**
+     * Requires: startGame() or handleLoad() has been called.
+     * Modifies: this.
+     * Effects: Returns the monotonic time (see TurnTimer.monotonicMillis()) at which the current turn runs out. The
+     *          clock of a turn starts the first time this is called for it and does not restart on a retry.
+     */
+    public long getTurnDeadline() {
+        if (session.getTurn() != timedTurn) {
+            timedTurn = session.getTurn();
+            turnDeadline = TurnTimer.monotonicMillis() + TURN_LIMIT_MILLIS;
         }
+        return turnDeadline;
+    }
+
+    /**
+     * Requires: startGame() or handleLoad() has been called.
+     * Modifies: session.
+     * Effects: If the current turn has run out of time, ends it through the engine and returns what happened;
+     *          otherwise returns null.
+     */
+    public TurnResult checkTimeout() {
+        if (session.isFinished() || TurnTimer.monotonicMillis() < getTurnDeadline()) {
+            return null;
+        }
+        return played(engine.timeout(session));
+    }
 
+    public GameSession getSession() {
+        return session;
     }
 
     /**
      * Requires: None.
      * Modifies: None.
-     * Effects: Checks if a player should be eliminated, removes them if needed,
-     *          and returns the number of remaining players.
-     */
-    public int handleElimination() {
-        Iterator<Player> iterator = lop.iterator();
-        while (iterator.hasNext()) {
-            Player p = iterator.next();
-            if (p.getLettersAssigned() == 5) {
-                iterator.remove();
-                System.out.println("Eliminated: " + p.getName());
-                if (lop.size() < 2) {
-                    System.out.println(lop.get(0).getName() + " has won the game!");
-                    return 0;
-                }
+     * Effects: Returns true if a game is being played and it is a computer player's turn.
+     */
+    public boolean isComputerTurn() {
+        return session != null && !session.isFinished() && session.getActivePlayer() instanceof BotPlayer;
+    }
+
+    /**
+     * Requires: isComputerTurn().
+     * Modifies: session, journal.
+     * Effects: Plays the turn of the computer player: its answer, or a timeout if it cannot think of one.
+     */
+    public TurnResult playComputerTurn() {
+        String answer = ((BotPlayer) session.getActivePlayer()).chooseAnswer(session);
+        return played(answer == null ? engine.timeout(session) : engine.submitAnswer(session, answer));
+    }
+
+    /**
+     * Requires: A game has been started or loaded.
+     * Modifies: None.
+     * Effects: Plays turns from the console until the game ends or the user quits to the main menu.
+     */
+    public void handleGame() {
+        while (!session.isFinished()) {
+            System.out.println("\nThe letter is : " + session.getCurrentLetter() + "\nThe player is : "
+                    + session.getActivePlayer().getName());
+            if (isComputerTurn()) {
+                printComputerTurn();
+                continue;
+            }
+            System.out.println("\nType 'quit' to quit to the Main Menu.");
+            System.out.println("\nType 'status' to display Game Status.");
+            long secondsLeft = (getTurnDeadline() - TurnTimer.monotonicMillis() + 999) / 1000;
+            System.out.println("\nAnswer (" + secondsLeft + " seconds left) : ");
+            String answer = input.next().toLowerCase();
+
+            if (answer.equals("quit")) {
+                handleSave();
+                resetVars();
+                return;
+            } else if (answer.equals("status")) {
+                gameStatus(lop.size());
+            } else {
+                printResult(submitAnswer(answer));
             }
         }
-        return lop.size();
+        resetVars();
+    }
+
+    /**
+     * Requires: isComputerTurn().
+     * Modifies: session, journal.
+     * Effects: Plays the turn of the computer player and prints its answer and the outcome.
+     */
+    private void printComputerTurn() {
+        TurnResult result = playComputerTurn();
+        String answer = result.getOutcome() == TurnResult.Outcome.TIMEOUT ? "..." : result.getPlace();
+        System.out.println("\n" + result.getPlayer().getName() + " answers : " + answer);
+        printResult(result);
     }
 
     /**
      * Requires: None.
-     * Modifies: Modifies the 'ANSWERS' list and handles player eliminations.
-     * Effects: Checks if the answer is correct, validates it, and assigns letters to players accordingly.
+     * Modifies: None.
+     * Effects: Prints the outcome of a turn in the same words the console game has always used.
      */
-    public void checkCorrect() {
-        if (answer.charAt(0) == currentLetter) {
-            if (DATABASE.contains(answer) && !(ANSWERS.contains(answer))) {
-                currentLetter = answer.charAt(answer.length() - 1);
+    public void printResult(TurnResult result) {
+        switch (result.getOutcome()) {
+            case CORRECT:
                 System.out.println("CORRECT!");
-                ANSWERS.add(answer);
-                DATABASE.remove(answer);
-            } else if (DATABASE.contains(answer) && (ANSWERS.contains(answer))) {
+                break;
+            case NEAR_MISS:
+                System.out.println("Wrong spelling! Did you mean '" + result.getPlace() + "'? Try once more.");
+                break;
+            case ALREADY_ANSWERED:
                 System.out.println("Wrong Answer: Already Answered");
-                assignLetterToPlayer(activePlayer);
-            } else {
-                System.out.println("Wrong Answer: Invalid Country");
-                assignLetterToPlayer(activePlayer);
-            }
-        } else {
-            System.out.println("Wrong Answer: Country doesn't start with given letter");
-            assignLetterToPlayer(activePlayer);
+                break;
+            case INVALID:
+                System.out.println("Wrong Answer: Invalid Place");
+                break;
+            case TIMEOUT:
+                System.out.println("Time's up!");
+                break;
+            default:
+                System.out.println("Wrong Answer: Country doesn't start with given letter");
         }
-
-
-        changePlayer(handleElimination());
+        printConsequences(result);
     }
 
     /**
      * Requires: None.
-     * Modifies: Modifies the 'lettersAssigned' field, assigns a letter to the player,
-     *           and increments their letters assigned count.
-     * Effects: Assigns a letter from "LOSER" to a player and increases their count of assigned letters.
+     * Modifies: None.
+     * Effects: Prints the letters, eliminations, dead ends and winner that followed from a turn.
      */
-    public void assignLetterToPlayer(Player p) {
-        String loserLetters = "LOSER";
-        char letterToAssign = loserLetters.charAt(p.getLettersAssigned());
-        p.assignLetter(letterToAssign);
-        System.out.println("Letter '" + letterToAssign + "' assigned to " + p.getName());
-        p.incrementLettersAssigned();
+    private void printConsequences(TurnResult result) {
+        if (result.getLetterAssigned() != 0) {
+            System.out.println("Letter '" + result.getLetterAssigned() + "' assigned to "
+                    + result.getPlayer().getName());
+        }
+        if (result.getEliminated() != null) {
+            System.out.println("Eliminated: " + result.getEliminated().getName());
+        }
+        if (result.getDeadLetter() != 0) {
+            System.out.println("No places left starting with '" + result.getDeadLetter() + "'.");
+            System.out.println("The new letter is : " + result.getNextLetter());
+        }
+        if (result.getPassedOver() != null) {
+            System.out.println(result.getPassedOver().getName() + " passes without penalty.");
+        }
+        if (result.getWinner() != null) {
+            System.out.println(result.getWinner().getName() + " has won the game!");
+        }
     }
 
     /**
-     * Requires: The number of remaining players 'size' should be greater than 0.
-     * Modifies: Changes the active player for the next turn.
-     * Effects: Changes the active player for the next turn and continues the game.
+     * Requires: None.
+     * Modifies: deadEndRule.
+     * Effects: Sets the rule applied when an answer leaves a letter with no playable names.
      */
-    public void changePlayer(int size) {
-        if (size != 0) {
-            if (activePlayerIndex == size - 1) {
-                activePlayerIndex = 0;
-            } else {
-                activePlayerIndex++;
-            }
-
-            activePlayer = lop.get(activePlayerIndex);
-            handleGame();
+    public void setDeadEndRule(DeadEndRule deadEndRule) {
+        this.deadEndRule = deadEndRule;
+        if (session != null) {
+            session.setDeadEndRule(deadEndRule);
         }
     }
 
+    public DeadEndRule getDeadEndRule() {
+        return deadEndRule;
+    }
+
     /**
     * REQUIRES: None.
     * MODIFIES: command.
     * EFFECTS: Displays a message asking if the user wants to save the game and handles the user's choice. If the user
-      chooses to save the game (1), it calls the saveGame method. If the user chooses not to save (2),
-      it returns to the main menu by calling the showMainMenu method.
+      chooses to save the game (1), it calls the saveGame method. If the user chooses not to save (2), the game is
+      left unsaved.
     */
     public void handleSave() {
         System.out.println("Do you want to save the game?\n");
@@ -431,27 +849,60 @@ public class Game {
         command = input.nextInt();
         if (command == 1) {
             saveGame();
-        } else if (command == 2) {
-            showMainMenu();
         }
     }
 
     /**
-    * REQUIRES: None.
-    * MODIFIES: DATABASE, ANSWERS, currentLetter, activePlayer.
-    * EFFECTS: Saves the current game state to a JSON file at the specified path. The game state includes the list
-      of players' information, the database, answers, current letter, and the name of the active player.
+    * REQUIRES: A game has been started or loaded.
+    * MODIFIES: None.
+    * EFFECTS: Saves the current game state at the specified path. The first save of a game, and every save after
+      SNAPSHOT_EVERY turns, writes a JSON snapshot with the list of players' information, the places left and
+      answered, current letter, and the name of the active player; other saves only append the turns played since the
+      last save to the journal next to it. The game is also filed in the save store under the slot of its session,
+      so it can still be loaded after other games have been saved: the slot gets a copy of each snapshot, and the
+      journal tail in between.
     */
     public void saveGame() {
-        ArrayList<JSONObject> listOfPlayers = new ArrayList<>();
-        for (Player p : lop) {
-            listOfPlayers.add(p.toJson());
+        String slot = SaveStore.slotOf(session.getId());
+        try {
+            if (journal.save(session) || !saves().putTail(slot, journal.tail())) {
+                saves().save(slot, session, journal.getSequence());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
-        GameWriter gameWriter = new GameWriter(JSON_PATH);
-        gameWriter.save(currentLetter, listOfPlayers, DATABASE, ANSWERS, activePlayer.getName());
         System.out.println("GAME SAVED!");
     }
 
+    /**
+    * REQUIRES: None.
+    * MODIFIES: saves.
+    * EFFECTS: Returns the games in the save store, most recent first, without loading any of them.
+    */
+    public List<SaveStore.Entry> listSaves() {
+        try {
+            return saves().list();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+    * REQUIRES: None.
+    * MODIFIES: None.
+    * EFFECTS: Returns a one-line description of a saved game: its players and when it was saved.
+    */
+    public static String describeSave(SaveStore.Entry entry) {
+        return String.join(", ", entry.getPlayers()) + " (" + new Date(entry.getTimestamp()) + ")";
+    }
+
+    private SaveStore saves() throws IOException {
+        if (saves == null) {
+            saves = new SaveStore(Paths.get(SAVES_PATH), SaveStore.DEFAULT_CACHE_SIZE);
+        }
+        return saves;
+    }
+
     /**
      * REQUIRES: None.
      * MODIFIES: this
@@ -464,7 +915,7 @@ public class Game {
     }
 
     public void quitGame() {
-        EventLog.getInstance().logEvent(new Event("Exited the game."));
+        EventLog.getInstance().log(EventType.GAME_EXITED);
 
     }
 
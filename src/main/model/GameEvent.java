@@ -0,0 +1,109 @@
+package model;
+
+/**
+ * The GameEvent class is one thing that happened in a turn, as published by a GameEventPublisher: an answer accepted,
+ * a letter of "LOSER" assigned, a player eliminated, a winner, or the turn passing to the next player. Events are
+ * immutable and one event is shared by every subscriber.
+ */
+public final class GameEvent {
+
+    /**
+     * What happened, and which of player, place and letter say more about it.
+     */
+    public enum Type {
+        /** player answered place correctly. */
+        ANSWER_ACCEPTED,
+        /** player was assigned letter. */
+        LETTER_ASSIGNED,
+        /** player was eliminated. */
+        PLAYER_ELIMINATED,
+        /** player won; player is null if nobody did. */
+        WINNER,
+        /** player is to answer a place starting with letter. */
+        NEXT_TURN
+    }
+
+    private final Type type;
+    private final long session;
+    private final long turn;
+    private final String player;
+    private final String place;
+    private final char letter;
+    private final long sequence;
+
+    /**
+     * REQUIRES: type is not null.
+     * MODIFIES: this.
+     * EFFECTS: Creates an unnumbered event of the given type in the given turn of the session with the given id.
+     *          player, place and letter may be null or '\0' where the type does not use them.
+     */
+    public GameEvent(Type type, long session, long turn, String player, String place, char letter) {
+        this(type, session, turn, player, place, letter, 0);
+    }
+
+    /**
+     * REQUIRES: type is not null; sequence > 0.
+     * MODIFIES: this.
+     * EFFECTS: Same as the constructor above, for the event numbered sequence among the events of its session, as
+     *          GameSession.nextEventSequence returns.
+     */
+    public GameEvent(Type type, long session, long turn, String player, String place, char letter, long sequence) {
+        this.type = type;
+        this.session = session;
+        this.turn = turn;
+        this.player = player;
+        this.place = place;
+        this.letter = letter;
+        this.sequence = sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getSession() {
+        return session;
+    }
+
+    public long getTurn() {
+        return turn;
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    public String getPlace() {
+        return place;
+    }
+
+    public char getLetter() {
+        return letter;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of this event among the events of its session, which goes up by one per event
+     *          published, or 0 if it is unnumbered. A subscriber can tell it missed events from a gap in the numbers.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(type.name()).append(" session=").append(session).append(" turn=")
+                .append(turn);
+        if (player != null) {
+            sb.append(" player=").append(player);
+        }
+        if (place != null) {
+            sb.append(" place=").append(place);
+        }
+        if (letter != '\0') {
+            sb.append(" letter=").append(letter);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,350 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The GameEventPublisher class publishes the GameEvents of the turns played through a TurnEngine to any number of
+ * Flow subscribers, such as spectators and integrations. Each subscriber gets its own bounded buffer and its own
+ * OverflowPolicy, and is signalled on an executor, never on the thread that played the turn, so a slow subscriber
+ * only ever fills its own buffer. Publishing to no subscribers creates nothing, and publishing an event stores the
+ * same instance in every buffer.
+ */
+public class GameEventPublisher implements Flow.Publisher<GameEvent> {
+    public static final int DEFAULT_BUFFER = 256;
+    public static final long BLOCK_MILLIS = 100;
+
+    /**
+     * What publishing does when a subscriber's buffer is full. DROP discards the new event and CONFLATE discards the
+     * oldest one, so the subscriber catches up on the latest turns. BLOCK makes the turn wait for room, at most
+     * BLOCK_MILLIS per event, and then drops it; it is for integrations that need every event and keep up.
+     */
+    public enum OverflowPolicy {
+        DROP,
+        CONFLATE,
+        BLOCK
+    }
+
+    private static final Subscription[] NONE = new Subscription[0];
+
+    private final Executor executor;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Subscription[] subscriptions = NONE;
+    private volatile boolean closed;
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Creates a publisher that signals its subscribers on the common pool.
+     */
+    public GameEventPublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * REQUIRES: executor is not null.
+     * MODIFIES: this.
+     * EFFECTS: Creates a publisher that signals its subscribers on executor.
+     */
+    public GameEventPublisher(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * REQUIRES: subscriber is not null.
+     * MODIFIES: this, subscriber.
+     * EFFECTS: Subscribes subscriber with a buffer of DEFAULT_BUFFER events that drops new events when full.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        subscribe(subscriber, DEFAULT_BUFFER, OverflowPolicy.DROP);
+    }
+
+    /**
+     * REQUIRES: subscriber is not null; capacity > 0.
+     * MODIFIES: this, subscriber.
+     * EFFECTS: Subscribes subscriber with a buffer of capacity events that overflows by policy. The subscriber is
+     *          sent its subscription, and then the events published from now on as it requests them. Subscribing to a
+     *          closed publisher completes the subscriber at once.
+     */
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber, int capacity, OverflowPolicy policy) {
+        Subscription subscription = new Subscription(subscriber, capacity, policy);
+        subscriber.onSubscribe(subscription);
+        synchronized (this) {
+            if (!closed) {
+                Subscription[] more = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+                more[more.length - 1] = subscription;
+                subscriptions = more;
+                return;
+            }
+        }
+        subscription.complete();
+    }
+
+    private synchronized void remove(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                Subscription[] fewer = Arrays.copyOf(current, current.length - 1);
+                System.arraycopy(current, i + 1, fewer, i, current.length - i - 1);
+                subscriptions = fewer;
+                return;
+            }
+        }
+    }
+
+    public boolean hasSubscribers() {
+        return subscriptions.length > 0;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns how many events have been dropped, or conflated away, over all subscribers so far.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * REQUIRES: result is what the last turn of session did.
+     * MODIFIES: the subscribers.
+     * EFFECTS: Publishes the events of the turn: an accepted answer, a letter assigned, a player eliminated, and then
+     *          the winner or the next turn, numbered by session.nextEventSequence(). Does nothing if there are no
+     *          subscribers.
+     */
+    public void publish(GameSession session, TurnResult result) {
+        if (!hasSubscribers()) {
+            return;
+        }
+        String player = result.getPlayer().getName();
+        if (result.getOutcome() == TurnResult.Outcome.CORRECT) {
+            publish(session, GameEvent.Type.ANSWER_ACCEPTED, player, result.getPlace(), '\0');
+        }
+        if (result.getLetterAssigned() != '\0') {
+            publish(session, GameEvent.Type.LETTER_ASSIGNED, player, null, result.getLetterAssigned());
+        }
+        if (result.getEliminated() != null) {
+            publish(session, GameEvent.Type.PLAYER_ELIMINATED, result.getEliminated().getName(), null, '\0');
+        }
+        if (result.isGameOver()) {
+            String winner = result.getWinner() == null ? null : result.getWinner().getName();
+            publish(session, GameEvent.Type.WINNER, winner, null, '\0');
+        } else {
+            publish(session, GameEvent.Type.NEXT_TURN, result.getNextPlayer().getName(), null, result.getNextLetter());
+        }
+    }
+
+    private void publish(GameSession session, GameEvent.Type type, String player, String place, char letter) {
+        publish(new GameEvent(type, session.getId(), session.getTurn(), player, place, letter,
+                session.nextEventSequence()));
+    }
+
+    /**
+     * REQUIRES: event is not null.
+     * MODIFIES: the subscribers.
+     * EFFECTS: Offers event to every subscriber, each of which buffers it or overflows by its policy.
+     */
+    public void publish(GameEvent event) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, the subscribers.
+     * EFFECTS: Stops publishing. Every subscriber is completed once it has been sent the events buffered for it.
+     */
+    public void close() {
+        Subscription[] current;
+        synchronized (this) {
+            closed = true;
+            current = subscriptions;
+            subscriptions = NONE;
+        }
+        for (Subscription subscription : current) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * The link to one subscriber: a ring of buffered events, the demand the subscriber has signalled, and a drain
+     * task that runs on the executor at most once at a time and sends buffered events while there is demand.
+     */
+    private final class Subscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super GameEvent> subscriber;
+        private final GameEvent[] ring;
+        private final OverflowPolicy policy;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private int head;
+        private int count;
+        private volatile boolean completing;
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+        private boolean terminated;
+
+        Subscription(Flow.Subscriber<? super GameEvent> subscriber, int capacity, OverflowPolicy policy) {
+            this.subscriber = subscriber;
+            this.ring = new GameEvent[capacity];
+            this.policy = policy;
+        }
+
+        /**
+         * REQUIRES: None.
+         * MODIFIES: this.
+         * EFFECTS: Buffers event, overflowing by policy if the buffer is full, and schedules a drain.
+         */
+        void offer(GameEvent event) {
+            synchronized (this) {
+                if (count == ring.length && !makeRoom()) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                ring[(head + count) % ring.length] = event;
+                count++;
+            }
+            schedule();
+        }
+
+        /**
+         * REQUIRES: The lock of this is held and the buffer is full.
+         * MODIFIES: this.
+         * EFFECTS: Frees a place in the buffer as policy says, and returns false if the new event is to be dropped.
+         */
+        private boolean makeRoom() {
+            if (policy == OverflowPolicy.CONFLATE) {
+                ring[head] = null;
+                head = (head + 1) % ring.length;
+                count--;
+                dropped.incrementAndGet();
+                return true;
+            }
+            if (policy == OverflowPolicy.BLOCK) {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BLOCK_MILLIS);
+                for (long left = deadline - System.nanoTime(); count == ring.length && !cancelled && left > 0;
+                        left = deadline - System.nanoTime()) {
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, left);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+                return count < ring.length;
+            }
+            return false;
+        }
+
+        private synchronized GameEvent poll() {
+            if (count == 0) {
+                return null;
+            }
+            GameEvent event = ring[head];
+            ring[head] = null;
+            head = (head + 1) % ring.length;
+            count--;
+            if (policy == OverflowPolicy.BLOCK) {
+                notifyAll();
+            }
+            return event;
+        }
+
+        private synchronized boolean isEmpty() {
+            return count == 0;
+        }
+
+        void complete() {
+            completing = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if ((!cancelled || failure != null) && scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        /**
+         * REQUIRES: Runs on the executor, never twice at once.
+         * MODIFIES: this, subscriber.
+         * EFFECTS: Sends buffered events while there is demand, completes the subscriber once a closed publisher
+         *          has nothing more for it, and cancels the subscription if the subscriber throws. A failure recorded
+         *          by request is signalled from here instead, so it never overlaps another signal.
+         */
+        @Override
+        public void run() {
+            try {
+                if (failure != null) {
+                    fail();
+                } else {
+                    drain();
+                }
+            } catch (RuntimeException e) {
+                cancel();
+                subscriber.onError(e);
+            } finally {
+                scheduled.set(false);
+            }
+            if (!terminated && (failure != null || !cancelled && (demand.get() > 0 && !isEmpty()
+                    || completing && isEmpty()))) {
+                schedule();
+            }
+        }
+
+        private void drain() {
+            while (!cancelled && demand.get() > 0) {
+                GameEvent event = poll();
+                if (event == null) {
+                    break;
+                }
+                demand.decrementAndGet();
+                subscriber.onNext(event);
+            }
+            if (completing && !cancelled && !terminated && isEmpty()) {
+                terminated = true;
+                subscriber.onComplete();
+            }
+        }
+
+        private void fail() {
+            if (!terminated) {
+                terminated = true;
+                subscriber.onError(failure);
+            }
+        }
+
+        /**
+         * REQUIRES: None.
+         * MODIFIES: this.
+         * EFFECTS: Adds n to the demand of the subscriber and schedules a drain. If n is not positive, cancels the
+         *          subscription and has the drain task signal the subscriber an IllegalArgumentException.
+         */
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("A subscriber must request at least one event");
+                cancel();
+                schedule();
+                return;
+            }
+            demand.accumulateAndGet(n, (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            remove(this);
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+}
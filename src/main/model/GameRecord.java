@@ -0,0 +1,154 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The GameRecord class is everything needed to play a game again exactly as it was played: the seed its random
+ * numbers were drawn from, its players in order, its level and dead-end rule, and the ordered log of its inputs. An
+ * input is the text of an answer or a timeout. A TurnEngine appends to the record of a session as it is played, and a
+ * Replay re-executes it.
+ */
+public class GameRecord {
+    private static final String TIMEOUT = null;
+
+    private final long seed;
+    private final List<String> players;
+    private final Difficulty difficulty;
+    private final DeadEndRule deadEndRule;
+    private final List<String> inputs = new ArrayList<>();
+
+    /**
+     * REQUIRES: players, difficulty and deadEndRule are not null.
+     * MODIFIES: this.
+     * EFFECTS: Creates an empty record of a game of the named players started from seed.
+     */
+    public GameRecord(long seed, List<String> players, Difficulty difficulty, DeadEndRule deadEndRule) {
+        this.seed = seed;
+        this.players = new ArrayList<>(players);
+        this.difficulty = difficulty;
+        this.deadEndRule = deadEndRule;
+    }
+
+    /**
+     * REQUIRES: session has not been started; its random numbers are a SeededRandom.
+     * MODIFIES: session.
+     * EFFECTS: Starts recording session and returns its record.
+     */
+    public static GameRecord of(GameSession session) {
+        List<String> names = new ArrayList<>();
+        for (Player player : session.getPlayers()) {
+            names.add(player.getName());
+        }
+        GameRecord record = new GameRecord(((SeededRandom) session.getRandom()).getSeed(), names,
+                session.getDifficulty(), session.getDeadEndRule());
+        session.setRecord(record);
+        return record;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns a session of the recorded game over places as it was before it started, with fresh players.
+     */
+    public GameSession newSession(PlaceIndex places) {
+        List<Player> fresh = new ArrayList<>();
+        for (String name : players) {
+            fresh.add(new Player(name));
+        }
+        GameSession session = new GameSession(fresh, places, difficulty, new SeededRandom(seed));
+        session.setDeadEndRule(deadEndRule);
+        return session;
+    }
+
+    public synchronized void answer(String text) {
+        inputs.add(text);
+    }
+
+    public synchronized void timeout() {
+        inputs.add(TIMEOUT);
+    }
+
+    public synchronized int size() {
+        return inputs.size();
+    }
+
+    /**
+     * REQUIRES: 0 <= index < size().
+     * MODIFIES: None.
+     * EFFECTS: Returns the text of the input with the given index, or null if it was a timeout.
+     */
+    public synchronized String inputAt(int index) {
+        return inputs.get(index);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public List<String> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public DeadEndRule getDeadEndRule() {
+        return deadEndRule;
+    }
+
+    /**
+     * REQUIRES: 0 <= inputs <= size().
+     * MODIFIES: None.
+     * EFFECTS: Returns a new record of the same game with only its first inputs inputs. Since inputs are only ever
+     *          appended, a copy can be made of what a record held at some point while the game goes on.
+     */
+    public synchronized GameRecord copy(int inputs) {
+        GameRecord copy = new GameRecord(seed, players, difficulty, deadEndRule);
+        copy.inputs.addAll(this.inputs.subList(0, inputs));
+        return copy;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the record as JSON, with each timeout as a JSON null among the inputs.
+     */
+    public synchronized JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("seed", seed);
+        json.put("players", new JSONArray(players));
+        json.put("difficulty", difficulty.name());
+        json.put("deadEndRule", deadEndRule.name());
+        JSONArray log = new JSONArray();
+        for (String input : inputs) {
+            log.put(input == null ? JSONObject.NULL : input);
+        }
+        json.put("inputs", log);
+        return json;
+    }
+
+    /**
+     * REQUIRES: json was made by toJson().
+     * MODIFIES: None.
+     * EFFECTS: Returns the record json holds.
+     */
+    public static GameRecord fromJson(JSONObject json) {
+        List<String> names = new ArrayList<>();
+        for (Object name : json.getJSONArray("players")) {
+            names.add((String) name);
+        }
+        GameRecord record = new GameRecord(json.getLong("seed"), names,
+                Difficulty.valueOf(json.getString("difficulty")), DeadEndRule.valueOf(json.getString("deadEndRule")));
+        JSONArray log = json.getJSONArray("inputs");
+        for (int i = 0; i < log.length(); i++) {
+            record.inputs.add(log.isNull(i) ? TIMEOUT : log.getString(i));
+        }
+        return record;
+    }
+}
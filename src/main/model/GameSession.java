@@ -0,0 +1,201 @@
+package model;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The GameSession class holds the state of one game: its players, whose turn it is, the current letter, the places
+ * answered so far and the state of the turn. It has no game logic of its own; a TurnEngine moves it from turn to turn.
+ */
+public class GameSession {
+
+    /**
+     * The states a session moves through. A session waits for an answer, may wait for a retry after a near-miss
+     * spelling, and is finished once at most one player is left.
+     */
+    public enum State {
+        AWAITING_ANSWER,
+        AWAITING_RETRY,
+        FINISHED
+    }
+
+    private final List<Player> players;
+    private final AnswerSet answers;
+    private final Random random;
+    private DeadEndRule deadEndRule = DeadEndRule.SKIP;
+    private int activePlayerIndex;
+    private char currentLetter;
+    private State state = State.AWAITING_ANSWER;
+    private Player winner;
+    private long turn;
+    private long events;
+    private long id;
+    private GameRecord record;
+
+    /**
+     * REQUIRES: players, places, difficulty and random are not null.
+     * MODIFIES: this.
+     * EFFECTS: Creates a session for the given players over the places playable at the given level. The session
+     *          shares the players list with the caller.
+     */
+    public GameSession(List<Player> players, PlaceIndex places, Difficulty difficulty, Random random) {
+        this.players = players;
+        this.answers = new AnswerSet(places, difficulty);
+        this.random = random;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the id the session is hosted under, or 0 if it is not hosted. Its events are logged with it.
+     */
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the record the inputs of this session are appended to as it is played, or null if it is not
+     *          recorded.
+     */
+    public GameRecord getRecord() {
+        return record;
+    }
+
+    public void setRecord(GameRecord record) {
+        this.record = record;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public AnswerSet getAnswers() {
+        return answers;
+    }
+
+    public Difficulty getDifficulty() {
+        return answers.getDifficulty();
+    }
+
+    public Random getRandom() {
+        return random;
+    }
+
+    public DeadEndRule getDeadEndRule() {
+        return deadEndRule;
+    }
+
+    public void setDeadEndRule(DeadEndRule deadEndRule) {
+        this.deadEndRule = deadEndRule;
+    }
+
+    public int getActivePlayerIndex() {
+        return activePlayerIndex;
+    }
+
+    public void setActivePlayerIndex(int activePlayerIndex) {
+        this.activePlayerIndex = activePlayerIndex;
+    }
+
+    /**
+     * REQUIRES: The session has at least one player.
+     * MODIFIES: None.
+     * EFFECTS: Returns the player whose turn it is.
+     */
+    public Player getActivePlayer() {
+        return players.get(activePlayerIndex);
+    }
+
+    public char getCurrentLetter() {
+        return currentLetter;
+    }
+
+    public void setCurrentLetter(char currentLetter) {
+        this.currentLetter = currentLetter;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of the current turn. It changes whenever the turn passes to a player and when the
+     *          game ends, but not when a player is given a retry, so a turn deadline can tell whether it still
+     *          applies.
+     */
+    public long getTurn() {
+        return turn;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Starts a new turn.
+     */
+    public void nextTurn() {
+        turn++;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Returns the number of the next event published for this session, counting from 1.
+     */
+    public long nextEventSequence() {
+        return ++events;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of the last event published for this session, or 0 if there has been none.
+     */
+    public long getEventSequence() {
+        return events;
+    }
+
+    public void setTurn(long turn) {
+        this.turn = turn;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Clears the answers, turn, events, record and winner of this session so it can be played again by the
+     *          same places, level and random numbers. The players list is left to the caller, who shares it.
+     */
+    public void reset() {
+        answers.clear();
+        activePlayerIndex = 0;
+        currentLetter = 0;
+        state = State.AWAITING_ANSWER;
+        winner = null;
+        turn = 0;
+        events = 0;
+        record = null;
+    }
+
+    public boolean isFinished() {
+        return state == State.FINISHED;
+    }
+
+    public Player getWinner() {
+        return winner;
+    }
+
+    public void setWinner(Player winner) {
+        this.winner = winner;
+    }
+}
@@ -0,0 +1,193 @@
+package model;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The Gazetteer class is the index of place names used to validate answers. Every name is stored once and given an
+ * integer id. An open-addressing hash table maps a canonical name to its id, and a bucket table groups ids by the
+ * first letter of the name, so lookups and per-letter counts never scan the whole database. The views of each
+ * Difficulty are kept up to date as names are added.
+ */
+public class Gazetteer implements PlaceIndex {
+    public static final int LETTERS = 26;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] names;
+    private Category[] categories;
+    private int size;
+    private int[] slots;
+    private int[][] buckets;
+    private int[] bucketSizes;
+    private final Map<Difficulty, GazetteerView> views = new EnumMap<>(Difficulty.class);
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Creates an empty gazetteer.
+     */
+    public Gazetteer() {
+        names = new String[INITIAL_CAPACITY];
+        categories = new Category[INITIAL_CAPACITY];
+        slots = new int[INITIAL_CAPACITY * 2];
+        buckets = new int[LETTERS][];
+        bucketSizes = new int[LETTERS];
+        for (int i = 0; i < LETTERS; i++) {
+            buckets[i] = new int[4];
+        }
+        for (Difficulty d : Difficulty.values()) {
+            views.put(d, new GazetteerView(d, INITIAL_CAPACITY));
+        }
+    }
+
+    /**
+     * REQUIRES: name is not null.
+     * MODIFIES: None.
+     * EFFECTS: Returns the canonical form of a place name: trimmed and in lower case.
+     */
+    public static String canonical(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the bucket index (0 - 25) of the given letter, or -1 if it is not a letter from a to z.
+     */
+    public static int letterIndex(char letter) {
+        char c = Character.toLowerCase(letter);
+        return (c >= 'a' && c <= 'z') ? c - 'a' : -1;
+    }
+
+    /**
+     * REQUIRES: name is not null or blank.
+     * MODIFIES: this.
+     * EFFECTS: Adds the canonical form of name with the given category to the gazetteer if it is not already there,
+     *          and returns its id. A name that is already there keeps its first category.
+     */
+    public int add(String name, Category category) {
+        String key = canonical(name);
+        int slot = findSlot(key);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            categories = Arrays.copyOf(categories, size * 2);
+        }
+        int id = size++;
+        names[id] = key;
+        categories[id] = category;
+        slots[slot] = id + 1;
+        addToBucket(key, id);
+        for (GazetteerView view : views.values()) {
+            view.offer(id, category, key.charAt(0));
+        }
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+
+    @Override
+    public int indexOf(String name) {
+        if (name.isEmpty()) {
+            return -1;
+        }
+        return slots[findSlot(name)] - 1;
+    }
+
+    @Override
+    public String nameAt(int id) {
+        return names[id];
+    }
+
+    @Override
+    public char firstLetter(int id) {
+        return names[id].charAt(0);
+    }
+
+    @Override
+    public char lastLetter(int id) {
+        return names[id].charAt(names[id].length() - 1);
+    }
+
+    @Override
+    public Category categoryOf(int id) {
+        return categories[id];
+    }
+
+    @Override
+    public GazetteerView view(Difficulty difficulty) {
+        return views.get(difficulty);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int countStartingWith(char letter) {
+        int index = letterIndex(letter);
+        return index < 0 ? 0 : bucketSizes[index];
+    }
+
+    @Override
+    public int idStartingWith(char letter, int i) {
+        return buckets[letterIndex(letter)][i];
+    }
+
+    /**
+     * REQUIRES: key is not empty.
+     * MODIFIES: None.
+     * EFFECTS: Returns the slot holding key, or the empty slot where key would be inserted (linear probing).
+     */
+    private int findSlot(String key) {
+        int mask = slots.length - 1;
+        int slot = mix(key.hashCode()) & mask;
+        while (slots[slot] != 0 && !names[slots[slot] - 1].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Spreads the bits of a String hash code so that similar names do not cluster in the table.
+     */
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * REQUIRES: capacity is a power of two greater than the number of names.
+     * MODIFIES: this.slots.
+     * EFFECTS: Rebuilds the hash table with the given number of slots.
+     */
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            slots[findSlot(names[id])] = id + 1;
+        }
+    }
+
+    /**
+     * REQUIRES: key is not empty.
+     * MODIFIES: this.buckets, this.bucketSizes.
+     * EFFECTS: Appends id to the bucket of the first letter of key, if that letter is a to z.
+     */
+    private void addToBucket(String key, int id) {
+        int index = letterIndex(key.charAt(0));
+        if (index < 0) {
+            return;
+        }
+        if (bucketSizes[index] == buckets[index].length) {
+            buckets[index] = Arrays.copyOf(buckets[index], bucketSizes[index] * 2);
+        }
+        buckets[index][bucketSizes[index]++] = id;
+    }
+}
@@ -0,0 +1,115 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The GazetteerView class is the subset of a PlaceIndex playable at one Difficulty. It is a bitset over the ids of
+ * the index plus a count of member names per starting letter. A PlaceIndex builds one view per level up front and
+ * every game at that level shares it, so starting a game never copies or filters the names.
+ */
+public class GazetteerView {
+    private final Difficulty difficulty;
+    private long[] members;
+    private final int[] counts;
+    private int size;
+    private volatile LetterGraph graph;
+
+    /**
+     * REQUIRES: capacity >= 0.
+     * MODIFIES: this.
+     * EFFECTS: Creates an empty view for the given level with room for ids below capacity.
+     */
+    GazetteerView(Difficulty difficulty, int capacity) {
+        this.difficulty = difficulty;
+        this.members = new long[Math.max(1, (capacity + 63) >>> 6)];
+        this.counts = new int[Gazetteer.LETTERS];
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Builds the view of index for the given level by checking the category of every name once.
+     */
+    static GazetteerView build(PlaceIndex index, Difficulty difficulty) {
+        GazetteerView view = new GazetteerView(difficulty, index.size());
+        for (int id = 0; id < index.size(); id++) {
+            view.offer(id, index.categoryOf(id), index.firstLetter(id));
+        }
+        return view;
+    }
+
+    /**
+     * REQUIRES: id is not already a member.
+     * MODIFIES: this.
+     * EFFECTS: Adds id to the view if its category is accepted at this level.
+     */
+    void offer(int id, Category category, char firstLetter) {
+        if (!difficulty.includes(category)) {
+            return;
+        }
+        int word = id >>> 6;
+        if (word >= members.length) {
+            members = Arrays.copyOf(members, Math.max(word + 1, members.length * 2));
+        }
+        members[word] |= 1L << id;
+        size++;
+        graph = null;
+        int index = Gazetteer.letterIndex(firstLetter);
+        if (index >= 0) {
+            counts[index]++;
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns true if the name with the given id is playable at this level.
+     */
+    public boolean includes(int id) {
+        int word = id >>> 6;
+        return id >= 0 && word < members.length && (members[word] & (1L << id)) != 0;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of playable names starting with the given letter.
+     */
+    public int countStartingWith(char letter) {
+        int index = Gazetteer.letterIndex(letter);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of playable names.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * REQUIRES: index is the PlaceIndex of this view.
+     * MODIFIES: this.
+     * EFFECTS: Returns the letter-transition graph of the names of this view, building it the first time it is asked
+     *          for and again after names are added.
+     */
+    LetterGraph letterGraph(PlaceIndex index) {
+        LetterGraph built = graph;
+        if (built == null) {
+            synchronized (this) {
+                built = graph;
+                if (built == null) {
+                    built = new LetterGraph(index, this);
+                    graph = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+}
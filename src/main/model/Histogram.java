@@ -0,0 +1,89 @@
+package model;
+
+/**
+ * The Histogram class counts non-negative whole numbers, such as the turns of a game, with one bucket per value below
+ * a limit and one bucket for everything from the limit up. It also keeps the exact sum and maximum, so the mean is
+ * exact even when values overflow. A histogram is not thread-safe: each thread fills its own and the histograms are
+ * merged afterwards, which gives the same counts in whatever order they are merged.
+ */
+public class Histogram {
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * REQUIRES: limit > 0.
+     * MODIFIES: this.
+     * EFFECTS: Creates an empty histogram with exact buckets for the values below limit.
+     */
+    public Histogram(int limit) {
+        counts = new long[limit + 1];
+    }
+
+    /**
+     * REQUIRES: value >= 0.
+     * MODIFIES: this.
+     * EFFECTS: Counts value.
+     */
+    public void record(long value) {
+        counts[(int) Math.min(value, counts.length - 1)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * REQUIRES: other has the same limit as this.
+     * MODIFIES: this.
+     * EFFECTS: Adds the counts of other to this.
+     */
+    public void merge(Histogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the mean of the values counted, or 0 if there are none.
+     */
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * REQUIRES: 0 < percentile <= 100.
+     * MODIFIES: None.
+     * EFFECTS: Returns the smallest value at or below which the given percentage of the values counted lie, or the
+     *          limit if that value overflowed, or 0 if nothing has been counted.
+     */
+    public long percentile(double percentile) {
+        long rank = (long) Math.ceil(percentile / 100 * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length && count > 0; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("mean=%.2f p50=%d p99=%d max=%d", mean(), percentile(50), percentile(99), max);
+    }
+}
@@ -0,0 +1,85 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The LetterGraph class is the letter-transition graph of the names of a GazetteerView: an edge from each first letter
+ * to each last letter, weighted by the number of playable names that start and end with them. Each edge also keeps the
+ * ids of its names, so a name for any (first, last) pair is found without a search. A graph is built once per view,
+ * the first time it is asked for, and shared by every game at that level; what a game has answered is subtracted by
+ * its AnswerSet.
+ */
+public class LetterGraph {
+    public static final int PAIRS = Gazetteer.LETTERS * Gazetteer.LETTERS;
+
+    private final PlaceIndex places;
+    private final int[] counts = new int[PAIRS];
+    private final int[][] ids = new int[PAIRS][];
+
+    /**
+     * REQUIRES: view is a view of places.
+     * MODIFIES: this.
+     * EFFECTS: Builds the graph of the names of view in one pass over places.
+     */
+    LetterGraph(PlaceIndex places, GazetteerView view) {
+        this.places = places;
+        int[] pairs = new int[places.size()];
+        for (int id = 0; id < places.size(); id++) {
+            pairs[id] = view.includes(id) ? pair(places.firstLetter(id), places.lastLetter(id)) : -1;
+            if (pairs[id] >= 0) {
+                counts[pairs[id]]++;
+            }
+        }
+        int[] filled = new int[PAIRS];
+        for (int p = 0; p < PAIRS; p++) {
+            ids[p] = new int[counts[p]];
+        }
+        for (int id = 0; id < pairs.length; id++) {
+            if (pairs[id] >= 0) {
+                ids[pairs[id]][filled[pairs[id]]++] = id;
+            }
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the index of the edge from first to last, or -1 if either is not a letter from a to z.
+     */
+    public static int pair(char first, char last) {
+        int from = Gazetteer.letterIndex(first);
+        int to = Gazetteer.letterIndex(last);
+        return from < 0 || to < 0 ? -1 : from * Gazetteer.LETTERS + to;
+    }
+
+    public PlaceIndex getPlaces() {
+        return places;
+    }
+
+    /**
+     * REQUIRES: 0 <= pair < PAIRS.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of playable names on the edge with the given index.
+     */
+    public int count(int pair) {
+        return counts[pair];
+    }
+
+    /**
+     * REQUIRES: 0 <= pair < PAIRS; 0 <= i < count(pair).
+     * MODIFIES: None.
+     * EFFECTS: Returns the id of the i-th name on the edge with the given index, in id order.
+     */
+    public int idAt(int pair, int i) {
+        return ids[pair][i];
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns a copy of the name count of every edge.
+     */
+    public int[] counts() {
+        return Arrays.copyOf(counts, PAIRS);
+    }
+}
@@ -0,0 +1,83 @@
+package model;
+
+/**
+ * The PlaceIndex interface is the read side of a place-name database. Every name has an integer id between 0 and
+ * size() - 1 and a Category, and names can be looked up by id, by canonical name, or by their first letter.
+ */
+public interface PlaceIndex {
+
+    /**
+     * REQUIRES: name is already canonical (see Gazetteer.canonical(String)).
+     * MODIFIES: None.
+     * EFFECTS: Returns the id of name, or -1 if it is not in the index.
+     */
+    int indexOf(String name);
+
+    /**
+     * REQUIRES: name is already canonical (see Gazetteer.canonical(String)).
+     * MODIFIES: None.
+     * EFFECTS: Returns true if name is in the index.
+     */
+    default boolean contains(String name) {
+        return indexOf(name) >= 0;
+    }
+
+    /**
+     * REQUIRES: 0 <= id < size().
+     * MODIFIES: None.
+     * EFFECTS: Returns the name with the given id.
+     */
+    String nameAt(int id);
+
+    /**
+     * REQUIRES: 0 <= id < size().
+     * MODIFIES: None.
+     * EFFECTS: Returns the first letter of the name with the given id.
+     */
+    char firstLetter(int id);
+
+    /**
+     * REQUIRES: 0 <= id < size().
+     * MODIFIES: None.
+     * EFFECTS: Returns the last letter of the name with the given id.
+     */
+    default char lastLetter(int id) {
+        String name = nameAt(id);
+        return name.charAt(name.length() - 1);
+    }
+
+    /**
+     * REQUIRES: 0 <= id < size().
+     * MODIFIES: None.
+     * EFFECTS: Returns the category of the place with the given id.
+     */
+    Category categoryOf(int id);
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the shared view of the names playable at the given level.
+     */
+    GazetteerView view(Difficulty difficulty);
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of names in the index.
+     */
+    int size();
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of names starting with the given letter.
+     */
+    int countStartingWith(char letter);
+
+    /**
+     * REQUIRES: 0 <= i < countStartingWith(letter).
+     * MODIFIES: None.
+     * EFFECTS: Returns the id of the i-th name starting with the given letter.
+     */
+    int idStartingWith(char letter, int i);
+}
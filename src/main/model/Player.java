@@ -76,6 +76,16 @@ public class Player {
         this.lettersAssigned++;
     }
 
+    /**
+     * Requires: None.
+     * Modifies: The 'lettersAssigned' field and the 'assignedLetters' list.
+     * Effects: Takes back every letter assigned to the player, so it can play another game.
+     */
+    public void reset() {
+        this.lettersAssigned = 0;
+        this.assignedLetters.clear();
+    }
+
     public JSONObject toJson() {
         JSONObject jsonObject = new JSONObject();
         jsonObject.put("name", name);
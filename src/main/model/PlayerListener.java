@@ -0,0 +1,37 @@
+package model;
+
+/**
+ * The PlayerListener interface is told when the players of a Game change: when one joins, is renamed or is assigned a
+ * letter, is eliminated, or when the game forgets all of them. Game calls it on the thread that made the change, right
+ * after the change, so implementations that update a user interface must hand the work to its own thread.
+ */
+public interface PlayerListener {
+
+    /**
+     * REQUIRES: player has just been added after the other players.
+     * MODIFIES: this.
+     * EFFECTS: Reacts to player joining.
+     */
+    void playerAdded(Player player);
+
+    /**
+     * REQUIRES: player has been added.
+     * MODIFIES: this.
+     * EFFECTS: Reacts to the name or assigned letters of player changing.
+     */
+    void playerChanged(Player player);
+
+    /**
+     * REQUIRES: player had been added.
+     * MODIFIES: this.
+     * EFFECTS: Reacts to player leaving the game.
+     */
+    void playerRemoved(Player player);
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Reacts to the game forgetting every player.
+     */
+    void playersCleared();
+}
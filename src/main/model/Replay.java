@@ -0,0 +1,188 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Replay class re-executes a GameRecord with its own TurnEngine, at full speed and with nothing logged, printed or
+ * published, so a disputed game can be checked turn by turn. Playing the record once stores a checkpoint of the game
+ * every checkpointEvery inputs: a copy of its players, letter, state, answered places and random number state. Seeking
+ * to any input restores the checkpoint at or before it and re-executes fewer than checkpointEvery inputs from there,
+ * so a seek costs the same near the end of a long game as near its start.
+ *
+ * The record may still be growing. A Replay keeps playing on from where it stopped whenever it is asked for inputs
+ * it has not played yet, so one Replay can be kept for the whole of a game and only ever plays each input once.
+ */
+public class Replay {
+    public static final int DEFAULT_CHECKPOINT_EVERY = 256;
+
+    private final TurnEngine engine;
+    private final GameRecord record;
+    private final int checkpointEvery;
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+    private final GameSession tip;
+    private int length;
+
+    /**
+     * REQUIRES: spelling indexes places; places holds the places the recorded game was played over;
+     *           checkpointEvery > 0.
+     * MODIFIES: this.
+     * EFFECTS: Plays record through once, up to the end of its game, checkpointing every checkpointEvery inputs.
+     */
+    public Replay(PlaceIndex places, SpellingIndex spelling, GameRecord record, int checkpointEvery) {
+        this.engine = new TurnEngine(places, spelling);
+        this.record = record;
+        this.checkpointEvery = checkpointEvery;
+        engine.setLogged(false);
+        tip = record.newSession(places);
+        engine.start(tip);
+        checkpoints.add(new Checkpoint(tip, 0));
+        extend();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Plays the inputs added to the record since it was last played, up to the end of its game,
+     *          checkpointing every checkpointEvery inputs, and returns length().
+     */
+    public synchronized int extend() {
+        while (length < record.size() && !tip.isFinished()) {
+            play(tip, length++);
+            if (length % checkpointEvery == 0) {
+                checkpoints.add(new Checkpoint(tip, length));
+            }
+        }
+        return length;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns how many inputs of the record were played, which is all of them unless the game ended first
+     *          or the record has grown since.
+     */
+    public synchronized int length() {
+        return length;
+    }
+
+    public synchronized int getCheckpoints() {
+        return checkpoints.size();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Returns a new session in the state the recorded game was in after its first inputs inputs, playing on
+     *          first if the record has grown past length(). Throws IllegalArgumentException if inputs is negative
+     *          or more than could be played.
+     */
+    public synchronized GameSession seek(int inputs) {
+        if (inputs > length) {
+            extend();
+        }
+        if (inputs < 0 || inputs > length) {
+            throw new IllegalArgumentException("The record has " + length + " inputs");
+        }
+        Checkpoint checkpoint = checkpoints.get(inputs / checkpointEvery);
+        GameSession session = checkpoint.restore();
+        for (int played = checkpoint.inputs; played < inputs; played++) {
+            play(session, played);
+        }
+        return session;
+    }
+
+    /**
+     * REQUIRES: session is in the state the recorded game was in after index inputs.
+     * MODIFIES: session.
+     * EFFECTS: Plays the input with the given index.
+     */
+    private void play(GameSession session, int index) {
+        String input = record.inputAt(index);
+        if (input == null) {
+            engine.timeout(session);
+        } else {
+            engine.submitAnswer(session, input);
+        }
+    }
+
+    /**
+     * A copy of the state of a replayed session, taken after a number of inputs.
+     */
+    private final class Checkpoint {
+        private final int inputs;
+        private final String[] names;
+        private final String[] letters;
+        private final int[] counts;
+        private final int active;
+        private final char letter;
+        private final GameSession.State state;
+        private final String winner;
+        private final long turn;
+        private final int[] answered;
+        private final long random;
+
+        Checkpoint(GameSession session, int inputs) {
+            this.inputs = inputs;
+            List<Player> players = session.getPlayers();
+            names = new String[players.size()];
+            letters = new String[players.size()];
+            counts = new int[players.size()];
+            for (int i = 0; i < players.size(); i++) {
+                names[i] = players.get(i).getName();
+                StringBuilder sb = new StringBuilder();
+                players.get(i).getAssignedLetters().forEach(sb::append);
+                letters[i] = sb.toString();
+                counts[i] = players.get(i).getLettersAssigned();
+            }
+            active = session.getActivePlayerIndex();
+            letter = session.getCurrentLetter();
+            state = session.getState();
+            winner = session.getWinner() == null ? null : session.getWinner().getName();
+            turn = session.getTurn();
+            answered = session.getAnswers().answeredIds();
+            random = ((SeededRandom) session.getRandom()).getState();
+        }
+
+        /**
+         * REQUIRES: None.
+         * MODIFIES: None.
+         * EFFECTS: Returns a new session in the state this checkpoint copied.
+         */
+        GameSession restore() {
+            SeededRandom numbers = new SeededRandom(record.getSeed());
+            numbers.setState(random);
+            GameSession session = new GameSession(restorePlayers(), engine.getPlaces(), record.getDifficulty(),
+                    numbers);
+            session.setDeadEndRule(record.getDeadEndRule());
+            for (int id : answered) {
+                session.getAnswers().markAnswered(id);
+            }
+            session.setActivePlayerIndex(active);
+            session.setCurrentLetter(letter);
+            session.setState(state);
+            session.setTurn(turn);
+            for (Player player : session.getPlayers()) {
+                if (player.getName().equals(winner)) {
+                    session.setWinner(player);
+                }
+            }
+            return session;
+        }
+
+        private List<Player> restorePlayers() {
+            List<Player> players = new ArrayList<>(names.length);
+            for (int i = 0; i < names.length; i++) {
+                Player player = new Player(names[i]);
+                for (char c : letters[i].toCharArray()) {
+                    player.assignLetter(c);
+                }
+                for (int n = 0; n < counts[i]; n++) {
+                    player.incrementLettersAssigned();
+                }
+                players.add(player);
+            }
+            return players;
+        }
+    }
+}
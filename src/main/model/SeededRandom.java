@@ -0,0 +1,67 @@
+package model;
+
+import java.util.Random;
+
+/**
+ * The SeededRandom class is a Random that remembers its seed and whose state can be read and restored. It draws
+ * exactly the numbers a new Random(seed) would, so a game started from a seed makes the same draws every time it is
+ * played, and a copy of a game taken halfway can go on drawing where the original left off.
+ */
+public class SeededRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long seed;
+    private long state;
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Creates a generator that draws the same numbers as new Random(seed).
+     */
+    public SeededRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Starts the generator over from seed. Random's constructor calls this too.
+     */
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        this.seed = seed;
+        this.state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected synchronized int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    public synchronized long getSeed() {
+        return seed;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the state of the generator, which determines every number it draws from now on.
+     */
+    public synchronized long getState() {
+        return state;
+    }
+
+    /**
+     * REQUIRES: state was returned by getState() of a generator with the same seed.
+     * MODIFIES: this.
+     * EFFECTS: Makes the generator draw what the one whose state it was would have drawn from then on.
+     */
+    public synchronized void setState(long state) {
+        this.state = state & MASK;
+    }
+}
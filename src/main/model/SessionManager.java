@@ -0,0 +1,268 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * The SessionManager class hosts any number of independent games in one process. All sessions share one TurnEngine
+ * and therefore one place index, which must not change while sessions are hosted; each session only holds its own
+ * players, answered places, current letter and active player.
+ *
+ * Sessions are found through a concurrent map and each one has its own lock, so turns in unrelated sessions never
+ * wait for each other. A session that has not been used for longer than the idle timeout is removed by expireIdle().
+ *
+ * With a TurnTimer, every turn gets a deadline when it starts. A retry keeps the deadline of its turn, and a turn that
+ * runs out is ended through TurnEngine.timeout(GameSession) and reported to the timeout listener.
+ */
+public class SessionManager {
+    private final TurnEngine engine;
+    private final long idleTimeout;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<Long, Hosted> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final TurnTimer timer;
+    private final long turnLimit;
+    private volatile BiConsumer<Long, TurnResult> timeoutListener = (id, result) -> { };
+
+    /**
+     * REQUIRES: idleTimeout > 0; turnLimit > 0; clock and timer measure time in the same unit.
+     * MODIFIES: this.
+     * EFFECTS: Creates an empty manager whose sessions are judged by engine, expire after idleTimeout, and give each
+     *          turn turnLimit to answer, enforced by timer. timer may be null to play without a time limit.
+     */
+    public SessionManager(TurnEngine engine, long idleTimeout, LongSupplier clock, TurnTimer timer, long turnLimit) {
+        this.engine = engine;
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+        this.timer = timer;
+        this.turnLimit = turnLimit;
+    }
+
+    /**
+     * REQUIRES: idleTimeout > 0; clock returns non-decreasing times in the same unit as idleTimeout.
+     * MODIFIES: this.
+     * EFFECTS: Creates an empty manager whose sessions are judged by engine and expire after idleTimeout.
+     */
+    public SessionManager(TurnEngine engine, long idleTimeout, LongSupplier clock) {
+        this(engine, idleTimeout, clock, null, 0);
+    }
+
+    /**
+     * REQUIRES: idleTimeoutMillis > 0.
+     * MODIFIES: this.
+     * EFFECTS: Creates an empty manager on the system clock whose sessions expire after idleTimeoutMillis.
+     */
+    public SessionManager(TurnEngine engine, long idleTimeoutMillis) {
+        this(engine, idleTimeoutMillis, System::currentTimeMillis);
+    }
+
+    public TurnEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * REQUIRES: listener is not null and does not block.
+     * MODIFIES: this.
+     * EFFECTS: Sets the listener told about every turn that ran out of time, with the id of its session.
+     */
+    public void setTimeoutListener(BiConsumer<Long, TurnResult> listener) {
+        this.timeoutListener = listener;
+    }
+
+    /**
+     * REQUIRES: players has at least two players; difficulty is not null.
+     * MODIFIES: this.
+     * EFFECTS: Starts a new game for the given players and returns its id. The session keeps its own copy of the
+     *          players list, draws its random numbers from seed and keeps a GameRecord of its inputs.
+     */
+    public long create(List<Player> players, Difficulty difficulty, DeadEndRule rule, long seed) {
+        GameSession session = new GameSession(new ArrayList<>(players), engine.getPlaces(), difficulty,
+                new SeededRandom(seed));
+        session.setDeadEndRule(rule);
+        GameRecord.of(session);
+        long id = nextId.getAndIncrement();
+        session.setId(id);
+        engine.start(session);
+        host(id, session);
+        return id;
+    }
+
+    /**
+     * REQUIRES: session has at least two players, is over places the engine judges, and is not hosted anywhere.
+     * MODIFIES: this, session.
+     * EFFECTS: Hosts a game restored from a save as it stands, without starting it again, and returns its new id.
+     */
+    public long restore(GameSession session) {
+        long id = nextId.getAndIncrement();
+        session.setId(id);
+        host(id, session);
+        return id;
+    }
+
+    private void host(long id, GameSession session) {
+        Hosted hosted = new Hosted(session, clock.getAsLong());
+        hosted.lock.lock();
+        try {
+            sessions.put(id, hosted);
+            scheduleTurn(id, hosted);
+        } finally {
+            hosted.lock.unlock();
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: the session with the given id.
+     * EFFECTS: Submits text as the answer of the active player in the given session and returns what happened.
+     *          Throws IllegalArgumentException if there is no such session and IllegalStateException if it is over.
+     */
+    public TurnResult submitAnswer(long id, String text) {
+        return withSession(id, session -> engine.submitAnswer(session, text));
+    }
+
+    /**
+     * REQUIRES: action does not keep a reference to the session after it returns.
+     * MODIFIES: the session with the given id.
+     * EFFECTS: Runs action on the given session while holding its lock, marks the session as used and returns the
+     *          result. Throws IllegalArgumentException if there is no such session.
+     */
+    public <T> T withSession(long id, Function<GameSession, T> action) {
+        Hosted hosted = sessions.get(id);
+        if (hosted == null) {
+            throw new IllegalArgumentException("No session " + id);
+        }
+        hosted.lock.lock();
+        try {
+            hosted.lastUsed = clock.getAsLong();
+            T result = action.apply(hosted.session);
+            scheduleTurn(id, hosted);
+            return result;
+        } finally {
+            hosted.lock.unlock();
+        }
+    }
+
+    /**
+     * REQUIRES: The caller holds the lock of hosted.
+     * MODIFIES: hosted.
+     * EFFECTS: If the session has moved on to a new turn, cancels the deadline of the old turn and schedules one for
+     *          the new turn; a finished session gets no deadline.
+     */
+    private void scheduleTurn(long id, Hosted hosted) {
+        GameSession session = hosted.session;
+        if (timer == null || (hosted.deadline != null && hosted.timedTurn == session.getTurn())) {
+            return;
+        }
+        if (hosted.deadline != null) {
+            hosted.deadline.cancel();
+            hosted.deadline = null;
+        }
+        if (!session.isFinished()) {
+            long turn = session.getTurn();
+            hosted.timedTurn = turn;
+            hosted.deadline = timer.schedule(turnLimit, () -> expireTurn(id, hosted, turn));
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: the session of hosted.
+     * EFFECTS: Ends the given turn of the session by timeout if it is still being played, schedules the deadline of
+     *          the next turn and tells the timeout listener.
+     */
+    private void expireTurn(long id, Hosted hosted, long turn) {
+        TurnResult result = null;
+        hosted.lock.lock();
+        try {
+            GameSession session = hosted.session;
+            if (sessions.get(id) == hosted && !session.isFinished() && session.getTurn() == turn) {
+                hosted.deadline = null;
+                result = engine.timeout(session);
+                scheduleTurn(id, hosted);
+            }
+        } finally {
+            hosted.lock.unlock();
+        }
+        if (result != null) {
+            timeoutListener.accept(id, result);
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns true if a session with the given id is hosted.
+     */
+    public boolean contains(long id) {
+        return sessions.containsKey(id);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Removes the given session and returns true if it was hosted.
+     */
+    public boolean close(long id) {
+        Hosted hosted = sessions.remove(id);
+        if (hosted != null && hosted.deadline != null) {
+            hosted.deadline.cancel();
+        }
+        return hosted != null;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Removes every session that has not been used for longer than the idle timeout and returns their ids,
+     *          so whoever hosts them can forget them too. Sessions that are busy with a turn are left alone until the
+     *          next call.
+     */
+    public List<Long> expireIdle() {
+        long now = clock.getAsLong();
+        List<Long> removed = new ArrayList<>();
+        for (Long id : sessions.keySet()) {
+            Hosted hosted = sessions.get(id);
+            if (hosted == null || !hosted.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (now - hosted.lastUsed > idleTimeout && sessions.remove(id, hosted)) {
+                    removed.add(id);
+                    if (hosted.deadline != null) {
+                        hosted.deadline.cancel();
+                    }
+                }
+            } finally {
+                hosted.lock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * A hosted session with its lock, the time it was last used and the deadline of its current turn. lastUsed is
+     * only written under lock, but is volatile so that expireIdle() sees recent turns.
+     */
+    private static class Hosted {
+        private final GameSession session;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastUsed;
+        private TurnTimer.Timeout deadline;
+        private long timedTurn;
+
+        Hosted(GameSession session, long lastUsed) {
+            this.session = session;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package model;
+
+/**
+ * The SimulationStats class aggregates the outcomes of simulated games: how many turns and dead ends each game had,
+ * how often bots let a turn time out, which seat won, and how often the player who moved first won, overall and by
+ * the starting letter drawn from START_WORD. Like Histogram it is filled by one thread and merged afterwards.
+ */
+public class SimulationStats {
+    public static final int TURN_LIMIT = 4096;
+    public static final int DEAD_END_LIMIT = 256;
+
+    private final Histogram turns = new Histogram(TURN_LIMIT);
+    private final Histogram deadEnds = new Histogram(DEAD_END_LIMIT);
+    private final long[] winsBySeat;
+    private final long[] gamesByLetter = new long[Gazetteer.LETTERS];
+    private final long[] starterWinsByLetter = new long[Gazetteer.LETTERS];
+    private long timeouts;
+    private long noWinner;
+
+    /**
+     * REQUIRES: seats > 0.
+     * MODIFIES: this.
+     * EFFECTS: Creates empty statistics for games of the given number of players.
+     */
+    public SimulationStats(int seats) {
+        winsBySeat = new long[seats];
+    }
+
+    /**
+     * REQUIRES: 0 <= starter < seats; -1 <= winner < seats.
+     * MODIFIES: this.
+     * EFFECTS: Counts a game of the given length that started on letter with the player in seat starter, and was won
+     *          by the player in seat winner, or by nobody if winner is -1.
+     */
+    public void record(int turnCount, int deadEndCount, int timeoutCount, char letter, int starter, int winner) {
+        turns.record(turnCount);
+        deadEnds.record(deadEndCount);
+        timeouts += timeoutCount;
+        int index = Gazetteer.letterIndex(letter);
+        if (index >= 0) {
+            gamesByLetter[index]++;
+        }
+        if (winner < 0) {
+            noWinner++;
+            return;
+        }
+        winsBySeat[winner]++;
+        if (winner == starter && index >= 0) {
+            starterWinsByLetter[index]++;
+        }
+    }
+
+    /**
+     * REQUIRES: other counts games of as many players as this.
+     * MODIFIES: this.
+     * EFFECTS: Adds the games counted by other to this.
+     */
+    public void merge(SimulationStats other) {
+        turns.merge(other.turns);
+        deadEnds.merge(other.deadEnds);
+        for (int i = 0; i < winsBySeat.length; i++) {
+            winsBySeat[i] += other.winsBySeat[i];
+        }
+        for (int i = 0; i < Gazetteer.LETTERS; i++) {
+            gamesByLetter[i] += other.gamesByLetter[i];
+            starterWinsByLetter[i] += other.starterWinsByLetter[i];
+        }
+        timeouts += other.timeouts;
+        noWinner += other.noWinner;
+    }
+
+    public long games() {
+        return turns.count();
+    }
+
+    public Histogram getTurns() {
+        return turns;
+    }
+
+    public Histogram getDeadEnds() {
+        return deadEnds;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getNoWinner() {
+        return noWinner;
+    }
+
+    /**
+     * REQUIRES: 0 <= seat < the number of seats.
+     * MODIFIES: None.
+     * EFFECTS: Returns the share of the games counted that the player in seat won.
+     */
+    public double winRate(int seat) {
+        return games() == 0 ? 0 : (double) winsBySeat[seat] / games();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the share of the games started on letter that the player who moved first won, or NaN if no
+     *          game started on it.
+     */
+    public double starterWinRate(char letter) {
+        int index = Gazetteer.letterIndex(letter);
+        return index < 0 || gamesByLetter[index] == 0 ? Double.NaN
+                : (double) starterWinsByLetter[index] / gamesByLetter[index];
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns a report of the statistics, one line per measure.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("games=").append(games()).append(" noWinner=").append(noWinner)
+                .append(" timeouts=").append(timeouts)
+                .append("\nturns ").append(turns).append("\ndeadEnds ").append(deadEnds).append("\nwins");
+        for (int seat = 0; seat < winsBySeat.length; seat++) {
+            sb.append(String.format(" seat%d=%.3f", seat + 1, winRate(seat)));
+        }
+        sb.append("\nfirst mover wins by starting letter");
+        for (int i = 0; i < TurnEngine.START_WORD.length(); i++) {
+            char letter = TurnEngine.START_WORD.charAt(i);
+            if (TurnEngine.START_WORD.indexOf(letter) == i) {
+                sb.append(String.format(" %c=%.3f", letter, starterWinRate(letter)));
+            }
+        }
+        return sb.toString();
+    }
+}
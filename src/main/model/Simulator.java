@@ -0,0 +1,181 @@
+package model;
+
+import persistence.DawgReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Simulator class plays bot-against-bot games by the rules of TurnEngine to measure how the level, the dead-end
+ * rule and the gazetteer affect the length of games, how often they hit dead ends and how fair the draw of the
+ * starting letter and player is. Games are split across a fork/join pool in batches of GRAIN. Each batch reuses one
+ * SeededRandom and one GameSession, with its AnswerSet and bots, resetting them between games, and fills its own
+ * SimulationStats. The stats of sibling batches are merged as they join, so the workers share nothing but the
+ * read-only places and engine.
+ *
+ * Game number g is played from a seed mixed from the simulation seed and g, so the results do not depend on the
+ * number of threads or on how the batches were scheduled.
+ */
+public class Simulator {
+    public static final int GRAIN = 256;
+
+    private final TurnEngine engine;
+    private final Difficulty difficulty;
+    private final DeadEndRule deadEndRule;
+    private final BotPlayer.Skill[] seats;
+    private final long seed;
+
+    /**
+     * REQUIRES: spelling indexes places; seats holds between 2 and 5 skills.
+     * MODIFIES: this.
+     * EFFECTS: Creates a simulator of games over places at the given level and dead-end rule, between bots of the
+     *          given skills in seat order, drawn from seed.
+     */
+    public Simulator(PlaceIndex places, SpellingIndex spelling, Difficulty difficulty, DeadEndRule deadEndRule,
+                     List<BotPlayer.Skill> seats, long seed) {
+        this.engine = new TurnEngine(places, spelling);
+        this.difficulty = difficulty;
+        this.deadEndRule = deadEndRule;
+        this.seats = seats.toArray(new BotPlayer.Skill[0]);
+        this.seed = seed;
+        engine.setLogged(false);
+        places.view(difficulty).letterGraph(places);
+    }
+
+    /**
+     * REQUIRES: games >= 0.
+     * MODIFIES: None.
+     * EFFECTS: Plays games games on pool and returns their statistics.
+     */
+    public SimulationStats run(ForkJoinPool pool, long games) {
+        return pool.invoke(new Batch(0, games));
+    }
+
+    /**
+     * REQUIRES: 0 <= from <= to.
+     * MODIFIES: None.
+     * EFFECTS: Plays the games numbered from to to - 1 on this thread and returns their statistics.
+     */
+    SimulationStats play(long from, long to) {
+        SimulationStats stats = new SimulationStats(seats.length);
+        SeededRandom random = new SeededRandom(seed);
+        List<Player> bots = new ArrayList<>(seats.length);
+        for (int i = 0; i < seats.length; i++) {
+            bots.add(new BotPlayer("Seat" + (i + 1), seats[i], random));
+        }
+        GameSession session = new GameSession(new ArrayList<>(bots), engine.getPlaces(), difficulty, random);
+        session.setDeadEndRule(deadEndRule);
+        for (long game = from; game < to; game++) {
+            random.setSeed(seedOf(seed, game));
+            playOne(session, bots, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * REQUIRES: session and bots were made by play and share its SeededRandom.
+     * MODIFIES: session, bots, stats.
+     * EFFECTS: Resets session and bots, plays one game between the bots to the end and counts it in stats.
+     */
+    private void playOne(GameSession session, List<Player> bots, SimulationStats stats) {
+        session.reset();
+        for (Player bot : bots) {
+            bot.reset();
+        }
+        session.getPlayers().clear();
+        session.getPlayers().addAll(bots);
+        engine.start(session);
+        char letter = session.getCurrentLetter();
+        int starter = session.getActivePlayerIndex();
+        int turns = 0;
+        int deadEnds = 0;
+        int timeouts = 0;
+        while (!session.isFinished()) {
+            String answer = ((BotPlayer) session.getActivePlayer()).chooseAnswer(session);
+            TurnResult result = answer == null ? engine.timeout(session) : engine.submitAnswer(session, answer);
+            turns++;
+            deadEnds += result.getDeadLetter() != 0 ? 1 : 0;
+            timeouts += answer == null ? 1 : 0;
+        }
+        stats.record(turns, deadEnds, timeouts, letter, starter, bots.indexOf(session.getWinner()));
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the seed of the given game, mixed from seed and the game number (SplitMix64).
+     */
+    static long seedOf(long seed, long game) {
+        long z = seed + (game + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The games numbered from to to - 1, split in half until a half is at most GRAIN games.
+     */
+    private final class Batch extends RecursiveTask<SimulationStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        Batch(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from <= GRAIN) {
+                return play(from, to);
+            }
+            long middle = from + (to - from) / 2;
+            Batch left = new Batch(from, middle);
+            left.fork();
+            SimulationStats stats = new Batch(middle, to).compute();
+            stats.merge(left.join());
+            return stats;
+        }
+    }
+
+    /**
+     * REQUIRES: args is empty or holds, in order: the number of games, the level, the number of players, the skill of
+     *           the bots, the dead-end rule and the path of a gazetteer file written by DawgWriter.
+     * MODIFIES: None.
+     * EFFECTS: Simulates the games on every core with the built-in places or the given gazetteer, and prints their
+     *          statistics and how many games were played per second.
+     */
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        Difficulty difficulty = args.length > 1 ? Difficulty.valueOf(args[1].toUpperCase()) : Difficulty.EASY;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        BotPlayer.Skill skill = args.length > 3 ? BotPlayer.Skill.valueOf(args[3].toUpperCase())
+                : BotPlayer.Skill.MEDIUM;
+        DeadEndRule rule = args.length > 4 ? DeadEndRule.valueOf(args[4].toUpperCase()) : DeadEndRule.SKIP;
+        PlaceIndex places = args.length > 5 ? new DawgReader(args[5]).read() : defaultPlaces();
+        List<BotPlayer.Skill> seats = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            seats.add(skill);
+        }
+        Simulator simulator = new Simulator(places, new SpellingIndex(places), difficulty, rule, seats, 1);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long start = System.nanoTime();
+        SimulationStats stats = simulator.run(pool, games);
+        double seconds = Math.max(1, System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.println(stats);
+        System.out.printf("%d games in %.2f s on %d threads: %.0f games/s%n", games, seconds,
+                pool.getParallelism(), games / seconds);
+    }
+
+    private static PlaceIndex defaultPlaces() {
+        Gazetteer places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        return places;
+    }
+}
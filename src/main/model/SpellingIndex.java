@@ -0,0 +1,193 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * The SpellingIndex class finds the place name closest to a misspelled answer. It is a deletion dictionary: every name
+ * is filed under itself and under each string made by deleting one of its characters, so two strings within one edit
+ * (insertion, deletion, substitution or swap of neighbours) always share a key. A query only hashes its own deletions
+ * and checks the few names filed under them, so its cost does not depend on the size of the gazetteer.
+ *
+ * The first character is never deleted, because an answer must already start with the current letter. Deleting
+ * either of two equal neighbours gives the same key, so only the first is filed, except that the second character is
+ * always deleted since the first never is. Keys are
+ * stored as 32-bit hashes and every candidate is checked against the query, so hash collisions cannot produce a wrong
+ * suggestion.
+ */
+public class SpellingIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final PlaceIndex places;
+    private int indexed;
+    private int[] keys;
+    private int[] heads;
+    private int usedKeys;
+    private int[] entryIds;
+    private int[] entryNext;
+    private int entries;
+
+    /**
+     * REQUIRES: places is not null.
+     * MODIFIES: this.
+     * EFFECTS: Creates an index over the names currently in places.
+     */
+    public SpellingIndex(PlaceIndex places) {
+        this.places = places;
+        this.keys = new int[INITIAL_CAPACITY];
+        this.heads = new int[INITIAL_CAPACITY];
+        this.entryIds = new int[INITIAL_CAPACITY];
+        this.entryNext = new int[INITIAL_CAPACITY];
+        update();
+    }
+
+    /**
+     * REQUIRES: Names are only ever appended to places.
+     * MODIFIES: this.
+     * EFFECTS: Indexes the names added to places since the last update.
+     */
+    public void update() {
+        for (; indexed < places.size(); indexed++) {
+            String name = places.nameAt(indexed);
+            addEntry(hash(name, -1), indexed);
+            for (int skip = 1; skip < name.length(); skip++) {
+                if (skip == 1 || name.charAt(skip) != name.charAt(skip - 1)) {
+                    addEntry(hash(name, skip), indexed);
+                }
+            }
+        }
+    }
+
+    /**
+     * REQUIRES: query is canonical and not empty.
+     * MODIFIES: None.
+     * EFFECTS: Returns the id of a name in view that is within one edit of query and starts with the same letter,
+     *          or -1 if there is none. An exact match is returned as well.
+     */
+    public int suggest(String query, GazetteerView view) {
+        int found = lookup(hash(query, -1), query, view);
+        for (int skip = 1; skip < query.length() && found < 0; skip++) {
+            if (skip == 1 || query.charAt(skip) != query.charAt(skip - 1)) {
+                found = lookup(hash(query, skip), query, view);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the first name filed under key that is in view and within one edit of query, or -1.
+     */
+    private int lookup(int key, String query, GazetteerView view) {
+        int entry = heads[findSlot(key)] - 1;
+        while (entry >= 0) {
+            int id = entryIds[entry];
+            if (view.includes(id) && withinOneEdit(query, places.nameAt(id))) {
+                return id;
+            }
+            entry = entryNext[entry] - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * REQUIRES: a and b are not null.
+     * MODIFIES: None.
+     * EFFECTS: Returns true if a and b are equal or differ by one insertion, deletion, substitution, or swap of two
+     *          neighbouring characters.
+     */
+    public static boolean withinOneEdit(String a, String b) {
+        if (a.length() < b.length()) {
+            return withinOneEdit(b, a);
+        }
+        if (a.length() - b.length() > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (a.length() != b.length()) {
+            return a.regionMatches(i + 1, b, i, b.length() - i);
+        }
+        if (i >= a.length() - 1) {
+            return true;
+        }
+        if (a.regionMatches(i + 1, b, i + 1, a.length() - i - 1)) {
+            return true;
+        }
+        return a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                && a.regionMatches(i + 2, b, i + 2, a.length() - i - 2);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns a non-zero FNV-1a hash of s with the character at index skip left out (none if skip is -1).
+     */
+    private static int hash(String s, int skip) {
+        int h = 0x811C9DC5;
+        for (int i = 0; i < s.length(); i++) {
+            if (i != skip) {
+                h = (h ^ s.charAt(i)) * 0x01000193;
+            }
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * REQUIRES: key != 0.
+     * MODIFIES: this.
+     * EFFECTS: Files id under key.
+     */
+    private void addEntry(int key, int id) {
+        if (entries == entryIds.length) {
+            entryIds = Arrays.copyOf(entryIds, entries * 2);
+            entryNext = Arrays.copyOf(entryNext, entries * 2);
+        }
+        int slot = findSlot(key);
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            usedKeys++;
+        }
+        entryIds[entries] = id;
+        entryNext[entries] = heads[slot];
+        heads[slot] = ++entries;
+        if (usedKeys * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * REQUIRES: key != 0.
+     * MODIFIES: None.
+     * EFFECTS: Returns the slot holding key, or the empty slot where it would go (linear probing).
+     */
+    private int findSlot(int key) {
+        int mask = keys.length - 1;
+        int slot = (key * 0x9E3779B9) >>> 7 & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Doubles the number of key slots and moves every key and its entry list.
+     */
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[] oldHeads = heads;
+        keys = new int[oldKeys.length * 2];
+        heads = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                heads[slot] = oldHeads[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package model;
+
+/**
+ * The TurnEngine class holds the rules of the game, separate from any console or window. Each call takes a
+ * GameSession from one state to the next and describes what happened in a TurnResult; nothing is printed or read,
+ * and no call recurses into the next turn, so a driver can play any number of turns in a plain loop.
+ * The engine keeps no per-game state, so one engine can serve any number of sessions over the same places.
+ */
+public class TurnEngine {
+    public static final String START_WORD = "atlas";
+    public static final String LOSER = "LOSER";
+
+    private final PlaceIndex places;
+    private final SpellingIndex spelling;
+    private final GameEventPublisher events = new GameEventPublisher();
+    private boolean logged = true;
+
+    /**
+     * REQUIRES: spelling indexes places.
+     * MODIFIES: this.
+     * EFFECTS: Creates an engine judging answers against the given places.
+     */
+    public TurnEngine(PlaceIndex places, SpellingIndex spelling) {
+        this.places = places;
+        this.spelling = spelling;
+    }
+
+    public PlaceIndex getPlaces() {
+        return places;
+    }
+
+    public SpellingIndex getSpelling() {
+        return spelling;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Sets whether turns are logged to the event log. A Replay turns this off, so that re-executed turns
+     *          are not mistaken for turns being played.
+     */
+    public void setLogged(boolean logged) {
+        this.logged = logged;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the publisher of the events of every turn played through this engine, in any session.
+     */
+    public GameEventPublisher getEvents() {
+        return events;
+    }
+
+    /**
+     * REQUIRES: session has at least one player.
+     * MODIFIES: session.
+     * EFFECTS: Starts the game with a random letter of START_WORD and a random first player.
+     */
+    public void start(GameSession session) {
+        session.setCurrentLetter(START_WORD.charAt(session.getRandom().nextInt(START_WORD.length())));
+        session.setActivePlayerIndex(session.getRandom().nextInt(session.getPlayers().size()));
+        session.setState(GameSession.State.AWAITING_ANSWER);
+        session.nextTurn();
+    }
+
+    /**
+     * REQUIRES: session is not finished.
+     * MODIFIES: session.
+     * EFFECTS: Ends the active player's turn because its time ran out: the player earns the next letter of "LOSER"
+     *          and the turn passes, exactly as for a wrong answer. Throws IllegalStateException if the session is
+     *          finished.
+     */
+    public TurnResult timeout(GameSession session) {
+        if (session.isFinished()) {
+            throw new IllegalStateException("The game is over");
+        }
+        if (session.getRecord() != null) {
+            session.getRecord().timeout();
+        }
+        char letter = session.getCurrentLetter();
+        return logTurn(session,
+                penalize(session, new TurnResult(TurnResult.Outcome.TIMEOUT, session.getActivePlayer(), null)), letter);
+    }
+
+    /**
+     * REQUIRES: session is not finished; text is not null.
+     * MODIFIES: session.
+     * EFFECTS: Judges text as the active player's answer and moves the session on. A correct answer sets the next
+     *          letter and passes the turn. A near miss of a playable place lets the same player retry once per turn.
+     *          Any other answer earns the player the next letter of "LOSER" and passes the turn.
+     *          Throws IllegalStateException if the session is finished. The answer is appended to the record of
+     *          the session, if it has one.
+     */
+    public TurnResult submitAnswer(GameSession session, String text) {
+        if (session.isFinished()) {
+            throw new IllegalStateException("The game is over");
+        }
+        if (session.getRecord() != null) {
+            session.getRecord().answer(text);
+        }
+        char letter = session.getCurrentLetter();
+        return logTurn(session, judge(session, text), letter);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: the event log, the subscribers to events.
+     * EFFECTS: Logs the outcome of a turn of session played on the given letter, if turns are logged, publishes its
+     *          events, and returns result.
+     */
+    private TurnResult logTurn(GameSession session, TurnResult result, char letter) {
+        if (logged) {
+            EventLog.getInstance().log(session.getId(), EventType.TURN_PLAYED, result.getPlayer().getName(), letter,
+                    result.getOutcome());
+        }
+        events.publish(session, result);
+        return result;
+    }
+
+    /**
+     * REQUIRES: session is not finished; text is not null.
+     * MODIFIES: session.
+     * EFFECTS: Judges text as the active player's answer as described in submitAnswer and returns what happened.
+     */
+    private TurnResult judge(GameSession session, String text) {
+        String answer = Gazetteer.canonical(text);
+        Player player = session.getActivePlayer();
+        if (answer.isEmpty() || answer.charAt(0) != session.getCurrentLetter()) {
+            return penalize(session, new TurnResult(TurnResult.Outcome.WRONG_LETTER, player, null));
+        }
+        AnswerSet answers = session.getAnswers();
+        int id = places.indexOf(answer);
+        if (answers.isPlayable(id) && answers.markAnswered(id)) {
+            return accept(session, new TurnResult(TurnResult.Outcome.CORRECT, player, answer));
+        } else if (answers.isPlayable(id)) {
+            return penalize(session, new TurnResult(TurnResult.Outcome.ALREADY_ANSWERED, player, null));
+        }
+        int suggestion = session.getState() == GameSession.State.AWAITING_ANSWER
+                ? spelling.suggest(answer, answers.getView()) : -1;
+        if (suggestion >= 0) {
+            return offerRetry(session, new TurnResult(TurnResult.Outcome.NEAR_MISS, player, places.nameAt(suggestion)));
+        }
+        return penalize(session, new TurnResult(TurnResult.Outcome.INVALID, player, null));
+    }
+
+    /**
+     * REQUIRES: result is a NEAR_MISS for the active player.
+     * MODIFIES: session, result.
+     * EFFECTS: Keeps the turn with the same player and letter for one retry.
+     */
+    private TurnResult offerRetry(GameSession session, TurnResult result) {
+        session.setState(GameSession.State.AWAITING_RETRY);
+        result.setNext(session.getCurrentLetter(), result.getPlayer());
+        return result;
+    }
+
+    /**
+     * REQUIRES: p has fewer than five letters.
+     * MODIFIES: p.
+     * EFFECTS: Assigns the next letter of "LOSER" to p and returns it.
+     */
+    public char assignLetterToPlayer(Player p) {
+        char letterToAssign = LOSER.charAt(p.getLettersAssigned());
+        p.assignLetter(letterToAssign);
+        p.incrementLettersAssigned();
+        return letterToAssign;
+    }
+
+    /**
+     * REQUIRES: The answer in result has been marked as answered.
+     * MODIFIES: session, result.
+     * EFFECTS: Makes the last letter of the accepted place the next letter, applies the dead-end rule if no playable
+     *          names are left for it, and passes the turn.
+     */
+    private TurnResult accept(GameSession session, TurnResult result) {
+        String place = result.getPlace();
+        session.setCurrentLetter(place.charAt(place.length() - 1));
+        handleDeadEnd(session, result);
+        advance(session, result);
+        return result;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: session, result.
+     * EFFECTS: Assigns a letter of "LOSER" to the active player, eliminates them at five letters, ends the game when
+     *          at most one player is left, and otherwise passes the turn.
+     */
+    private TurnResult penalize(GameSession session, TurnResult result) {
+        Player player = result.getPlayer();
+        result.setLetterAssigned(assignLetterToPlayer(player));
+        if (player.getLettersAssigned() < LOSER.length()) {
+            advance(session, result);
+            return result;
+        }
+        int index = session.getActivePlayerIndex();
+        session.getPlayers().remove(index);
+        result.setEliminated(player);
+        if (session.getPlayers().size() < 2) {
+            finish(session, result);
+        } else {
+            session.setActivePlayerIndex(index % session.getPlayers().size());
+            session.setState(GameSession.State.AWAITING_ANSWER);
+            session.nextTurn();
+            result.setNext(session.getCurrentLetter(), session.getActivePlayer());
+        }
+        return result;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: session, result.
+     * EFFECTS: Ends the game, and with it the turn; the last player left, if any, wins.
+     */
+    private void finish(GameSession session, TurnResult result) {
+        Player winner = session.getPlayers().isEmpty() ? null : session.getPlayers().get(0);
+        session.setWinner(winner);
+        session.setState(GameSession.State.FINISHED);
+        session.nextTurn();
+        result.setWinner(winner);
+    }
+
+    /**
+     * REQUIRES: session has at least one player.
+     * MODIFIES: session, result.
+     * EFFECTS: Gives the turn to the next player and records who plays next with which letter.
+     */
+    private void advance(GameSession session, TurnResult result) {
+        session.setActivePlayerIndex((session.getActivePlayerIndex() + 1) % session.getPlayers().size());
+        session.setState(GameSession.State.AWAITING_ANSWER);
+        session.nextTurn();
+        result.setNext(session.getCurrentLetter(), session.getActivePlayer());
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: session, result.
+     * EFFECTS: If no playable names are left for the current letter, replaces it according to the session's
+     *          DeadEndRule. Under NO_PENALTY the next player is also passed over without earning a letter.
+     */
+    private void handleDeadEnd(GameSession session, TurnResult result) {
+        AnswerSet answers = session.getAnswers();
+        char letter = session.getCurrentLetter();
+        if (answers.remainingFor(letter) > 0 || answers.remainingTotal() == 0) {
+            return;
+        }
+        result.setDeadLetter(letter);
+        if (session.getDeadEndRule() == DeadEndRule.SKIP) {
+            session.setCurrentLetter(nextLiveLetter(answers, letter));
+        } else {
+            session.setCurrentLetter(rerollLetter(session));
+        }
+        if (session.getDeadEndRule() == DeadEndRule.NO_PENALTY) {
+            session.setActivePlayerIndex((session.getActivePlayerIndex() + 1) % session.getPlayers().size());
+            result.setPassedOver(session.getActivePlayer());
+        }
+    }
+
+    /**
+     * REQUIRES: At least one playable name is left.
+     * MODIFIES: None.
+     * EFFECTS: Returns the first letter after 'letter' in alphabetical order (wrapping around) with names left.
+     */
+    private static char nextLiveLetter(AnswerSet answers, char letter) {
+        int start = Math.max(0, Gazetteer.letterIndex(letter));
+        for (int i = 1; i <= Gazetteer.LETTERS; i++) {
+            char next = (char) ('a' + (start + i) % Gazetteer.LETTERS);
+            if (answers.remainingFor(next) > 0) {
+                return next;
+            }
+        }
+        return letter;
+    }
+
+    /**
+     * REQUIRES: At least one playable name is left.
+     * MODIFIES: None.
+     * EFFECTS: Returns a random letter of START_WORD with names left, or the next live letter after 'a' if none has.
+     */
+    private static char rerollLetter(GameSession session) {
+        AnswerSet answers = session.getAnswers();
+        int live = 0;
+        for (int i = 0; i < START_WORD.length(); i++) {
+            live += answers.remainingFor(START_WORD.charAt(i)) > 0 ? 1 : 0;
+        }
+        if (live == 0) {
+            return nextLiveLetter(answers, START_WORD.charAt(0));
+        }
+        int pick = session.getRandom().nextInt(live);
+        for (int i = 0; ; i++) {
+            if (answers.remainingFor(START_WORD.charAt(i)) > 0 && pick-- == 0) {
+                return START_WORD.charAt(i);
+            }
+        }
+    }
+}
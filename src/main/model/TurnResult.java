@@ -0,0 +1,118 @@
+package model;
+
+/**
+ * The TurnResult class describes what a TurnEngine did with one answer: how the answer was judged, which letter of
+ * "LOSER" the player earned, who was eliminated or passed over, whether the game ended, and who plays next with
+ * which letter. Letters that do not apply are '\0' and players that do not apply are null.
+ */
+public class TurnResult {
+
+    /**
+     * How an answer was judged.
+     */
+    public enum Outcome {
+        CORRECT,
+        NEAR_MISS,
+        ALREADY_ANSWERED,
+        INVALID,
+        WRONG_LETTER,
+        TIMEOUT
+    }
+
+    private final Outcome outcome;
+    private final Player player;
+    private final String place;
+    private char letterAssigned;
+    private Player eliminated;
+    private Player winner;
+    private char deadLetter;
+    private Player passedOver;
+    private char nextLetter;
+    private Player nextPlayer;
+
+    /**
+     * REQUIRES: outcome and player are not null.
+     * MODIFIES: this.
+     * EFFECTS: Creates a result for an answer by player. place is the accepted place for CORRECT, the suggested place
+     *          for NEAR_MISS and null otherwise.
+     */
+    public TurnResult(Outcome outcome, Player player, String place) {
+        this.outcome = outcome;
+        this.player = player;
+        this.place = place;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public String getPlace() {
+        return place;
+    }
+
+    public char getLetterAssigned() {
+        return letterAssigned;
+    }
+
+    void setLetterAssigned(char letterAssigned) {
+        this.letterAssigned = letterAssigned;
+    }
+
+    public Player getEliminated() {
+        return eliminated;
+    }
+
+    void setEliminated(Player eliminated) {
+        this.eliminated = eliminated;
+    }
+
+    public Player getWinner() {
+        return winner;
+    }
+
+    void setWinner(Player winner) {
+        this.winner = winner;
+    }
+
+    public char getDeadLetter() {
+        return deadLetter;
+    }
+
+    void setDeadLetter(char deadLetter) {
+        this.deadLetter = deadLetter;
+    }
+
+    public Player getPassedOver() {
+        return passedOver;
+    }
+
+    void setPassedOver(Player passedOver) {
+        this.passedOver = passedOver;
+    }
+
+    public char getNextLetter() {
+        return nextLetter;
+    }
+
+    public Player getNextPlayer() {
+        return nextPlayer;
+    }
+
+    void setNext(char nextLetter, Player nextPlayer) {
+        this.nextLetter = nextLetter;
+        this.nextPlayer = nextPlayer;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns true if the game ended with this turn.
+     */
+    public boolean isGameOver() {
+        return nextPlayer == null;
+    }
+}
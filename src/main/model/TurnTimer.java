@@ -0,0 +1,247 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * The TurnTimer class runs turn deadlines for any number of games on a single hashed timing wheel. The wheel is a ring
+ * of buckets, one per tick; a deadline is linked into the bucket of the tick it falls in, together with the number of
+ * full turns of the wheel still to wait. Scheduling and cancelling only link or unlink one entry, so both take the
+ * same time however many deadlines are pending, and each tick only visits the entries of one bucket.
+ *
+ * Times come from a clock in milliseconds, which is the monotonic System.nanoTime() by default. With a virtual clock
+ * nothing happens on its own: the caller moves the clock and calls advance(), which makes tests exact and fast.
+ * Tasks run on the thread that calls advance(), after the timer's lock has been released.
+ */
+public class TurnTimer {
+    private final long tickDuration;
+    private final LongSupplier clock;
+    private final long origin;
+    private final Timeout[] buckets;
+    private final int mask;
+    private long tick;
+    private int pending;
+    private Thread worker;
+
+    /**
+     * REQUIRES: tickDuration > 0; wheelSize is a power of two; clock never goes backwards.
+     * MODIFIES: this.
+     * EFFECTS: Creates a stopped timer with wheelSize buckets of tickDuration milliseconds each on the given clock.
+     */
+    public TurnTimer(long tickDuration, int wheelSize, LongSupplier clock) {
+        this.tickDuration = tickDuration;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.buckets = new Timeout[wheelSize];
+        this.mask = wheelSize - 1;
+    }
+
+    /**
+     * REQUIRES: tickDuration > 0; wheelSize is a power of two.
+     * MODIFIES: this.
+     * EFFECTS: Creates a stopped timer on the monotonic clock.
+     */
+    public TurnTimer(long tickDuration, int wheelSize) {
+        this(tickDuration, wheelSize, TurnTimer::monotonicMillis);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the monotonic time in milliseconds. It has no fixed origin, so only differences are meaningful.
+     */
+    public static long monotonicMillis() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * REQUIRES: task is not null.
+     * MODIFIES: this.
+     * EFFECTS: Schedules task to run once delay milliseconds from now, at most one tick late, and returns a handle
+     *          that can cancel it. A negative delay is treated as zero.
+     */
+    public synchronized Timeout schedule(long delay, Runnable task) {
+        long deadline = clock.getAsLong() + Math.max(0, delay);
+        long due = Math.max(tick, (deadline - origin + tickDuration - 1) / tickDuration);
+        Timeout timeout = new Timeout(task, deadline, (due - tick) / buckets.length);
+        timeout.bucket = (int) (due & mask);
+        timeout.next = buckets[timeout.bucket];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[timeout.bucket] = timeout;
+        pending++;
+        return timeout;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Processes every tick up to the current time, runs the tasks whose deadline has passed and returns how
+     *          many ran. A task that throws is logged and does not stop the others.
+     */
+    public int advance() {
+        List<Timeout> expired = collectExpired();
+        for (Timeout timeout : expired) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                EventLog.getInstance().log(EventType.TIMER_FAILED, null, e);
+            }
+        }
+        return expired.size();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Unlinks and returns the timeouts of every tick that has started by now. When nothing is pending the
+     *          wheel jumps straight to the current tick.
+     */
+    private synchronized List<Timeout> collectExpired() {
+        long now = clock.getAsLong();
+        List<Timeout> expired = new ArrayList<>();
+        if (pending == 0 && origin + tick * tickDuration <= now) {
+            tick = (now - origin) / tickDuration + 1;
+        }
+        while (origin + tick * tickDuration <= now) {
+            Timeout timeout = buckets[(int) (tick & mask)];
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.rounds-- <= 0) {
+                    unlink(timeout);
+                    timeout.state = Timeout.EXPIRED;
+                    expired.add(timeout);
+                }
+                timeout = next;
+            }
+            tick++;
+        }
+        return expired;
+    }
+
+    /**
+     * REQUIRES: timeout is linked into its bucket; the caller holds the lock.
+     * MODIFIES: this, timeout.
+     * EFFECTS: Removes timeout from its bucket.
+     */
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        pending--;
+    }
+
+    /**
+     * REQUIRES: timeout was returned by schedule on this timer.
+     * MODIFIES: this, timeout.
+     * EFFECTS: Cancels timeout and returns true if it had neither run nor been cancelled yet.
+     */
+    synchronized boolean cancel(Timeout timeout) {
+        if (timeout.state != Timeout.PENDING) {
+            return false;
+        }
+        unlink(timeout);
+        timeout.state = Timeout.CANCELLED;
+        return true;
+    }
+
+    public synchronized int pending() {
+        return pending;
+    }
+
+    /**
+     * REQUIRES: The timer uses the monotonic clock.
+     * MODIFIES: this.
+     * EFFECTS: Starts a daemon thread that calls advance() once per tick until stop() is called.
+     */
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        worker = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(tickDuration);
+                    advance();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "turn-timer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Stops the thread started by start(), if any. Pending deadlines stay scheduled.
+     */
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    /**
+     * A scheduled deadline. It is linked into one bucket of the wheel until it runs or is cancelled.
+     */
+    public final class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private long rounds;
+        private int bucket;
+        private int state = PENDING;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline, long rounds) {
+            this.task = task;
+            this.deadline = deadline;
+            this.rounds = rounds;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * REQUIRES: None.
+         * MODIFIES: this.
+         * EFFECTS: Cancels this deadline and returns true if its task had not run or been cancelled yet.
+         */
+        public boolean cancel() {
+            return TurnTimer.this.cancel(this);
+        }
+
+        public boolean isCancelled() {
+            synchronized (TurnTimer.this) {
+                return state == CANCELLED;
+            }
+        }
+
+        public boolean isExpired() {
+            synchronized (TurnTimer.this) {
+                return state == EXPIRED;
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package persistence;
+
+import model.Event;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The ArchiveIndex class is the footer of an archived event segment. The archive holds its events in blocks that are
+ * deflated independently; for each block the index keeps where it is, the range of its timestamps, and which
+ * sessions and players it mentions. The time ranges form a sparse time index, and the sessions and players are
+ * inverted into one bitset of blocks each, so a query inflates only the blocks that can hold a match.
+ *
+ * On disk the footer is the number of blocks (int) and for each block its offset (long), deflated and inflated
+ * lengths (ints), first and last timestamps (longs), sessions (count + longs) and players (count + UTFs).
+ */
+class ArchiveIndex {
+    private final int version;
+    private final List<Block> blocks = new ArrayList<>();
+    private final Map<Long, BitSet> bySession = new HashMap<>();
+    private final Map<String, BitSet> byPlayer = new HashMap<>();
+
+    /**
+     * One deflated block of an archive.
+     */
+    private static final class Block {
+        private final long offset;
+        private final int deflated;
+        private final int inflated;
+        private final long first;
+        private final long last;
+
+        private Block(long offset, int deflated, int inflated, long first, long last) {
+            this.offset = offset;
+            this.deflated = deflated;
+            this.inflated = inflated;
+            this.first = first;
+            this.last = last;
+        }
+    }
+
+    /**
+     * REQUIRES: version is a record version EventCodec reads.
+     * MODIFIES: this.
+     * EFFECTS: Creates an empty index for an archive whose records have the given version.
+     */
+    ArchiveIndex(int version) {
+        this.version = version;
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    int size() {
+        return blocks.size();
+    }
+
+    /**
+     * REQUIRES: events is not empty and holds the events of the block, oldest first.
+     * MODIFIES: this.
+     * EFFECTS: Adds a block stored at offset with the given deflated and inflated lengths.
+     */
+    void add(long offset, int deflated, int inflated, List<Event> events) {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        int block = blocks.size();
+        for (Event e : events) {
+            first = Math.min(first, e.getTimestamp());
+            last = Math.max(last, e.getTimestamp());
+            bySession.computeIfAbsent(e.getSession(), s -> new BitSet()).set(block);
+            if (e.getPlayer() != null) {
+                byPlayer.computeIfAbsent(e.getPlayer(), p -> new BitSet()).set(block);
+            }
+        }
+        blocks.add(new Block(offset, deflated, inflated, first, last));
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the blocks that may hold events matching query.
+     */
+    BitSet candidates(EventQuery query) {
+        BitSet result = new BitSet(blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            if (query.overlaps(blocks.get(i).first, blocks.get(i).last)) {
+                result.set(i);
+            }
+        }
+        if (query.getSession() != null) {
+            result.and(bySession.getOrDefault(query.getSession(), new BitSet()));
+        }
+        if (query.getPlayer() != null) {
+            result.and(byPlayer.getOrDefault(query.getPlayer(), new BitSet()));
+        }
+        return result;
+    }
+
+    /**
+     * REQUIRES: archive is the file this index belongs to; 0 <= block < size().
+     * MODIFIES: None.
+     * EFFECTS: Inflates the given block of archive, passes its events to consumer, oldest first, and returns how many
+     *          there were.
+     */
+    int readBlock(Path archive, int block, Consumer<Event> consumer) throws IOException {
+        Block b = blocks.get(block);
+        ByteBuffer deflated = ByteBuffer.allocate(b.deflated);
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            while (deflated.hasRemaining()) {
+                if (channel.read(deflated, b.offset + deflated.position()) < 0) {
+                    throw new EOFException(archive + " is truncated");
+                }
+            }
+        }
+        byte[] inflated;
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(deflated.array()))) {
+            inflated = in.readNBytes(b.inflated);
+        }
+        return EventCodec.readRecords(ByteBuffer.wrap(inflated), version, consumer);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: out.
+     * EFFECTS: Writes this index in the footer layout.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(blocks.size());
+        for (int i = 0; i < blocks.size(); i++) {
+            Block b = blocks.get(i);
+            out.writeLong(b.offset);
+            out.writeInt(b.deflated);
+            out.writeInt(b.inflated);
+            out.writeLong(b.first);
+            out.writeLong(b.last);
+            List<Long> sessions = keysIn(bySession, i);
+            out.writeInt(sessions.size());
+            for (long session : sessions) {
+                out.writeLong(session);
+            }
+            List<String> players = keysIn(byPlayer, i);
+            out.writeInt(players.size());
+            for (String player : players) {
+                out.writeUTF(player);
+            }
+        }
+    }
+
+    private static <K extends Comparable<K>> List<K> keysIn(Map<K, BitSet> index, int block) {
+        TreeSet<K> keys = new TreeSet<>();
+        index.forEach((key, set) -> {
+            if (set.get(block)) {
+                keys.add(key);
+            }
+        });
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * REQUIRES: in is positioned at a footer written by writeTo.
+     * MODIFIES: in.
+     * EFFECTS: Reads an index for records of the given version.
+     */
+    static ArchiveIndex readFrom(DataInputStream in, int version) throws IOException {
+        ArchiveIndex index = new ArchiveIndex(version);
+        int count = in.readInt();
+        for (int block = 0; block < count; block++) {
+            index.blocks.add(new Block(in.readLong(), in.readInt(), in.readInt(), in.readLong(), in.readLong()));
+            for (int i = in.readInt(); i > 0; i--) {
+                index.bySession.computeIfAbsent(in.readLong(), s -> new BitSet()).set(block);
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                index.byPlayer.computeIfAbsent(in.readUTF(), p -> new BitSet()).set(block);
+            }
+        }
+        return index;
+    }
+}
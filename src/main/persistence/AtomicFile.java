@@ -0,0 +1,89 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The AtomicFile class replaces files so that a crash at any point leaves either the old contents or the new ones,
+ * never a mix or an empty file. The new contents are written to a temporary file next to the target, forced to disk,
+ * read back and compared with the CRC-32 of what was meant to be written, and only then renamed over the target.
+ */
+public final class AtomicFile {
+    public static final String TEMP_SUFFIX = ".tmp";
+
+    private AtomicFile() {
+    }
+
+    /**
+     * REQUIRES: The directory of target exists.
+     * MODIFIES: the file at target.
+     * EFFECTS: Atomically replaces the contents of target with bytes. Throws IOException, and leaves target as it was,
+     *          if the write fails or the temporary file does not read back intact.
+     */
+    public static void write(Path target, byte[] bytes) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try {
+            writeAndForce(temp, bytes);
+            if (checksum(Files.readAllBytes(temp)) != checksum(bytes)) {
+                throw new IOException("The new contents of " + target + " did not read back intact");
+            }
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        forceDirectory(target.toAbsolutePath().getParent());
+    }
+
+    private static void writeAndForce(Path path, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Forces the rename into directory to disk where the platform allows directories to be opened.
+     */
+    private static void forceDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not every platform can open or force a directory; the rename itself is still atomic.
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the CRC-32 of bytes.
+     */
+    public static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,365 @@
+package persistence;
+
+import model.BotPlayer;
+import model.DeadEndRule;
+import model.Difficulty;
+import model.GameRecord;
+import model.GameSession;
+import model.PlaceIndex;
+import model.Player;
+import model.SeededRandom;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The BinaryGameFormat class reads and writes games in a compact, versioned binary save format. GameWriter and
+ * GameReader stay for JSON saves. Places are stored as gazetteer ids rather than names, so a save only makes sense
+ * against the places it was made with: the header carries a checksum of the gazetteer and a load against different
+ * places is rejected.
+ *
+ * A save is MAGIC (int), VERSION (byte), flags (byte; COMPRESSED if the body is deflated), the gazetteer checksum
+ * (long), the CRC-32 of the stored body (int) and the body: difficulty, dead-end rule and state (bytes), the current
+ * letter (char), the active player index (varint), the players (varint count, then for each its name as UTF and its
+ * letters as a byte count and one byte each), and the answered ids, either as varint gaps between ascending ids or as
+ * a bitset of longs, whichever is smaller. Since version 2 the body ends with the GameRecord of the game: a byte that
+ * is 0 if it has none, or else the seed and the state of its SeededRandom (longs), the players it started with
+ * (varint count, then each name as UTF) and its inputs (varint count, then for each a byte that is 0 for a timeout,
+ * or 1 followed by the answer as UTF). Version 1 saves load without a record. Since version 3 the letters of each
+ * player are followed by a byte that is 0 for a person, or one more than the ordinal of its Skill for a BotPlayer;
+ * earlier saves load every player as a person.
+ */
+public class BinaryGameFormat {
+    public static final int MAGIC = 0x434D5053;
+    public static final int VERSION = 3;
+    public static final int COMPRESSED = 1;
+    private static final int HEADER_SIZE = 18;
+    private static final int GAPS = 0;
+    private static final int BITSET = 1;
+    private static final Map<PlaceIndex, long[]> CHECKSUMS = new WeakHashMap<>();
+
+    private BinaryGameFormat() {
+    }
+
+    /**
+     * REQUIRES: session has at least one player and is played over places.
+     * MODIFIES: None.
+     * EFFECTS: Returns the save of session, with its body deflated if compress is true.
+     */
+    public static byte[] encode(GameSession session, PlaceIndex places, boolean compress) throws IOException {
+        return encode(GameSnapshot.of(session), places, compress);
+    }
+
+    /**
+     * REQUIRES: snapshot was taken of a game played over places.
+     * MODIFIES: None.
+     * EFFECTS: Returns the save of the game snapshot was taken of, as encode(session, places, compress) does.
+     */
+    public static byte[] encode(GameSnapshot snapshot, PlaceIndex places, boolean compress) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(compress ? new DeflaterOutputStream(body) : body)) {
+            writeBody(snapshot, out);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body.toByteArray());
+        ByteBuffer save = ByteBuffer.allocate(HEADER_SIZE + body.size());
+        save.putInt(MAGIC).put((byte) VERSION).put((byte) (compress ? COMPRESSED : 0));
+        save.putLong(checksum(places)).putInt((int) crc.getValue()).put(body.toByteArray());
+        return save.array();
+    }
+
+    /**
+     * REQUIRES: session has at least one player and is played over places.
+     * MODIFIES: the file at path.
+     * EFFECTS: Atomically replaces the file at path with the save of session, with its body deflated if compress is
+     *          true.
+     */
+    public static void write(GameSession session, PlaceIndex places, Path path, boolean compress) throws IOException {
+        AtomicFile.write(path, encode(session, places, compress));
+    }
+
+    private static void writeBody(GameSnapshot snapshot, DataOutputStream out) throws IOException {
+        out.writeByte(snapshot.getDifficulty().ordinal());
+        out.writeByte(snapshot.getDeadEndRule().ordinal());
+        out.writeByte(snapshot.getState().ordinal());
+        out.writeChar(snapshot.getCurrentLetter());
+        writeVarint(out, snapshot.getActivePlayerIndex());
+        writeVarint(out, snapshot.getPlayers().size());
+        for (int i = 0; i < snapshot.getPlayers().size(); i++) {
+            Player p = snapshot.getPlayers().get(i);
+            out.writeUTF(p.getName());
+            out.writeByte(p.getAssignedLetters().size());
+            for (char letter : p.getAssignedLetters()) {
+                out.writeByte(letter);
+            }
+            BotPlayer.Skill skill = snapshot.getBotSkill(i);
+            out.writeByte(skill == null ? 0 : skill.ordinal() + 1);
+        }
+        writeIds(out, snapshot.answeredIds());
+        writeRecord(out, snapshot.getRecord(), snapshot.getRandomState());
+    }
+
+    private static void writeRecord(DataOutputStream out, GameRecord record, long randomState) throws IOException {
+        if (record == null) {
+            out.writeByte(0);
+            return;
+        }
+        out.writeByte(1);
+        out.writeLong(record.getSeed());
+        out.writeLong(randomState);
+        writeVarint(out, record.getPlayers().size());
+        for (String name : record.getPlayers()) {
+            out.writeUTF(name);
+        }
+        writeVarint(out, record.size());
+        for (int i = 0; i < record.size(); i++) {
+            String input = record.inputAt(i);
+            out.writeByte(input == null ? 0 : 1);
+            if (input != null) {
+                out.writeUTF(input);
+            }
+        }
+    }
+
+    /**
+     * REQUIRES: ids is ascending.
+     * MODIFIES: out.
+     * EFFECTS: Writes ids as varint gaps, or as a bitset if that is smaller.
+     */
+    private static void writeIds(DataOutputStream out, int[] ids) throws IOException {
+        ByteArrayOutputStream gaps = new ByteArrayOutputStream();
+        DataOutputStream gapsOut = new DataOutputStream(gaps);
+        int previous = -1;
+        for (int id : ids) {
+            writeVarint(gapsOut, id - previous - 1);
+            previous = id;
+        }
+        int words = ids.length == 0 ? 0 : (ids[ids.length - 1] >>> 6) + 1;
+        if (gaps.size() <= words * Long.BYTES) {
+            out.writeByte(GAPS);
+            writeVarint(out, ids.length);
+            gaps.writeTo(out);
+            return;
+        }
+        long[] bits = new long[words];
+        for (int id : ids) {
+            bits[id >>> 6] |= 1L << id;
+        }
+        out.writeByte(BITSET);
+        writeVarint(out, words);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the game saved in bytes, played over places with the given random numbers. If the save holds a
+     *          GameRecord, the game keeps it, and random, if it is a SeededRandom, is set to the seed and state the
+     *          game was saved with. Throws IOException if bytes is not a save of a version this class reads, is
+     *          corrupt, or was made with different places.
+     */
+    public static GameSession decode(byte[] bytes, PlaceIndex places, Random random) throws IOException {
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        if (!isBinary(bytes) || bytes.length < HEADER_SIZE) {
+            throw new IOException("Not a binary save");
+        }
+        header.getInt();
+        int version = header.get();
+        int flags = header.get();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unknown save version " + version);
+        }
+        if (header.getLong() != checksum(places)) {
+            throw new IOException("The save was made with different places");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        if (header.getInt() != (int) crc.getValue()) {
+            throw new IOException("The save is corrupt");
+        }
+        InputStream body = new ByteArrayInputStream(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        try (DataInputStream in = new DataInputStream((flags & COMPRESSED) != 0 ? new InflaterInputStream(body)
+                : body)) {
+            return readBody(in, places, random, version);
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the game saved at path, as described in decode.
+     */
+    public static GameSession read(Path path, PlaceIndex places, Random random) throws IOException {
+        return decode(Files.readAllBytes(path), places, random);
+    }
+
+    private static GameSession readBody(DataInputStream in, PlaceIndex places, Random random, int version)
+            throws IOException {
+        Difficulty difficulty = Difficulty.values()[in.readUnsignedByte()];
+        DeadEndRule rule = DeadEndRule.values()[in.readUnsignedByte()];
+        GameSession.State state = GameSession.State.values()[in.readUnsignedByte()];
+        char letter = in.readChar();
+        int active = readVarint(in);
+        List<Player> players = readPlayers(in, version);
+        GameSession session = new GameSession(players, places, difficulty, random);
+        session.setDeadEndRule(rule);
+        session.setState(state);
+        session.setCurrentLetter(letter);
+        session.setActivePlayerIndex(active);
+        if (state == GameSession.State.FINISHED && players.size() == 1) {
+            session.setWinner(players.get(0));
+        }
+        readIds(in, session);
+        if (version >= 2) {
+            readRecord(in, session);
+        }
+        return session;
+    }
+
+    private static void readRecord(DataInputStream in, GameSession session) throws IOException {
+        if (in.readUnsignedByte() == 0) {
+            return;
+        }
+        long seed = in.readLong();
+        long state = in.readLong();
+        List<String> players = new ArrayList<>();
+        for (int i = readVarint(in); i > 0; i--) {
+            players.add(in.readUTF());
+        }
+        GameRecord record = new GameRecord(seed, players, session.getDifficulty(), session.getDeadEndRule());
+        for (int i = readVarint(in); i > 0; i--) {
+            if (in.readUnsignedByte() == 0) {
+                record.timeout();
+            } else {
+                record.answer(in.readUTF());
+            }
+        }
+        session.setRecord(record);
+        if (session.getRandom() instanceof SeededRandom && state >= 0) {
+            ((SeededRandom) session.getRandom()).setSeed(seed);
+            ((SeededRandom) session.getRandom()).setState(state);
+        }
+    }
+
+    private static List<Player> readPlayers(DataInputStream in, int version) throws IOException {
+        List<Player> players = new ArrayList<>();
+        for (int i = readVarint(in); i > 0; i--) {
+            String name = in.readUTF();
+            List<Character> letters = new ArrayList<>();
+            for (int j = in.readUnsignedByte(); j > 0; j--) {
+                letters.add((char) in.readUnsignedByte());
+            }
+            int skill = version >= 3 ? in.readUnsignedByte() : 0;
+            Player p = skill == 0 ? new Player(name)
+                    : new BotPlayer(name, BotPlayer.Skill.values()[skill - 1], new Random());
+            for (char letter : letters) {
+                p.assignLetter(letter);
+                p.incrementLettersAssigned();
+            }
+            players.add(p);
+        }
+        return players;
+    }
+
+    private static void readIds(DataInputStream in, GameSession session) throws IOException {
+        if (in.readUnsignedByte() == GAPS) {
+            int id = -1;
+            for (int i = readVarint(in); i > 0; i--) {
+                id += readVarint(in) + 1;
+                session.getAnswers().markAnswered(id);
+            }
+            return;
+        }
+        for (int word = 0, words = readVarint(in); word < words; word++) {
+            for (long bits = in.readLong(); bits != 0; bits &= bits - 1) {
+                session.getAnswers().markAnswered((word << 6) + Long.numberOfTrailingZeros(bits));
+            }
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns true if bytes starts like a binary save, so a loader can tell it from a JSON one.
+     */
+    public static boolean isBinary(byte[] bytes) {
+        return bytes.length >= Integer.BYTES && ByteBuffer.wrap(bytes).getInt() == MAGIC;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns true if the file at path exists and starts like a binary save. Only its first bytes are read.
+     */
+    public static boolean isBinary(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            return isBinary(in.readNBytes(Integer.BYTES));
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns a checksum of the names and categories of places in id order. It is remembered until places
+     *          grows.
+     */
+    public static long checksum(PlaceIndex places) {
+        synchronized (CHECKSUMS) {
+            long[] known = CHECKSUMS.get(places);
+            if (known != null && known[0] == places.size()) {
+                return known[1];
+            }
+        }
+        CRC32 crc = new CRC32();
+        for (int id = 0; id < places.size(); id++) {
+            crc.update(places.nameAt(id).getBytes(StandardCharsets.UTF_8));
+            crc.update(places.categoryOf(id).ordinal());
+        }
+        long checksum = ((long) places.size() << 32) | crc.getValue();
+        synchronized (CHECKSUMS) {
+            CHECKSUMS.put(places, new long[] {places.size(), checksum});
+        }
+        return checksum;
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,34 @@
+package persistence;
+
+import model.DawgGazetteer;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class DawgReader {
+    private String source;
+
+    /**
+    * REQUIRES: None.
+    * MODIFIES: None.
+    * EFFECTS: Initializes the source field with the specified gazetteer file path.
+     */
+    public DawgReader(String source) {
+        this.source = source;
+    }
+
+    /**
+    * REQUIRES: None.
+    * MODIFIES: None.
+    * EFFECTS: Memory-maps the gazetteer file and returns an index that reads straight from the mapping, so the names
+              are paged in by the operating system instead of being copied onto the heap.
+              Throws an IOException if the file cannot be mapped.
+     */
+    public DawgGazetteer read() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            return new DawgGazetteer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package persistence;
+
+import model.Category;
+import model.DawgGazetteer;
+import model.Gazetteer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The DawgWriter class builds a gazetteer file in the DawgGazetteer layout from a list of place names. It is the
+ * offline step that turns a large text gazetteer into a compact file which DawgReader can memory-map at startup.
+ * The graph is built with the incremental algorithm for sorted input, so equal suffixes are merged as names are added.
+ */
+public class DawgWriter {
+    private final String destination;
+    private final Map<String, Node> register = new HashMap<>();
+    private final List<Node[]> unchecked = new ArrayList<>();
+    private int nextNodeId;
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Initializes the destination path of the gazetteer file.
+     */
+    public DawgWriter(String destination) {
+        this.destination = destination;
+    }
+
+    /**
+     * REQUIRES: args holds the path of a text file and the path to write. Each line of the text file is a place name,
+     *           optionally followed by a tab and its Category (CITY if missing).
+     * MODIFIES: None.
+     * EFFECTS: Compiles the text gazetteer into a gazetteer file.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, Category> places = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t");
+            Category category = fields.length > 1 ? Category.valueOf(fields[1].trim()) : Category.CITY;
+            places.putIfAbsent(fields[0], category);
+        }
+        new DawgWriter(args[1]).write(places);
+        System.out.println("Wrote " + places.size() + " names to " + args[1]);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: the destination file.
+     * EFFECTS: Writes the canonical forms of the given place names and their categories to the destination file.
+     *          Blank names are skipped, and a name given twice keeps its first category.
+     */
+    public void write(Map<String, Category> places) throws IOException {
+        byte[][] sorted = sortedKeys(places.keySet());
+        byte[] categories = categoriesOf(sorted, places);
+        register.clear();
+        Node root = newNode();
+        byte[] previous = new byte[0];
+        for (byte[] key : sorted) {
+            addKey(root, previous, key);
+            previous = key;
+        }
+        minimize(0);
+        writeFile(root, categories);
+    }
+
+    /**
+     * REQUIRES: root is the root of the minimized graph and categories holds one Category ordinal per name.
+     * MODIFIES: the destination file.
+     * EFFECTS: Lays out the graph and writes the header, the nodes and the categories to the destination file.
+     */
+    private void writeFile(Node root, byte[] categories) throws IOException {
+        List<Node> nodes = new ArrayList<>();
+        int categoryOffset = layout(root, DawgGazetteer.HEADER_SIZE, nodes);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(destination)))) {
+            out.writeInt(DawgGazetteer.MAGIC);
+            out.writeInt(DawgGazetteer.VERSION);
+            out.writeInt(categories.length);
+            out.writeInt(root.offset);
+            out.writeInt(categoryOffset);
+            for (Node node : nodes) {
+                writeNode(out, node);
+            }
+            out.write(categories);
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the UTF-8 bytes of the canonical, non-blank names in unsigned byte order without duplicates.
+     */
+    private static byte[][] sortedKeys(Iterable<String> names) {
+        List<byte[]> keys = new ArrayList<>();
+        for (String name : names) {
+            String key = Gazetteer.canonical(name);
+            if (!key.isEmpty()) {
+                keys.add(key.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        keys.sort(Arrays::compareUnsigned);
+        List<byte[]> unique = new ArrayList<>();
+        for (byte[] key : keys) {
+            if (unique.isEmpty() || !Arrays.equals(unique.get(unique.size() - 1), key)) {
+                unique.add(key);
+            }
+        }
+        return unique.toArray(new byte[0][]);
+    }
+
+    /**
+     * REQUIRES: sorted holds the keys of places as returned by sortedKeys.
+     * MODIFIES: None.
+     * EFFECTS: Returns the Category ordinal of each sorted key, taking the first one given for its canonical name.
+     */
+    private static byte[] categoriesOf(byte[][] sorted, Map<String, Category> places) {
+        Map<String, Category> canonical = new HashMap<>();
+        for (Map.Entry<String, Category> place : places.entrySet()) {
+            canonical.putIfAbsent(Gazetteer.canonical(place.getKey()), place.getValue());
+        }
+        byte[] categories = new byte[sorted.length];
+        for (int id = 0; id < sorted.length; id++) {
+            categories[id] = (byte) canonical.get(new String(sorted[id], StandardCharsets.UTF_8)).ordinal();
+        }
+        return categories;
+    }
+
+    /**
+     * REQUIRES: key sorts after previous.
+     * MODIFIES: this.
+     * EFFECTS: Adds key to the graph, first merging the suffix of the previous key that key does not share.
+     */
+    private void addKey(Node root, byte[] previous, byte[] key) {
+        int common = 0;
+        while (common < previous.length && common < key.length && previous[common] == key[common]) {
+            common++;
+        }
+        minimize(common);
+        Node node = unchecked.isEmpty() ? root : unchecked.get(unchecked.size() - 1)[1];
+        for (int i = common; i < key.length; i++) {
+            Node next = newNode();
+            node.addEdge(key[i], next);
+            unchecked.add(new Node[] {node, next});
+            node = next;
+        }
+        node.isFinal = true;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Replaces each unchecked node deeper than downTo with an equivalent registered node, if there is one.
+     */
+    private void minimize(int downTo) {
+        for (int i = unchecked.size() - 1; i >= downTo; i--) {
+            Node parent = unchecked.get(i)[0];
+            Node child = unchecked.get(i)[1];
+            String signature = child.signature();
+            Node existing = register.get(signature);
+            if (existing != null) {
+                parent.targets.set(parent.targets.size() - 1, existing);
+            } else {
+                register.put(signature, child);
+            }
+            unchecked.remove(i);
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: node and the nodes below it.
+     * EFFECTS: Counts the names below every node, gives every node an offset in post-order starting at offset, adds
+     *          the nodes to nodes in that order and returns the offset just past the last node.
+     */
+    private static int layout(Node node, int offset, List<Node> nodes) {
+        if (node.offset >= 0) {
+            return offset;
+        }
+        node.words = node.isFinal ? 1 : 0;
+        for (Node target : node.targets) {
+            offset = layout(target, offset, nodes);
+            node.words += target.words;
+        }
+        node.offset = offset;
+        nodes.add(node);
+        return offset + node.byteSize();
+    }
+
+    /**
+     * REQUIRES: the offsets and name counts of node and its targets have been laid out.
+     * MODIFIES: out.
+     * EFFECTS: Writes node and its edges.
+     */
+    private static void writeNode(DataOutputStream out, Node node) throws IOException {
+        out.writeByte(node.isFinal ? 1 : 0);
+        out.writeShort(node.labels.size());
+        out.writeInt(node.words);
+        int before = node.isFinal ? 1 : 0;
+        for (int i = 0; i < node.labels.size(); i++) {
+            Node target = node.targets.get(i);
+            out.writeByte(node.labels.get(i));
+            out.writeInt(target.offset);
+            out.writeInt(before);
+            before += target.words;
+        }
+    }
+
+    private Node newNode() {
+        return new Node(nextNodeId++);
+    }
+
+    /**
+     * A node of the graph while it is being built.
+     */
+    private static class Node {
+        private final int id;
+        private final List<Byte> labels = new ArrayList<>();
+        private final List<Node> targets = new ArrayList<>();
+        private boolean isFinal;
+        private int words;
+        private int offset = -1;
+
+        Node(int id) {
+            this.id = id;
+        }
+
+        void addEdge(byte label, Node target) {
+            labels.add(label);
+            targets.add(target);
+        }
+
+        int byteSize() {
+            return DawgGazetteer.NODE_HEADER_SIZE + labels.size() * DawgGazetteer.EDGE_SIZE;
+        }
+
+        // Two nodes are equivalent when they agree on finality and on every edge; targets are already unique.
+        String signature() {
+            StringBuilder sb = new StringBuilder(isFinal ? "1" : "0");
+            for (int i = 0; i < labels.size(); i++) {
+                sb.append(',').append(labels.get(i)).append(':').append(targets.get(i).id);
+            }
+            return sb.toString();
+        }
+    }
+}
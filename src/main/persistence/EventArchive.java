@@ -0,0 +1,277 @@
+package persistence;
+
+import model.Event;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * The EventArchive class keeps the event segments of a directory for the long term and answers queries over them.
+ * archive() replaces every sealed segment, that is every one but the newest, by an archive of the same number whose
+ * events are deflated in blocks of BLOCK_EVENTS and indexed by an ArchiveIndex footer. A query skips the blocks the
+ * index rules out, inflates the rest one at a time and scans the segments not archived yet, so its results are
+ * produced lazily, oldest first, without reading the whole history.
+ *
+ * An archive starts with ARCHIVE_MAGIC and the record version (two ints), followed by the blocks, the footer, the
+ * offset of the footer (long) and ARCHIVE_MAGIC again. It is written to a temporary file and renamed into place
+ * before its segment is deleted, so a crash leaves either the segment or a complete archive.
+ */
+public class EventArchive {
+    public static final String SUFFIX = ".arc";
+    public static final int BLOCK_EVENTS = 128;
+    static final int ARCHIVE_MAGIC = 0x434D5041;
+    private static final int TRAILER_SIZE = 12;
+
+    private final Path directory;
+    private final ConcurrentHashMap<Path, ArchiveIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Creates an archive over the segments in directory.
+     */
+    public EventArchive(String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * REQUIRES: Only the writer of the directory archives it.
+     * MODIFIES: the directory.
+     * EFFECTS: Compresses every sealed segment into an archive and returns how many there were.
+     */
+    public int archive() throws IOException {
+        List<Path> segments = EventSegmentWriter.segments(directory);
+        int archived = 0;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (!isArchive(segments.get(i))) {
+                archive(segments.get(i));
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * REQUIRES: segment is a sealed segment.
+     * MODIFIES: the directory.
+     * EFFECTS: Writes the archive of segment and then deletes segment.
+     */
+    private void archive(Path segment) throws IOException {
+        List<Event> events = new ArrayList<>();
+        EventSegmentReader.readSegment(segment, events::add);
+        String name = segment.getFileName().toString();
+        Path target = segment.resolveSibling(name.substring(0, name.lastIndexOf('.')) + SUFFIX);
+        Path temp = segment.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ArchiveIndex index = writeBlocks(channel, events);
+            ByteArrayOutputStream footer = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(footer);
+            long footerOffset = channel.position();
+            index.writeTo(out);
+            out.writeLong(footerOffset);
+            out.writeInt(ARCHIVE_MAGIC);
+            writeFully(channel, footer.toByteArray());
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(segment);
+    }
+
+    /**
+     * REQUIRES: channel is positioned at the start of an empty file.
+     * MODIFIES: channel.
+     * EFFECTS: Writes the header and the deflated blocks of events and returns their index.
+     */
+    private static ArchiveIndex writeBlocks(FileChannel channel, List<Event> events) throws IOException {
+        ArchiveIndex index = new ArchiveIndex(EventCodec.VERSION);
+        writeFully(channel, ByteBuffer.allocate(8).putInt(ARCHIVE_MAGIC).putInt(EventCodec.VERSION).array());
+        EventCodec codec = new EventCodec();
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        for (int start = 0; start < events.size(); start += BLOCK_EVENTS) {
+            List<Event> block = events.subList(start, Math.min(events.size(), start + BLOCK_EVENTS));
+            raw.reset();
+            DataOutputStream out = new DataOutputStream(raw);
+            for (Event e : block) {
+                codec.encode(e, out);
+            }
+            deflated.reset();
+            try (DeflaterOutputStream deflater = new DeflaterOutputStream(deflated)) {
+                raw.writeTo(deflater);
+            }
+            index.add(channel.position(), deflated.size(), raw.size(), block);
+            writeFully(channel, deflated.toByteArray());
+        }
+        return index;
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the events matching query, oldest first. The stream reads the directory as it is consumed
+     *          and throws UncheckedIOException if a file cannot be read.
+     */
+    public Stream<Event> query(EventQuery query) throws IOException {
+        Iterator<Event> results = new Results(query, EventSegmentWriter.segments(directory).iterator());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * REQUIRES: archive is an archive file.
+     * MODIFIES: this.
+     * EFFECTS: Returns the index of archive, reading it on first use. Archives never change, so it is kept.
+     *          Throws IOException if archive is not an archive.
+     */
+    ArchiveIndex indexOf(Path archive) throws IOException {
+        ArchiveIndex index = indexes.get(archive);
+        if (index == null) {
+            index = readIndex(archive);
+            indexes.put(archive, index);
+        }
+        return index;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Reads the index in the footer of archive. Throws IOException if archive is not an archive.
+     */
+    static ArchiveIndex readIndex(Path archive) throws IOException {
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 8 + TRAILER_SIZE) {
+                throw new IOException(archive + " is not an event archive");
+            }
+            ByteBuffer header = readAt(channel, 0, 8);
+            ByteBuffer trailer = readAt(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+            if (header.getInt(0) != ARCHIVE_MAGIC || trailer.getInt(8) != ARCHIVE_MAGIC) {
+                throw new IOException(archive + " is not an event archive");
+            }
+            long footer = trailer.getLong(0);
+            ByteBuffer bytes = readAt(channel, footer, (int) (size - TRAILER_SIZE - footer));
+            return ArchiveIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.array())),
+                    header.getInt(4));
+        }
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    static boolean isArchive(Path file) {
+        return file.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    /**
+     * The results of one query. Events are read one archive block or one segment at a time, and only the matching
+     * ones are kept until they are taken.
+     */
+    private final class Results implements Iterator<Event> {
+        private final EventQuery query;
+        private final Iterator<Path> segments;
+        private final ArrayDeque<Event> pending = new ArrayDeque<>();
+        private Path archive;
+        private ArchiveIndex index;
+        private BitSet blocks = new BitSet();
+        private int block = -1;
+
+        private Results(EventQuery query, Iterator<Path> segments) {
+            this.query = query;
+            this.segments = segments;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean more = true;
+            try {
+                while (pending.isEmpty() && more) {
+                    more = load();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pending.poll();
+        }
+
+        /**
+         * REQUIRES: None.
+         * MODIFIES: this.
+         * EFFECTS: Reads the next candidate block of the current archive, or else moves on to the next file, and
+         *          returns false if there was nothing left to read.
+         */
+        private boolean load() throws IOException {
+            block = blocks.nextSetBit(block + 1);
+            if (block >= 0) {
+                index.readBlock(archive, block, this::offer);
+                return true;
+            }
+            if (!segments.hasNext()) {
+                return false;
+            }
+            Path next = segments.next();
+            if (isArchive(next)) {
+                archive = next;
+                index = indexOf(next);
+                blocks = index.candidates(query);
+            } else {
+                blocks.clear();
+                EventSegmentReader.readSegment(next, this::offer);
+            }
+            return true;
+        }
+
+        private void offer(Event e) {
+            if (query.matches(e)) {
+                pending.add(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package persistence;
+
+import model.Event;
+import model.EventType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * The EventCodec class turns events into the records stored in event segments and archives, and back. A record is
+ * the length of its payload (int), the CRC-32 of the payload (int), and the payload: timestamp (long), session (long,
+ * from version 2 on), type name (UTF), player (flag + UTF), letter (char) and detail as text (flag + UTF).
+ * An encoder reuses its buffers, so each thread needs its own.
+ */
+class EventCodec {
+    static final int VERSION = 2;
+    private static final int MAX_TEXT = 16 * 1024;
+
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream recordOut = new DataOutputStream(recordBytes);
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, out.
+     * EFFECTS: Writes the record of e to out in the current VERSION.
+     */
+    void encode(Event e, DataOutputStream out) throws IOException {
+        recordBytes.reset();
+        recordOut.writeLong(e.getTimestamp());
+        recordOut.writeLong(e.getSession());
+        recordOut.writeUTF(e.getType().name());
+        writeOptional(e.getPlayer());
+        recordOut.writeChar(e.getLetter());
+        writeOptional(e.getDetail() == null ? null : String.valueOf(e.getDetail()));
+        crc.reset();
+        crc.update(recordBytes.toByteArray());
+        out.writeInt(recordBytes.size());
+        out.writeInt((int) crc.getValue());
+        recordBytes.writeTo(out);
+    }
+
+    private void writeOptional(String text) throws IOException {
+        recordOut.writeBoolean(text != null);
+        if (text != null) {
+            recordOut.writeUTF(text.length() > MAX_TEXT ? text.substring(0, MAX_TEXT) : text);
+        }
+    }
+
+    /**
+     * REQUIRES: version is 1 or 2.
+     * MODIFIES: bytes.
+     * EFFECTS: Passes the records from the position of bytes on to consumer, up to the end or the first torn or
+     *          corrupt record, and returns how many there were.
+     */
+    static int readRecords(ByteBuffer bytes, int version, Consumer<Event> consumer) throws IOException {
+        int count = 0;
+        CRC32 crc = new CRC32();
+        while (bytes.remaining() >= 8) {
+            int length = bytes.getInt();
+            int checksum = bytes.getInt();
+            if (!isIntact(bytes, length, checksum, crc)) {
+                break;
+            }
+            consumer.accept(decode(new DataInputStream(new ByteArrayInputStream(
+                    bytes.array(), bytes.arrayOffset() + bytes.position(), length)), version));
+            bytes.position(bytes.position() + length);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: crc.
+     * EFFECTS: Returns true if the next length bytes of bytes are all there and have the given CRC-32.
+     */
+    private static boolean isIntact(ByteBuffer bytes, int length, int checksum, CRC32 crc) {
+        if (length < 0 || length > bytes.remaining()) {
+            return false;
+        }
+        crc.reset();
+        crc.update(bytes.array(), bytes.arrayOffset() + bytes.position(), length);
+        return (int) crc.getValue() == checksum;
+    }
+
+    /**
+     * REQUIRES: record holds one payload of the given version.
+     * MODIFIES: None.
+     * EFFECTS: Returns the event stored in record. A type this version does not know comes back as a MESSAGE
+     *          naming the type. Throws IOException if the record is too short.
+     */
+    private static Event decode(DataInputStream record, int version) throws IOException {
+        long timestamp = record.readLong();
+        long session = version >= 2 ? record.readLong() : 0;
+        String typeName = record.readUTF();
+        String player = record.readBoolean() ? record.readUTF() : null;
+        char letter = record.readChar();
+        String detail = record.readBoolean() ? record.readUTF() : null;
+        for (EventType type : EventType.values()) {
+            if (type.name().equals(typeName)) {
+                return new Event(timestamp, session, type, player, letter, detail);
+            }
+        }
+        return new Event(timestamp, session, EventType.MESSAGE, player, letter, typeName + ": " + detail);
+    }
+}
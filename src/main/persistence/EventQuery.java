@@ -0,0 +1,95 @@
+package persistence;
+
+import model.Event;
+import model.EventType;
+
+/**
+ * The EventQuery class describes which archived events to find: those logged in a time range, optionally only in
+ * one session, about one player or of one type. Each filter method narrows the query and returns it, so a query
+ * reads as new EventQuery(from, to).inSession(7).byPlayer("Aarav").
+ */
+public class EventQuery {
+    private final long from;
+    private final long to;
+    private Long session;
+    private String player;
+    private EventType type;
+
+    /**
+     * REQUIRES: from <= to.
+     * MODIFIES: this.
+     * EFFECTS: Creates a query for every event logged from time from to time to, both included, in milliseconds
+     *          since the epoch.
+     */
+    public EventQuery(long from, long to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Keeps only events of the session with the given id and returns this query.
+     */
+    public EventQuery inSession(long session) {
+        this.session = session;
+        return this;
+    }
+
+    /**
+     * REQUIRES: player is not null.
+     * MODIFIES: this.
+     * EFFECTS: Keeps only events about the player with the given name and returns this query.
+     */
+    public EventQuery byPlayer(String player) {
+        this.player = player;
+        return this;
+    }
+
+    /**
+     * REQUIRES: type is not null.
+     * MODIFIES: this.
+     * EFFECTS: Keeps only events of the given type and returns this query.
+     */
+    public EventQuery ofType(EventType type) {
+        this.type = type;
+        return this;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public Long getSession() {
+        return session;
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns true if some event logged between min and max, both included, could match this query.
+     */
+    public boolean overlaps(long min, long max) {
+        return min <= to && max >= from;
+    }
+
+    /**
+     * REQUIRES: e is not null.
+     * MODIFIES: None.
+     * EFFECTS: Returns true if e matches this query.
+     */
+    public boolean matches(Event e) {
+        return e.getTimestamp() >= from && e.getTimestamp() <= to
+                && (session == null || session == e.getSession())
+                && (player == null || player.equals(e.getPlayer()))
+                && (type == null || type == e.getType());
+    }
+}
@@ -0,0 +1,92 @@
+package persistence;
+
+import model.Event;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The EventSegmentReader class replays the segment files written by EventSegmentWriter, and the archives
+ * EventArchive made of them, back into Event objects. Details come back as text, so descriptions read the same as
+ * when they were logged. A segment is read up to its first torn or corrupt record, which can only be the tail a crash
+ * left behind.
+ */
+public class EventSegmentReader {
+    private final Path directory;
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Initializes the directory to read segments from.
+     */
+    public EventSegmentReader(String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns every event in the segments, oldest first.
+     */
+    public List<Event> readAll() throws IOException {
+        List<Event> events = new ArrayList<>();
+        replay(events::add);
+        return events;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Passes every event in the segments to consumer, oldest first, and returns how many there were.
+     *          Throws IOException if a file is not a segment.
+     */
+    public int replay(Consumer<Event> consumer) throws IOException {
+        int count = 0;
+        for (Path segment : EventSegmentWriter.segments(directory)) {
+            count += replaySegment(segment, consumer);
+        }
+        return count;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Passes the events of one segment or archive to consumer, a segment up to its first torn or corrupt
+     *          record, and returns how many there were.
+     */
+    private static int replaySegment(Path segment, Consumer<Event> consumer) throws IOException {
+        if (!EventArchive.isArchive(segment)) {
+            return readSegment(segment, consumer);
+        }
+        ArchiveIndex index = EventArchive.readIndex(segment);
+        int count = 0;
+        for (int block = 0; block < index.size(); block++) {
+            count += index.readBlock(segment, block, consumer);
+        }
+        return count;
+    }
+
+    /**
+     * REQUIRES: segment is not an archive.
+     * MODIFIES: None.
+     * EFFECTS: Passes the events of segment to consumer up to its first torn or corrupt record and returns how many
+     *          there were. Throws IOException if the file is not a segment of a version this reader knows.
+     */
+    static int readSegment(Path segment, Consumer<Event> consumer) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+        if (bytes.remaining() < 8 || bytes.getInt() != EventSegmentWriter.MAGIC) {
+            throw new IOException(segment + " is not an event segment");
+        }
+        int version = bytes.getInt();
+        if (version < 1 || version > EventCodec.VERSION) {
+            throw new IOException(segment + " has unknown version " + version);
+        }
+        return EventCodec.readRecords(bytes, version, consumer);
+    }
+}
@@ -0,0 +1,219 @@
+package persistence;
+
+import model.Event;
+import model.EventDrainer;
+import model.EventLog;
+import model.EventSink;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * The EventSegmentWriter class is an EventSink that appends events to segment files in a directory. Each batch is
+ * written with one call, and the segment is forced to disk once enough events or enough time have gone by since the
+ * last sync, checked on every write and, through flushIfDue, whenever the drainer finds the log empty. When a segment
+ * reaches its size limit the next batch starts a new one; segments are never rewritten.
+ *
+ * A segment starts with MAGIC and VERSION (two ints) followed by records in the layout of EventCodec. A crash can
+ * only leave a torn record at the end of the last segment, which EventSegmentReader detects and skips. With an
+ * EventArchive set, every segment the writer seals is compressed into the archive right away.
+ */
+public class EventSegmentWriter implements EventSink {
+    public static final int MAGIC = 0x434D5045;
+    public static final int VERSION = EventCodec.VERSION;
+    public static final String PREFIX = "events-";
+    public static final String SUFFIX = ".seg";
+    public static final String DEFAULT_DIRECTORY = "./data/events";
+    public static final long DEFAULT_SEGMENT_BYTES = 4 * 1024 * 1024;
+    private static final int HEADER_SIZE = 8;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final int syncEveryEvents;
+    private final long syncEveryMillis;
+    private final ByteArrayOutputStream batchBytes = new ByteArrayOutputStream(8192);
+    private final DataOutputStream batchOut = new DataOutputStream(batchBytes);
+    private final EventCodec codec = new EventCodec();
+    private EventArchive archive;
+    private FileChannel channel;
+    private int segmentIndex;
+    private long segmentBytes;
+    private int unsynced;
+    private long lastSync = System.currentTimeMillis();
+
+    /**
+     * REQUIRES: maxSegmentBytes > 0; syncEveryEvents > 0; syncEveryMillis >= 0.
+     * MODIFIES: the directory.
+     * EFFECTS: Creates the directory if needed and opens a new segment after any that are already there. The files
+     *          are forced to disk after every syncEveryEvents events or syncEveryMillis milliseconds, whichever comes
+     *          first.
+     */
+    public EventSegmentWriter(String directory, long maxSegmentBytes, int syncEveryEvents, long syncEveryMillis)
+            throws IOException {
+        this.directory = Files.createDirectories(Paths.get(directory));
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.syncEveryEvents = syncEveryEvents;
+        this.syncEveryMillis = syncEveryMillis;
+        List<Path> existing = segments(this.directory);
+        segmentIndex = existing.isEmpty() ? 0 : indexOf(existing.get(existing.size() - 1));
+        openNextSegment();
+    }
+
+    /**
+     * REQUIRES: No other drainer drains log.
+     * MODIFIES: log, the directory.
+     * EFFECTS: Starts draining log into segments in directory with the default segment size, syncing at least every
+     *          256 events or second and archiving sealed segments, and closes the drainer when the JVM shuts down.
+     *          Returns the drainer.
+     */
+    public static EventDrainer attach(EventLog log, String directory) throws IOException {
+        EventSegmentWriter writer = new EventSegmentWriter(directory, DEFAULT_SEGMENT_BYTES, 256, 1000);
+        writer.setArchive(new EventArchive(directory));
+        EventDrainer drainer = new EventDrainer(log, writer, 256, 50);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                drainer.close();
+            } catch (IOException e) {
+                // Nothing more can be done while the JVM shuts down.
+            }
+        }, "event-drainer-shutdown"));
+        return drainer;
+    }
+
+    /**
+     * REQUIRES: archive is over the directory of this writer.
+     * MODIFIES: this, the directory.
+     * EFFECTS: Archives the segments sealed so far, and from now on every segment as soon as it is sealed.
+     */
+    public void setArchive(EventArchive archive) throws IOException {
+        this.archive = archive;
+        archive.archive();
+    }
+
+    /**
+     * REQUIRES: batch is not empty.
+     * MODIFIES: this, the current segment.
+     * EFFECTS: Appends the events of batch to the current segment with a single write, syncs it if the sync policy
+     *          says so, and rolls over to a new segment if the current one is full, archiving the full one.
+     */
+    @Override
+    public void write(List<Event> batch) throws IOException {
+        batchBytes.reset();
+        for (Event e : batch) {
+            codec.encode(e, batchOut);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(batchBytes.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        segmentBytes += batchBytes.size();
+        unsynced += batch.size();
+        long now = System.currentTimeMillis();
+        if (unsynced >= syncEveryEvents || now - lastSync >= syncEveryMillis) {
+            sync(now);
+        }
+        if (segmentBytes >= maxSegmentBytes) {
+            sync(now);
+            channel.close();
+            openNextSegment();
+            if (archive != null) {
+                archive.archive();
+            }
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, the current segment.
+     * EFFECTS: Forces the current segment to disk if events written to it are unsynced and syncEveryMillis has gone
+     *          by since the last sync, so the last batch before the log goes quiet is not left unsynced.
+     */
+    @Override
+    public void flushIfDue() throws IOException {
+        long now = System.currentTimeMillis();
+        if (unsynced > 0 && now - lastSync >= syncEveryMillis) {
+            sync(now);
+        }
+    }
+
+    int getUnsynced() {
+        return unsynced;
+    }
+
+    private void sync(long now) throws IOException {
+        channel.force(false);
+        unsynced = 0;
+        lastSync = now;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, the directory.
+     * EFFECTS: Creates the next segment and writes its header.
+     */
+    private void openNextSegment() throws IOException {
+        segmentIndex++;
+        channel = FileChannel.open(directory.resolve(segmentName(segmentIndex)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        channel.write(header);
+        segmentBytes = HEADER_SIZE;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Forces the current segment to disk and closes it.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    static String segmentName(int index) {
+        return String.format("%s%06d%s", PREFIX, index, SUFFIX);
+    }
+
+    static int indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.lastIndexOf('.')));
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the segment and archive files in directory in the order they were written. Where a crash
+     *          left both a segment and its archive, only the archive is returned.
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        TreeMap<Integer, Path> segments = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        String pattern = PREFIX + "\\d+(\\" + SUFFIX + "|\\" + EventArchive.SUFFIX + ")";
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> p.getFileName().toString().matches(pattern)).forEach(p -> {
+                Path other = segments.putIfAbsent(indexOf(p), p);
+                if (other != null && EventArchive.isArchive(p)) {
+                    segments.put(indexOf(p), p);
+                }
+            });
+        }
+        return new ArrayList<>(segments.values());
+    }
+}
@@ -1,12 +1,70 @@
 package persistence;
 
+import model.GameRecord;
+import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 
 public class GameReader {
+
+    /**
+     * Receives the parts of a save as stream() reads them, in the order they appear in the file, which need not be
+     * the order they were written in.
+     */
+    public interface Visitor {
+        default void difficulty(String difficulty) {
+        }
+
+        default void deadEndRule(String deadEndRule) {
+        }
+
+        default void player(String name, List<Character> lettersAssigned) {
+        }
+
+        /**
+         * Receives a player with the skill it was saved with if it is a computer player, or a null botSkill if it is
+         * a person. Unless overridden, hands the player to player(name, lettersAssigned).
+         */
+        default void player(String name, List<Character> lettersAssigned, String botSkill) {
+            player(name, lettersAssigned);
+        }
+
+        default void countryLeft(String name) {
+        }
+
+        default void countryAnswered(String name) {
+        }
+
+        default void currentLetter(char letter) {
+        }
+
+        default void activePlayer(String name) {
+        }
+
+        default void journalSequence(long sequence) {
+        }
+
+        default void sessionId(long id) {
+        }
+
+        default void record(GameRecord record) {
+        }
+
+        default void randomState(long state) {
+        }
+    }
+
     private String source;
     private boolean isEmpty;
 
@@ -49,4 +107,185 @@ public class GameReader {
     public String readFile(String source) throws IOException {
         return new String(Files.readAllBytes(Paths.get(source)));
     }
+
+    /**
+    * REQUIRES: None.
+    * MODIFIES: visitor.
+    * EFFECTS: Reads the save in the source file in one pass through a buffered channel and hands each player, place
+              and setting to visitor as soon as it has been read, without building the whole document in memory.
+              Returns false if the file is empty. Throws an IOException if the file cannot be read or is not a save.
+     */
+    public boolean stream(Visitor visitor) throws IOException {
+        return stream(new JsonStreamReader(Channels.newReader(
+                FileChannel.open(Paths.get(source), StandardOpenOption.READ), Charset.defaultCharset())), visitor);
+    }
+
+    /**
+    * REQUIRES: None.
+    * MODIFIES: visitor.
+    * EFFECTS: Same as stream(visitor), for a save already in memory, such as one kept by a SaveStore.
+     */
+    public static boolean stream(byte[] save, Visitor visitor) throws IOException {
+        return stream(new JsonStreamReader(new InputStreamReader(new ByteArrayInputStream(save),
+                Charset.defaultCharset())), visitor);
+    }
+
+    private static boolean stream(JsonStreamReader reader, Visitor visitor) throws IOException {
+        try (JsonStreamReader in = reader) {
+            if (in.peek() < 0) {
+                return false;
+            }
+            in.beginObject();
+            boolean found = false;
+            while (in.hasNext()) {
+                if (in.nextName().equals("data")) {
+                    streamData(in, visitor);
+                    found = true;
+                } else {
+                    in.skipValue();
+                }
+            }
+            return found;
+        }
+    }
+
+    private static void streamData(JsonStreamReader in, Visitor visitor) throws IOException {
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "listOfPlayers":
+                    streamPlayers(in, visitor);
+                    break;
+                case "countriesLeft":
+                case "countriesAnswered":
+                    streamPlaces(in, visitor, name.equals("countriesLeft"));
+                    break;
+                case TurnJournal.SEQUENCE_KEY:
+                    visitor.journalSequence(in.nextLong());
+                    break;
+                case GameWriter.RECORD_KEY:
+                    visitor.record(streamRecord(in));
+                    break;
+                default:
+                    streamSetting(in, visitor, name);
+            }
+        }
+        in.endObject();
+    }
+
+    private static void streamSetting(JsonStreamReader in, Visitor visitor, String name) throws IOException {
+        switch (name) {
+            case "difficulty":
+                visitor.difficulty(in.nextString());
+                break;
+            case "deadEndRule":
+                visitor.deadEndRule(in.nextString());
+                break;
+            case "currentLetter":
+                visitor.currentLetter(in.nextString().charAt(0));
+                break;
+            case "activePlayer":
+                visitor.activePlayer(in.nextString());
+                break;
+            case GameWriter.SESSION_KEY:
+                visitor.sessionId(in.nextLong());
+                break;
+            case GameWriter.RANDOM_KEY:
+                visitor.randomState(in.nextLong());
+                break;
+            default:
+                in.skipValue();
+        }
+    }
+
+    private static void streamPlaces(JsonStreamReader in, Visitor visitor, boolean left) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) {
+            if (left) {
+                visitor.countryLeft(in.nextString());
+            } else {
+                visitor.countryAnswered(in.nextString());
+            }
+        }
+        in.endArray();
+    }
+
+    /**
+     * REQUIRES: The next value of in is a GameRecord as GameRecord.toJson writes it.
+     * MODIFIES: in.
+     * EFFECTS: Reads the record and returns it.
+     */
+    private static GameRecord streamRecord(JsonStreamReader in) throws IOException {
+        JSONObject json = new JSONObject();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (name.equals("players") || name.equals("inputs")) {
+                json.put(name, streamStrings(in));
+            } else if (name.equals("seed")) {
+                json.put(name, in.nextLong());
+            } else if (name.equals("difficulty") || name.equals("deadEndRule")) {
+                json.put(name, in.nextString());
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return GameRecord.fromJson(json);
+    }
+
+    private static JSONArray streamStrings(JsonStreamReader in) throws IOException {
+        JSONArray strings = new JSONArray();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == '"') {
+                strings.put(in.nextString());
+            } else {
+                in.nextLiteral();
+                strings.put(JSONObject.NULL);
+            }
+        }
+        in.endArray();
+        return strings;
+    }
+
+    /**
+     * REQUIRES: The next value of in is the array of players.
+     * MODIFIES: in, visitor.
+     * EFFECTS: Reads each player with its name, assigned letters and bot skill, if it has one, and hands it to
+     *          visitor.
+     */
+    private static void streamPlayers(JsonStreamReader in, Visitor visitor) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) {
+            String playerName = null;
+            String botSkill = null;
+            List<Character> letters = new ArrayList<>();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (name.equals("name")) {
+                    playerName = in.nextString();
+                } else if (name.equals("lettersAssigned")) {
+                    streamLetters(in, letters);
+                } else if (name.equals(GameWriter.BOT_KEY)) {
+                    botSkill = in.nextString();
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            visitor.player(playerName, letters, botSkill);
+        }
+        in.endArray();
+    }
+
+    private static void streamLetters(JsonStreamReader in, List<Character> letters) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) {
+            letters.add(in.nextString().charAt(0));
+        }
+        in.endArray();
+    }
 }
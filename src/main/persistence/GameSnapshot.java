@@ -0,0 +1,184 @@
+package persistence;
+
+import model.AnswerSet;
+import model.BotPlayer;
+import model.DeadEndRule;
+import model.Difficulty;
+import model.GameRecord;
+import model.GameSession;
+import model.PlaceIndex;
+import model.Player;
+import model.SeededRandom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The GameSnapshot class is an immutable copy of what a save needs from a GameSession. Taking one copies the bitset
+ * of answered ids, the players with their letters and a few fields, so it is cheap enough to take under the lock of
+ * a session on every turn. Turning it into a JSON or binary save, which walks the places of the game, is left to the
+ * thread that writes the save. The GameRecord of the session is not copied, only how many inputs it had: inputs are
+ * only ever appended, so the writer can copy that many later.
+ */
+public final class GameSnapshot {
+    private final PlaceIndex places;
+    private final long id;
+    private final Difficulty difficulty;
+    private final DeadEndRule deadEndRule;
+    private final GameSession.State state;
+    private final char letter;
+    private final int activePlayerIndex;
+    private final List<Player> players;
+    private final List<BotPlayer.Skill> skills;
+    private final long[] answered;
+    private final GameRecord record;
+    private final int recordLength;
+    private final long randomState;
+
+    private GameSnapshot(GameSession session) {
+        AnswerSet answers = session.getAnswers();
+        this.places = answers.getPlaces();
+        this.id = session.getId();
+        this.difficulty = session.getDifficulty();
+        this.deadEndRule = session.getDeadEndRule();
+        this.state = session.getState();
+        this.letter = session.getCurrentLetter();
+        this.activePlayerIndex = session.getActivePlayerIndex();
+        List<Player> copies = new ArrayList<>(session.getPlayers().size());
+        List<BotPlayer.Skill> botSkills = new ArrayList<>(session.getPlayers().size());
+        for (Player p : session.getPlayers()) {
+            copies.add(copy(p));
+            botSkills.add(p instanceof BotPlayer ? ((BotPlayer) p).getSkill() : null);
+        }
+        this.players = Collections.unmodifiableList(copies);
+        this.skills = Collections.unmodifiableList(botSkills);
+        this.answered = answers.answeredBits();
+        this.record = session.getRecord();
+        this.recordLength = record == null ? 0 : record.size();
+        this.randomState = session.getRandom() instanceof SeededRandom
+                ? ((SeededRandom) session.getRandom()).getState() : -1;
+    }
+
+    private static Player copy(Player player) {
+        Player copy = new Player(player.getName());
+        for (char c : player.getAssignedLetters()) {
+            copy.assignLetter(c);
+            copy.incrementLettersAssigned();
+        }
+        return copy;
+    }
+
+    /**
+     * REQUIRES: session has at least one player, and nothing else changes it during the call.
+     * MODIFIES: None.
+     * EFFECTS: Returns a snapshot of session that shares nothing with it that can change.
+     */
+    public static GameSnapshot of(GameSession session) {
+        return new GameSnapshot(session);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns a new AnswerSet over the places of the game with the places answered at the time of the
+     *          snapshot.
+     */
+    public AnswerSet answers() {
+        AnswerSet answers = new AnswerSet(places, difficulty);
+        for (int id : answeredIds()) {
+            answers.markAnswered(id);
+        }
+        return answers;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the ids of the places answered at the time of the snapshot, in increasing order.
+     */
+    public int[] answeredIds() {
+        int count = 0;
+        for (long word : answered) {
+            count += Long.bitCount(word);
+        }
+        int[] ids = new int[count];
+        int n = 0;
+        for (int word = 0; word < answered.length; word++) {
+            for (long bits = answered[word]; bits != 0; bits &= bits - 1) {
+                ids[n++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return ids;
+    }
+
+    public PlaceIndex getPlaces() {
+        return places;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public DeadEndRule getDeadEndRule() {
+        return deadEndRule;
+    }
+
+    public GameSession.State getState() {
+        return state;
+    }
+
+    public char getCurrentLetter() {
+        return letter;
+    }
+
+    public int getActivePlayerIndex() {
+        return activePlayerIndex;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns copies of the players of the game, in order, with the letters they had earned.
+     */
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    /**
+     * REQUIRES: 0 <= index < getPlayers().size().
+     * MODIFIES: None.
+     * EFFECTS: Returns the skill of the player with the given index if it is a BotPlayer, or null if it is a person.
+     */
+    public BotPlayer.Skill getBotSkill(int index) {
+        return skills.get(index);
+    }
+
+    public Player getActivePlayer() {
+        return players.get(activePlayerIndex);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns a copy of the record of the game as it was at the time of the snapshot, or null if the game
+     *          was not recorded.
+     */
+    public GameRecord getRecord() {
+        return record == null ? null : record.copy(recordLength);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the state of the SeededRandom of the game at the time of the snapshot, or -1 if its random
+     *          numbers are not a SeededRandom.
+     */
+    public long getRandomState() {
+        return randomState;
+    }
+}
@@ -1,59 +1,170 @@
 package persistence;
 
+import model.AnswerSet;
+import model.BotPlayer;
+import model.GameRecord;
+import model.GameSession;
+import model.Player;
 import org.json.JSONObject;
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
 public class GameWriter {
+    public static final String SESSION_KEY = "sessionId";
+    public static final String RECORD_KEY = "record";
+    public static final String RANDOM_KEY = "randomState";
+    public static final String BOT_KEY = "bot";
     private static final int TAB = 4;
-    private JSONObject finalObject;
     private String destination;
-    private PrintWriter printWriter;
 
     /**
     * REQUIRES: None.
     * MODIFIES: None.
-    * EFFECTS: Initializes the destination path and creates an empty JSONObject.
+    * EFFECTS: Initializes the destination path.
      */
     public GameWriter(String destination) {
         this.destination = destination;
-        this.finalObject = new JSONObject();
     }
 
     /**
     * REQUIRES: None.
-    * MODIFIES: this.printWriter.
-    * EFFECTS: Opens a PrintWriter for the specified destination file. If the file does not exist, it will be created.
-              May throw a RuntimeException if there are issues opening the file.
+    * MODIFIES: None.
+    * EFFECTS: Checks that the destination file can be written, without touching what it holds: saves replace it
+              atomically through AtomicFile. Throws a RuntimeException if its directory does not exist.
      */
     public void open() {
-        try {
-            printWriter = new PrintWriter(new File(destination));
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
+        Path parent = Paths.get(destination).toAbsolutePath().getParent();
+        if (parent == null || !Files.isDirectory(parent)) {
+            throw new RuntimeException(new FileNotFoundException(destination + " (No such directory)"));
         }
     }
 
     /**
     * REQUIRES: None.
-    * MODIFIES: this.finalObject, this.printWriter.
+    * MODIFIES: the destination file.
     * EFFECTS: Prepares a JSON data structure with the provided information and saves it to the destination file.
     */
     public void save(char letter, ArrayList<JSONObject> listOfPlayers,
                      List<String> database, List<String> answers, String activePlayer) {
-        open();
+        save(letter, listOfPlayers, database, answers, activePlayer, null, null);
+    }
+
+    /**
+    * REQUIRES: session has at least one player.
+    * MODIFIES: the destination file.
+    * EFFECTS: Saves the players, places, current letter, active player, difficulty and dead-end rule of session.
+    */
+    public void save(GameSession session) {
+        write(snapshot(session));
+    }
+
+    /**
+    * REQUIRES: session has at least one player.
+    * MODIFIES: the destination file.
+    * EFFECTS: Same as save(session), and also records the sequence number of the last turn in the snapshot, so a
+    *          TurnJournal knows which of its records come after it.
+    */
+    public void save(GameSession session, long journalSequence) {
+        JSONObject data = snapshot(session);
+        data.put(TurnJournal.SEQUENCE_KEY, journalSequence);
+        write(data);
+    }
+
+    /**
+    * REQUIRES: session has at least one player, and nothing else changes it during the call.
+    * MODIFIES: None.
+    * EFFECTS: Returns what save(session) would write as the "data" object of the save file, with the skill of each
+    *          BotPlayer under "bot", the id of session if it has one, and its GameRecord and the state of its
+    *          SeededRandom if it has them, so a loaded game can still be replayed and goes on drawing the same
+    *          numbers. It shares nothing with session, so it can be
+    *          encoded and written on another thread while the game goes on.
+    */
+    public static JSONObject snapshot(GameSession session) {
+        return snapshot(GameSnapshot.of(session));
+    }
+
+    /**
+    * REQUIRES: None.
+    * MODIFIES: None.
+    * EFFECTS: Returns the "data" object of the save of the game snapshot was taken of, as snapshot(session) does.
+    *          Listing the places left walks every place of the game, so this is meant for the thread that writes the
+    *          save rather than the one holding the game.
+    */
+    public static JSONObject snapshot(GameSnapshot snapshot) {
+        ArrayList<JSONObject> listOfPlayers = new ArrayList<>();
+        for (int i = 0; i < snapshot.getPlayers().size(); i++) {
+            BotPlayer.Skill skill = snapshot.getBotSkill(i);
+            listOfPlayers.add(snapshot.getPlayers().get(i).toJson().putOpt(BOT_KEY, skill == null ? null
+                    : skill.name()));
+        }
+        AnswerSet answers = snapshot.answers();
+        JSONObject data = toJson(snapshot.getCurrentLetter(), listOfPlayers, answers.remainingNames(),
+                answers.answeredNames(), snapshot.getActivePlayer().getName(), snapshot.getDifficulty().name(),
+                snapshot.getDeadEndRule().name());
+        if (snapshot.getId() != 0) {
+            data.put(SESSION_KEY, snapshot.getId());
+        }
+        GameRecord record = snapshot.getRecord();
+        data.putOpt(RECORD_KEY, record == null ? null : record.toJson());
+        if (snapshot.getRandomState() >= 0) {
+            data.put(RANDOM_KEY, snapshot.getRandomState());
+        }
+        return data;
+    }
+
+    /**
+    * REQUIRES: None.
+    * MODIFIES: the destination file.
+    * EFFECTS: Same as save above, and also records the difficulty and dead-end rule of the game unless they are null.
+    */
+    public void save(char letter, ArrayList<JSONObject> listOfPlayers, List<String> database,
+                     List<String> answers, String activePlayer, String difficulty, String deadEndRule) {
+        write(toJson(letter, listOfPlayers, database, answers, activePlayer, difficulty, deadEndRule));
+    }
+
+    private static JSONObject toJson(char letter, ArrayList<JSONObject> listOfPlayers, List<String> database,
+                              List<String> answers, String activePlayer, String difficulty, String deadEndRule) {
         JSONObject toBeSaved = new JSONObject();
+        toBeSaved.putOpt("difficulty", difficulty);
+        toBeSaved.putOpt("deadEndRule", deadEndRule);
         String letterString = String.valueOf(letter);
         toBeSaved.put("listOfPlayers", listOfPlayers);
         toBeSaved.put("countriesLeft", database);
         toBeSaved.put("countriesAnswered", answers);
         toBeSaved.put("currentLetter", letterString);
         toBeSaved.put("activePlayer", activePlayer);
+        return toBeSaved;
+    }
 
-        finalObject.put("data", toBeSaved);
-        printWriter.print(finalObject.toString(TAB));
-        printWriter.close();
+    /**
+    * REQUIRES: None.
+    * MODIFIES: None.
+    * EFFECTS: Returns the contents of a save file whose "data" object is data.
+    */
+    public static byte[] encode(JSONObject data) {
+        JSONObject finalObject = new JSONObject();
+        finalObject.put("data", data);
+        return finalObject.toString(TAB).getBytes(Charset.defaultCharset());
+    }
+
+    /**
+    * REQUIRES: None.
+    * MODIFIES: the destination file.
+    * EFFECTS: Atomically replaces the destination file with one whose "data" object is data, so a crash mid-save
+    *          leaves the previous save in place. Throws a RuntimeException if it cannot be written.
+    */
+    private void write(JSONObject data) {
+        open();
+        try {
+            AtomicFile.write(Paths.get(destination), encode(data));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 }
 
@@ -0,0 +1,212 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * The JsonStreamReader class reads JSON one token at a time from a Reader, through a fixed buffer, so a document of
+ * any size is read in one pass with memory bounded by its longest string. The caller walks the document with
+ * beginObject/endObject, beginArray/endArray, hasNext, nextName and the next value methods, and skips what it does not
+ * need with skipValue. Commas and colons are treated as separators, so the reader accepts every valid document but
+ * does not reject every invalid one.
+ */
+class JsonStreamReader implements Closeable {
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder text = new StringBuilder();
+    private int position;
+    private int limit;
+
+    /**
+     * REQUIRES: in is not null.
+     * MODIFIES: this.
+     * EFFECTS: Creates a reader of the JSON document in in.
+     */
+    JsonStreamReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Skips whitespace and separators and returns the next character without consuming it, or -1 at the end
+     *          of the document.
+     */
+    int peek() throws IOException {
+        while (fill()) {
+            char c = buffer[position];
+            if (!Character.isWhitespace(c) && c != ',' && c != ':') {
+                return c;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Refills the buffer if it has been used up and returns false if the document has ended.
+     */
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        limit = Math.max(0, in.read(buffer, 0, buffer.length));
+        position = 0;
+        return limit > 0;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Consumes and returns the next character, whitespace included. Throws IOException at the end.
+     */
+    private char read() throws IOException {
+        if (!fill()) {
+            throw new IOException("Unexpected end of JSON");
+        }
+        return buffer[position++];
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = peek();
+        if (c != expected) {
+            throw new IOException("Expected '" + expected + "' but found "
+                    + (c < 0 ? "the end" : "'" + (char) c + "'"));
+        }
+        position++;
+    }
+
+    void beginObject() throws IOException {
+        expect('{');
+    }
+
+    void endObject() throws IOException {
+        expect('}');
+    }
+
+    void beginArray() throws IOException {
+        expect('[');
+    }
+
+    void endArray() throws IOException {
+        expect(']');
+    }
+
+    /**
+     * REQUIRES: The reader is inside an object or array.
+     * MODIFIES: this.
+     * EFFECTS: Returns true if the object or array has another member.
+     */
+    boolean hasNext() throws IOException {
+        int c = peek();
+        return c != '}' && c != ']' && c != -1;
+    }
+
+    /**
+     * REQUIRES: The next token is the name of an object member.
+     * MODIFIES: this.
+     * EFFECTS: Consumes and returns the name.
+     */
+    String nextName() throws IOException {
+        return nextString();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Consumes and returns the next string. Throws IOException if the next token is not a string.
+     */
+    String nextString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        for (char c = read(); c != '"'; c = read()) {
+            text.append(c == '\\' ? unescape(read()) : c);
+        }
+        return text.toString();
+    }
+
+    private char unescape(char c) throws IOException {
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                String hex = new String(new char[] {read(), read(), read(), read()});
+                try {
+                    return (char) Integer.parseInt(hex, 16);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Bad escape \\u" + hex + " in JSON", e);
+                }
+            default:
+                return c;
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Consumes the next number, true, false or null and returns its text.
+     */
+    String nextLiteral() throws IOException {
+        peek();
+        text.setLength(0);
+        while (fill()) {
+            char c = buffer[position];
+            if (Character.isWhitespace(c) || c == ',' || c == '}' || c == ']') {
+                break;
+            }
+            text.append(c);
+            position++;
+        }
+        return text.toString();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Consumes and returns the next number. Throws IOException if it is not a whole number.
+     */
+    long nextLong() throws IOException {
+        String literal = nextLiteral();
+        try {
+            return Long.parseLong(literal);
+        } catch (NumberFormatException e) {
+            throw new IOException("Expected a number but found " + literal);
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Consumes the next value, with everything nested in it.
+     */
+    void skipValue() throws IOException {
+        int c = peek();
+        if (c == '"') {
+            nextString();
+        } else if (c == '{' || c == '[') {
+            position++;
+            while (hasNext()) {
+                skipValue();
+            }
+            read();
+        } else {
+            nextLiteral();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,159 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The SaveQueue class writes saves on a background thread, so the thread that asks for a save never waits for the
+ * disk. The caller takes a snapshot of the game while it holds the game, and hands the queue a Contents that turns the
+ * snapshot into bytes; the queue encodes it and replaces the target with AtomicFile.
+ *
+ * Saves to the same target coalesce: while one is being written, a newer request replaces the one waiting behind it,
+ * so a burst of saves costs at most one write in flight and one pending, and the last save asked for is always the
+ * last one written.
+ */
+public class SaveQueue implements Closeable {
+    private final Map<Path, Slot> slots = new HashMap<>();
+    private final ExecutorService writer;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile IOException lastFailure;
+
+    /**
+     * The contents of a save, encoded on the writer thread from a snapshot that nothing else changes.
+     */
+    public interface Contents {
+        byte[] encode() throws IOException;
+    }
+
+    /**
+     * The save being written to one target, and the newest one waiting behind it.
+     */
+    private static final class Slot {
+        private Contents pending;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Creates a queue with its own daemon writer thread.
+     */
+    public SaveQueue() {
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "save-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * REQUIRES: The queue has not been closed; contents does not depend on anything that changes after this call.
+     * MODIFIES: this, later the file at target.
+     * EFFECTS: Queues contents to replace target and returns at once. If a save to target is already waiting, it is
+     *          dropped in favour of this one.
+     */
+    public void save(Path target, Contents contents) {
+        synchronized (slots) {
+            Slot slot = slots.get(target);
+            if (slot != null) {
+                if (slot.pending != null) {
+                    coalesced.incrementAndGet();
+                }
+                slot.pending = contents;
+                return;
+            }
+            slot = new Slot();
+            slot.pending = contents;
+            slots.put(target, slot);
+        }
+        writer.execute(() -> drain(target));
+    }
+
+    /**
+     * REQUIRES: The slot of target exists.
+     * MODIFIES: this, the file at target.
+     * EFFECTS: Writes the pending save of target until none is left, then forgets the slot. A save that fails is
+     *          counted and remembered, and the next one is still written.
+     */
+    private void drain(Path target) {
+        for (Contents contents = take(target); contents != null; contents = take(target)) {
+            try {
+                AtomicFile.write(target, contents.encode());
+                written.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                failures.incrementAndGet();
+                lastFailure = e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+        }
+    }
+
+    private Contents take(Path target) {
+        synchronized (slots) {
+            Slot slot = slots.get(target);
+            Contents contents = slot.pending;
+            slot.pending = null;
+            if (contents == null) {
+                slots.remove(target);
+                slots.notifyAll();
+            }
+            return contents;
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Waits up to timeoutMillis for every queued save to be written and returns true if they all were.
+     */
+    public boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (slots) {
+            for (long left = timeoutMillis; !slots.isEmpty(); left = (deadline - System.nanoTime()) / 1_000_000) {
+                if (left <= 0) {
+                    return false;
+                }
+                slots.wait(left);
+            }
+            return true;
+        }
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public IOException getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Writes the saves already queued, waiting up to a few seconds for them, and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package persistence;
+
+import model.GameSession;
+import model.Player;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SaveStore class keeps any number of saves in one directory, each under a slot name: a name the player chose or
+ * one per session (slotOf). The saves are JSON saves as GameWriter writes them, appended one after another to a data
+ * file, and an index file lists the slot, players, time, offset, length and CRC-32 of each. The index is read once
+ * when the store opens, so listing the saves never opens one, and a save is loaded by key with one positional read.
+ * Recently loaded saves are kept in a small LRU cache.
+ *
+ * A slot can also hold the tail of the TurnJournal of its game: the turns played since its save, so a game can be
+ * filed on every save without writing a snapshot each time. Saving the slot again drops its tail.
+ *
+ * The index is a journal: a line is appended for every save and every deletion, after the save itself has been forced
+ * to disk, so a crash loses at most the last save and a torn last line is ignored. Saving a slot again leaves its old
+ * save behind as garbage; once the garbage outweighs the live saves they are copied to a data file of the next
+ * generation and the index is rewritten atomically to point at it.
+ */
+public class SaveStore implements Closeable {
+    public static final String INDEX_FILE = "saves.idx";
+    public static final int DEFAULT_CACHE_SIZE = 16;
+    private static final String DATA_PREFIX = "saves-";
+    private static final String DATA_SUFFIX = ".dat";
+    private static final long COMPACT_MIN_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final Map<String, Entry> index = new HashMap<>();
+    private final Map<String, Entry> tails = new HashMap<>();
+    private final Map<String, byte[]> cache;
+    private int generation;
+    private FileChannel data;
+    private long liveBytes;
+    private long indexLines;
+
+    /**
+     * One save in the store, as listed by the index.
+     */
+    public static final class Entry {
+        private final String slot;
+        private final List<String> players;
+        private final long timestamp;
+        private final long offset;
+        private final int length;
+        private final long crc;
+
+        Entry(String slot, List<String> players, long timestamp, long offset, int length, long crc) {
+            this.slot = slot;
+            this.players = Collections.unmodifiableList(new ArrayList<>(players));
+            this.timestamp = timestamp;
+            this.offset = offset;
+            this.length = length;
+            this.crc = crc;
+        }
+
+        public String getSlot() {
+            return slot;
+        }
+
+        public List<String> getPlayers() {
+            return players;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        JSONObject toJson() {
+            JSONObject json = new JSONObject();
+            json.put("slot", slot);
+            json.put("players", players);
+            json.put("time", timestamp);
+            json.put("offset", offset);
+            json.put("length", length);
+            json.put("crc", crc);
+            return json;
+        }
+
+        static Entry fromJson(JSONObject json) {
+            List<String> players = new ArrayList<>();
+            for (Object name : json.getJSONArray("players")) {
+                players.add((String) name);
+            }
+            return new Entry(json.getString("slot"), players, json.getLong("time"), json.getLong("offset"),
+                    json.getInt("length"), json.getLong("crc"));
+        }
+    }
+
+    /**
+     * REQUIRES: cacheSize >= 0; no other store has directory open.
+     * MODIFIES: this, directory.
+     * EFFECTS: Opens the store in directory, creating it if needed, reads its index and keeps up to cacheSize
+     *          recently loaded saves in memory.
+     */
+    public SaveStore(Path directory, int cacheSize) throws IOException {
+        this.directory = directory;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        Files.createDirectories(directory);
+        boolean torn = readIndex();
+        for (Entry entry : index.values()) {
+            liveBytes += entry.length;
+        }
+        for (Entry entry : tails.values()) {
+            liveBytes += entry.length;
+        }
+        data = FileChannel.open(dataPath(generation), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        deleteOtherGenerations();
+        if (torn) {
+            writeIndex(generation, index.values(), tails.values());
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the slot name of the saves of the session with the given id.
+     */
+    public static String slotOf(long sessionId) {
+        return "session-" + sessionId;
+    }
+
+    /**
+     * REQUIRES: session has at least one player.
+     * MODIFIES: this, the store files.
+     * EFFECTS: Saves session under slot, replacing what the slot held.
+     */
+    public void save(String slot, GameSession session) throws IOException {
+        save(slot, session, -1);
+    }
+
+    /**
+     * REQUIRES: session has at least one player; journalSequence is the number of the last turn its TurnJournal
+     *           recorded, or -1.
+     * MODIFIES: this, the store files.
+     * EFFECTS: Same as save(slot, session), noting journalSequence in the save so the journal tail stored with it
+     *          later can be replayed on top of it.
+     */
+    public void save(String slot, GameSession session, long journalSequence) throws IOException {
+        List<String> players = new ArrayList<>();
+        for (Player p : session.getPlayers()) {
+            players.add(p.getName());
+        }
+        JSONObject data = GameWriter.snapshot(session);
+        if (journalSequence >= 0) {
+            data.put(TurnJournal.SEQUENCE_KEY, journalSequence);
+        }
+        put(slot, players, GameWriter.encode(data));
+    }
+
+    /**
+     * REQUIRES: save is the contents of a save file, as GameWriter.encode returns.
+     * MODIFIES: this, the store files.
+     * EFFECTS: Stores save under slot, listed with the given players and the current time, and forces it and its
+     *          index line to disk before returning. Compacts the store if enough garbage has built up.
+     */
+    public synchronized void put(String slot, List<String> players, byte[] save) throws IOException {
+        long offset = data.size();
+        writeFully(data, offset, ByteBuffer.wrap(save));
+        data.force(false);
+        Entry entry = new Entry(slot, players, System.currentTimeMillis(), offset, save.length,
+                AtomicFile.checksum(save));
+        appendIndex(entry.toJson());
+        Entry old = index.put(slot, entry);
+        Entry oldTail = tails.remove(slot);
+        liveBytes += save.length - (old == null ? 0 : old.length) - (oldTail == null ? 0 : oldTail.length);
+        cache.put(slot, save);
+        compactIfNeeded();
+    }
+
+    /**
+     * REQUIRES: tail is what TurnJournal.tail returned after the save in slot was made.
+     * MODIFIES: this, the store files.
+     * EFFECTS: Stores tail as the journal tail of the save in slot, replacing the one it had, forces it and its index
+     *          line to disk and returns true. Returns false and stores nothing if slot is empty.
+     */
+    public synchronized boolean putTail(String slot, byte[] tail) throws IOException {
+        if (!index.containsKey(slot)) {
+            return false;
+        }
+        long offset = data.size();
+        writeFully(data, offset, ByteBuffer.wrap(tail));
+        data.force(false);
+        Entry entry = new Entry(slot, List.of(), System.currentTimeMillis(), offset, tail.length,
+                AtomicFile.checksum(tail));
+        appendIndex(entry.toJson().put("tail", true));
+        Entry old = tails.put(slot, entry);
+        liveBytes += tail.length - (old == null ? 0 : old.length);
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the journal tail stored with the save in slot, or an empty array if it has none.
+     */
+    public synchronized byte[] readTail(String slot) throws IOException {
+        Entry entry = tails.get(slot);
+        return entry == null ? new byte[0] : readEntry(data, entry);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, the store files.
+     * EFFECTS: Removes the save in slot and returns true if there was one.
+     */
+    public synchronized boolean delete(String slot) throws IOException {
+        Entry old = index.remove(slot);
+        if (old == null) {
+            return false;
+        }
+        appendIndex(new JSONObject().put("slot", slot).put("deleted", true));
+        Entry oldTail = tails.remove(slot);
+        liveBytes -= old.length + (oldTail == null ? 0 : oldTail.length);
+        cache.remove(slot);
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the entry of slot, or null if it is empty.
+     */
+    public synchronized Entry get(String slot) {
+        return index.get(slot);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the entries of every save, most recent first, without reading any of them.
+     */
+    public synchronized List<Entry> list() {
+        List<Entry> entries = new ArrayList<>(index.values());
+        entries.sort(Comparator.comparingLong(Entry::getTimestamp).reversed().thenComparing(Entry::getSlot));
+        return entries;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: visitor.
+     * EFFECTS: Streams the save in slot to visitor as GameReader.stream does, from the cache if it was loaded
+     *          recently. Returns false if the slot is empty. Throws IOException if the save is corrupt.
+     */
+    public boolean load(String slot, GameReader.Visitor visitor) throws IOException {
+        byte[] save = read(slot);
+        return save != null && GameReader.stream(save, visitor);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Returns the contents of the save in slot, or null if it is empty, and keeps it in the cache.
+     */
+    public synchronized byte[] read(String slot) throws IOException {
+        byte[] save = cache.get(slot);
+        if (save != null) {
+            return save;
+        }
+        Entry entry = index.get(slot);
+        if (entry == null) {
+            return null;
+        }
+        save = readEntry(data, entry);
+        cache.put(slot, save);
+        return save;
+    }
+
+    private static byte[] readEntry(FileChannel channel, Entry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, entry.offset + buffer.position()) < 0) {
+                throw new IOException("The save in slot " + entry.slot + " is cut short");
+            }
+        }
+        if (AtomicFile.checksum(buffer.array()) != entry.crc) {
+            throw new IOException("The save in slot " + entry.slot + " is corrupt");
+        }
+        return buffer.array();
+    }
+
+    private static void writeFully(FileChannel channel, long position, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes, position + bytes.position());
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Loads the index file if there is one and returns true if its last line was torn.
+     */
+    private boolean readIndex() throws IOException {
+        Path path = directory.resolve(INDEX_FILE);
+        if (!Files.exists(path)) {
+            return false;
+        }
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            JSONObject json = parse(line);
+            if (json == null) {
+                return true;
+            } else if (json.has("generation")) {
+                generation = json.getInt("generation");
+            } else {
+                applyIndexLine(json);
+            }
+            indexLines++;
+        }
+        return false;
+    }
+
+    private void applyIndexLine(JSONObject json) {
+        String slot = json.getString("slot");
+        if (json.optBoolean("tail")) {
+            tails.put(slot, Entry.fromJson(json));
+            return;
+        }
+        tails.remove(slot);
+        if (json.optBoolean("deleted")) {
+            index.remove(slot);
+        } else {
+            index.put(slot, Entry.fromJson(json));
+        }
+    }
+
+    private static JSONObject parse(String line) {
+        try {
+            return new JSONObject(line);
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    private void appendIndex(JSONObject line) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap((line.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+        indexLines++;
+    }
+
+    /**
+     * REQUIRES: Every entry and tail points into the data file of the given generation.
+     * MODIFIES: this, the index file.
+     * EFFECTS: Atomically replaces the index file with one line per entry, followed by one per journal tail.
+     */
+    private void writeIndex(int generation, Collection<Entry> entries, Collection<Entry> tailEntries)
+            throws IOException {
+        StringBuilder text = new StringBuilder(new JSONObject().put("generation", generation).toString()).append('\n');
+        for (Entry entry : entries) {
+            text.append(entry.toJson().toString()).append('\n');
+        }
+        for (Entry entry : tailEntries) {
+            text.append(entry.toJson().put("tail", true).toString()).append('\n');
+        }
+        AtomicFile.write(directory.resolve(INDEX_FILE), text.toString().getBytes(StandardCharsets.UTF_8));
+        indexLines = entries.size() + tailEntries.size() + 1;
+    }
+
+    private void compactIfNeeded() throws IOException {
+        long garbage = data.size() - liveBytes;
+        if (garbage > liveBytes && garbage > COMPACT_MIN_BYTES) {
+            compact();
+        } else if (indexLines > 2L * (index.size() + tails.size()) + 64) {
+            writeIndex(generation, index.values(), tails.values());
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, the store files.
+     * EFFECTS: Copies the live saves and journal tails to the data file of the next generation, points the index at
+     *          it and deletes the old data file. A crash part way leaves the old index and data file in use.
+     */
+    public synchronized void compact() throws IOException {
+        int next = generation + 1;
+        List<Entry> moved = new ArrayList<>();
+        List<Entry> movedTails = new ArrayList<>();
+        try (FileChannel out = FileChannel.open(dataPath(next), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            copy(index.values(), out, moved);
+            copy(tails.values(), out, movedTails);
+            out.force(true);
+        }
+        writeIndex(next, moved, movedTails);
+        data.close();
+        Files.deleteIfExists(dataPath(generation));
+        generation = next;
+        data = FileChannel.open(dataPath(next), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        for (Entry entry : moved) {
+            index.put(entry.slot, entry);
+        }
+        for (Entry entry : movedTails) {
+            tails.put(entry.slot, entry);
+        }
+    }
+
+    private void copy(Collection<Entry> entries, FileChannel out, List<Entry> moved) throws IOException {
+        for (Entry entry : entries) {
+            byte[] bytes = readEntry(data, entry);
+            moved.add(new Entry(entry.slot, entry.players, entry.timestamp, out.size(), entry.length, entry.crc));
+            writeFully(out, out.size(), ByteBuffer.wrap(bytes));
+        }
+    }
+
+    private Path dataPath(int generation) {
+        return directory.resolve(DATA_PREFIX + generation + DATA_SUFFIX);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: directory.
+     * EFFECTS: Deletes data files of other generations, left behind by a compaction that did not finish.
+     */
+    private void deleteOtherGenerations() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, DATA_PREFIX + "*" + DATA_SUFFIX)) {
+            for (Path file : files) {
+                if (!file.equals(dataPath(generation))) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        data.close();
+    }
+}
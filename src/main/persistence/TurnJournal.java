@@ -0,0 +1,306 @@
+package persistence;
+
+import model.GameRecord;
+import model.GameSession;
+import model.PlaceIndex;
+import model.Player;
+import model.SeededRandom;
+import model.TurnResult;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The TurnJournal class saves a game incrementally. Turns are recorded as they are played, and a save appends the
+ * records of the turns played since the last save to a journal next to the save file, one JSON object per line: who
+ * played, the place answered, the letter of "LOSER" assigned, who was eliminated or won, and the letter, active
+ * player and state the turn left behind. If the game is recorded, a record also holds the input of the turn and the
+ * state of its SeededRandom, so the GameRecord and the random numbers of a loaded game carry on from the turn. A save
+ * therefore costs as much as the turns it adds, not the whole game. The first save of a new game, and every save once
+ * snapshotEvery records have piled up, writes a full snapshot with GameWriter instead and empties the journal.
+ *
+ * Records are numbered and a snapshot notes the last number it contains, so records that a crash left behind a newer
+ * snapshot are skipped on loading. A save file written by GameWriter alone has no number and its journal is ignored.
+ * The lines journaled since the last snapshot are also kept in memory as the tail, so they can be filed with a copy
+ * of the snapshot elsewhere, such as a SaveStore slot, and replayed from there with replayTail.
+ */
+public class TurnJournal {
+    public static final String SUFFIX = ".journal";
+    public static final String SEQUENCE_KEY = "journalSequence";
+
+    private final String snapshotPath;
+    private final Path journalPath;
+    private final int snapshotEvery;
+    private final List<JSONObject> pending = new ArrayList<>();
+    private final StringBuilder tail = new StringBuilder();
+    private long sequence;
+    private int journaled;
+    private boolean baselined;
+
+    /**
+     * REQUIRES: snapshotEvery > 0.
+     * MODIFIES: this.
+     * EFFECTS: Creates a journal for the save file at snapshotPath, which keeps its records in snapshotPath + SUFFIX
+     *          and is compacted into a snapshot every snapshotEvery records.
+     */
+    public TurnJournal(String snapshotPath, int snapshotEvery) {
+        this.snapshotPath = snapshotPath;
+        this.journalPath = Paths.get(snapshotPath + SUFFIX);
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Forgets the turns of the previous game, so the next save writes a snapshot of a new one.
+     */
+    public void reset() {
+        pending.clear();
+        tail.setLength(0);
+        journaled = 0;
+        baselined = false;
+    }
+
+    /**
+     * REQUIRES: result is what the last turn of session did.
+     * MODIFIES: this.
+     * EFFECTS: Records the turn until the next save.
+     */
+    public void record(GameSession session, TurnResult result) {
+        JSONObject record = new JSONObject();
+        record.put("seq", ++sequence);
+        record.put("player", result.getPlayer().getName());
+        if (result.getOutcome() == TurnResult.Outcome.CORRECT) {
+            record.put("answer", result.getPlace());
+        }
+        if (result.getLetterAssigned() != '\0') {
+            record.put("assigned", String.valueOf(result.getLetterAssigned()));
+        }
+        record.putOpt("eliminated", result.getEliminated() == null ? null : result.getEliminated().getName());
+        record.putOpt("winner", result.getWinner() == null ? null : result.getWinner().getName());
+        record.put("letter", String.valueOf(session.getCurrentLetter()));
+        record.put("state", session.getState().name());
+        if (!session.isFinished()) {
+            record.put("active", session.getActivePlayer().getName());
+        }
+        recordInput(session, record);
+        pending.add(record);
+    }
+
+    /**
+     * REQUIRES: The last turn of session has just been played.
+     * MODIFIES: record.
+     * EFFECTS: Adds the input of the turn to record if session is recorded, as a JSON null for a timeout, and the
+     *          state of its random numbers if they are a SeededRandom.
+     */
+    private static void recordInput(GameSession session, JSONObject record) {
+        GameRecord inputs = session.getRecord();
+        if (inputs != null && inputs.size() > 0) {
+            String input = inputs.inputAt(inputs.size() - 1);
+            record.put("input", input == null ? JSONObject.NULL : input);
+        }
+        if (session.getRandom() instanceof SeededRandom) {
+            record.put("random", ((SeededRandom) session.getRandom()).getState());
+        }
+    }
+
+    /**
+     * REQUIRES: session is the game whose turns were recorded and has at least one player.
+     * MODIFIES: this, the save file and its journal.
+     * EFFECTS: Saves session, by appending the turns recorded since the last save to the journal, or by writing a
+     *          snapshot if this is a new game or the journal is due for compaction. Returns true if a snapshot was
+     *          written.
+     */
+    public boolean save(GameSession session) throws IOException {
+        if (!baselined || journaled + pending.size() >= snapshotEvery) {
+            new GameWriter(snapshotPath).save(session, sequence);
+            Files.deleteIfExists(journalPath);
+            pending.clear();
+            tail.setLength(0);
+            journaled = 0;
+            baselined = true;
+            return true;
+        }
+        append();
+        return false;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, the journal.
+     * EFFECTS: Appends the pending records to the journal with one write and forces them to disk.
+     */
+    private void append() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (JSONObject record : pending) {
+            lines.append(record.toString()).append('\n');
+        }
+        tail.append(lines);
+        ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+        journaled += pending.size();
+        pending.clear();
+    }
+
+    /**
+     * REQUIRES: session has just been loaded from snapshot, the "data" object of the save file; places holds every
+     *           place answered in the game.
+     * MODIFIES: this, session.
+     * EFFECTS: Applies the journaled turns that came after snapshot to session, up to a torn last line, and returns
+     *          how many there were. From now on the turns of session are recorded on top of them.
+     */
+    public int replay(JSONObject snapshot, GameSession session, PlaceIndex places) throws IOException {
+        return replay(snapshot.optLong(SEQUENCE_KEY, -1), session, places);
+    }
+
+    /**
+     * REQUIRES: session has just been loaded from a snapshot whose sequence number is snapshotSequence, or -1 if it
+     *           has none; places holds every place answered in the game.
+     * MODIFIES: this, session.
+     * EFFECTS: Same as replay(snapshot, session, places).
+     */
+    public int replay(long snapshotSequence, GameSession session, PlaceIndex places) throws IOException {
+        reset();
+        if (snapshotSequence < 0) {
+            return 0;
+        }
+        sequence = snapshotSequence;
+        baselined = true;
+        List<String> lines = Files.exists(journalPath)
+                ? Files.readAllLines(journalPath, StandardCharsets.UTF_8) : new ArrayList<>();
+        int applied = 0;
+        for (String line : lines) {
+            JSONObject record = parse(line);
+            if (record == null) {
+                baselined = false;
+                break;
+            } else if (record.getLong("seq") > sequence) {
+                apply(record, session, places);
+                sequence = record.getLong("seq");
+                tail.append(line).append('\n');
+                applied++;
+            }
+        }
+        journaled = lines.size();
+        return applied;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of the last turn recorded, which a snapshot of the game saved now would note.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the journal lines written since the last snapshot, in UTF-8.
+     */
+    public byte[] tail() {
+        return tail.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * REQUIRES: session has just been loaded from a copy of a snapshot whose sequence number is snapshotSequence;
+     *           tail is what tail() returned for a later save of the same game; places holds every place answered in
+     *           the game.
+     * MODIFIES: session.
+     * EFFECTS: Applies the records of tail that came after the snapshot to session, stopping at a torn line or a gap
+     *          in their numbers, and returns how many there were.
+     */
+    public static int replayTail(long snapshotSequence, byte[] tail, GameSession session, PlaceIndex places) {
+        long expected = snapshotSequence + 1;
+        int applied = 0;
+        for (String line : new String(tail, StandardCharsets.UTF_8).split("\n")) {
+            JSONObject record = parse(line);
+            if (record == null || record.getLong("seq") > expected) {
+                break;
+            } else if (record.getLong("seq") == expected) {
+                apply(record, session, places);
+                expected++;
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    private static JSONObject parse(String line) {
+        try {
+            return new JSONObject(line);
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    /**
+     * REQUIRES: record was made by record() for the turn that follows the current state of session.
+     * MODIFIES: session.
+     * EFFECTS: Moves session on exactly as the recorded turn did.
+     */
+    private static void apply(JSONObject record, GameSession session, PlaceIndex places) {
+        Player player = find(session, record.getString("player"));
+        if (record.has("answer") && places.indexOf(record.getString("answer")) >= 0) {
+            session.getAnswers().markAnswered(places.indexOf(record.getString("answer")));
+        }
+        if (record.has("assigned") && player != null) {
+            player.assignLetter(record.getString("assigned").charAt(0));
+            player.incrementLettersAssigned();
+        }
+        if (record.has("eliminated")) {
+            session.getPlayers().remove(find(session, record.getString("eliminated")));
+        }
+        if (record.has("winner")) {
+            session.setWinner(find(session, record.getString("winner")));
+        }
+        session.setCurrentLetter(record.getString("letter").charAt(0));
+        session.setState(GameSession.State.valueOf(record.getString("state")));
+        if (record.has("active")) {
+            session.setActivePlayerIndex(session.getPlayers().indexOf(find(session, record.getString("active"))));
+        }
+        applyInput(record, session);
+    }
+
+    private static void applyInput(JSONObject record, GameSession session) {
+        if (record.has("input") && session.getRecord() != null) {
+            if (record.isNull("input")) {
+                session.getRecord().timeout();
+            } else {
+                session.getRecord().answer(record.getString("input"));
+            }
+        }
+        if (record.has("random") && session.getRandom() instanceof SeededRandom) {
+            ((SeededRandom) session.getRandom()).setState(record.getLong("random"));
+        }
+    }
+
+    private static Player find(GameSession session, String name) {
+        for (Player p : session.getPlayers()) {
+            if (p.getName().equals(name)) {
+                return p;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,353 @@
+package server;
+
+import model.Difficulty;
+import model.Player;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The ClientConnection class serves one remote player. It runs on its own (virtual, where available) thread, reads
+ * one command per line and answers with lines starting with OK, ERR, or one of the event words described in
+ * GameServer. Its buffers are small so that many idle connections cost little memory. A connection may also watch
+ * one room as a spectator, whether or not it plays in a room itself.
+ *
+ * Nothing is written to the socket by the thread that sends. Lines go into a bounded outbox that a writer task drains
+ * on its own thread, so a client that stops reading never holds up a room, the turn timer or another player. A client
+ * whose outbox overflows is disconnected, as is one that sends a line longer than MAX_LINE characters.
+ */
+class ClientConnection implements Runnable {
+    static final int OUTBOX = 256;
+    static final int MAX_LINE = 1024;
+    private static final int BUFFER_SIZE = 512;
+
+    private final GameServer server;
+    private final Socket socket;
+    private final Executor writers;
+    private final ArrayDeque<String> outbox = new ArrayDeque<>();
+    private boolean writing;
+    private boolean quitting;
+    private final StringBuilder lineBuffer = new StringBuilder();
+    private Writer out;
+    private Room room;
+    private Player player;
+    private SpectatorBroadcast.Feed watching;
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Creates a connection of server over socket whose outbox is drained by tasks on writers.
+     */
+    ClientConnection(GameServer server, Socket socket, Executor writers) {
+        this.server = server;
+        this.socket = socket;
+        this.writers = writers;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, the room joined.
+     * EFFECTS: Handles commands until the client quits or disconnects, then leaves the room. The socket is closed
+     *          at once if the client went away, and once the outbox has been written if it quit.
+     */
+    @Override
+    public void run() {
+        try {
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+            synchronized (this) {
+                out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8),
+                        BUFFER_SIZE);
+            }
+            send("WELCOME COMPAS");
+            String command = readLine(in);
+            while (command != null && handle(command)) {
+                command = readLine(in);
+            }
+        } catch (IOException e) {
+            // The client went away; leaving the room below is all that is left to do.
+        } finally {
+            server.leave(this);
+            finish();
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: in.
+     * EFFECTS: Returns the next line read from in without its line terminator, or null at the end of input. Throws
+     *          IOException if the line is longer than MAX_LINE characters, without reading the rest of it.
+     */
+    private String readLine(Reader in) throws IOException {
+        lineBuffer.setLength(0);
+        for (int c = in.read(); c != '\n'; c = in.read()) {
+            if (c < 0) {
+                return lineBuffer.length() == 0 ? null : lineBuffer.toString();
+            } else if (lineBuffer.length() >= MAX_LINE) {
+                throw new IOException("Line longer than " + MAX_LINE + " characters");
+            } else if (c != '\r') {
+                lineBuffer.append((char) c);
+            }
+        }
+        return lineBuffer.toString();
+    }
+
+    /**
+     * REQUIRES: line is not null.
+     * MODIFIES: this, the room joined.
+     * EFFECTS: Carries out one command and returns false if the client asked to quit. Answers are timed from the
+     *          moment the line was read until every member of the room has been told the result.
+     */
+    private boolean handle(String line) {
+        long start = System.nanoTime();
+        String[] parts = line.trim().split("\\s+", 2);
+        String argument = parts.length > 1 ? parts[1] : "";
+        try {
+            switch (parts[0].toLowerCase()) {
+                case "join":
+                    join(argument);
+                    break;
+                case "start":
+                    server.start(requireRoom(), argument.isEmpty() ? Difficulty.EASY
+                            : Difficulty.valueOf(argument.toUpperCase()));
+                    break;
+                case "answer":
+                    server.answer(requireRoom(), player, argument);
+                    server.getAnswerLatency().record(System.nanoTime() - start);
+                    break;
+                default:
+                    return handleOther(parts[0].toLowerCase(), argument);
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            send("ERR " + e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Carries out the commands that do not change the game and returns false if the client asked to quit.
+     */
+    private boolean handleOther(String command, String argument) {
+        switch (command) {
+            case "status":
+                send(server.status(requireRoom()));
+                return true;
+            case "save":
+                send("OK saved " + server.save(requireRoom(), argument.equalsIgnoreCase("binary")));
+                return true;
+            case "load":
+                server.load(requireRoom());
+                return true;
+            case "watch":
+                watch(argument);
+                return true;
+            case "ack":
+                ack(argument);
+                return true;
+            case "quit":
+                quit();
+                return false;
+            default:
+                return handleRecord(command, argument);
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Carries out the commands that read the record of the game of the room joined.
+     */
+    private boolean handleRecord(String command, String argument) {
+        switch (command) {
+            case "record":
+                send(server.record(requireRoom()));
+                return true;
+            case "replay":
+                if (!argument.matches("\\d{1,9}")) {
+                    throw new IllegalArgumentException("Usage: replay <inputs>");
+                }
+                send(server.replay(requireRoom(), Integer.parseInt(argument)));
+                return true;
+            default:
+                send("ERR Unknown command " + command);
+                return true;
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, the room joined.
+     * EFFECTS: Joins the room and player name given as "room name". Throws IllegalStateException if this
+     *          connection is already in a room and IllegalArgumentException if the argument is malformed.
+     */
+    private void join(String argument) {
+        if (room != null) {
+            throw new IllegalStateException("Already in room " + room.getName());
+        }
+        String[] names = argument.split("\\s+");
+        if (names.length != 2 || !names[0].matches("[A-Za-z0-9_-]{1,32}") || names[1].length() > 32) {
+            throw new IllegalArgumentException("Usage: join <room> <name>");
+        }
+        room = server.join(this, names[0], names[1]);
+        player = room.playerOf(this);
+        send("OK joined " + room.getName() + " as " + player.getName());
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Stops watching any other room and watches the room with the given name, whose snapshot is sent right
+     *          after the OK. Throws IllegalStateException if that room's game has not started.
+     */
+    private void watch(String roomName) {
+        SpectatorBroadcast.Feed feed = server.watch(roomName);
+        unwatch();
+        send("OK watching " + roomName);
+        feed.watch(this);
+        watching = feed;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Acknowledges the version given as the argument to the feed watched. Throws IllegalStateException if
+     *          this connection watches no room and IllegalArgumentException if the argument is not a version.
+     */
+    private void ack(String argument) {
+        if (watching == null) {
+            throw new IllegalStateException("Watch a room first");
+        }
+        if (!argument.matches("\\d{1,18}")) {
+            throw new IllegalArgumentException("Usage: ack <version>");
+        }
+        watching.ack(this, Long.parseLong(argument));
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Stops watching the room watched, if any.
+     */
+    void unwatch() {
+        if (watching != null) {
+            watching.unwatch(this);
+            watching = null;
+        }
+    }
+
+    private Room requireRoom() {
+        if (room == null) {
+            throw new IllegalStateException("Join a room first");
+        }
+        return room;
+    }
+
+    Room getRoom() {
+        return room;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Queues text to be sent to the client as one or more lines, without waiting for it to be written. If
+     *          the outbox is full or the client cannot be written to, its socket is closed, which ends its thread.
+     */
+    synchronized void send(String text) {
+        if (socket.isClosed()) {
+            return;
+        } else if (outbox.size() >= OUTBOX) {
+            close();
+            return;
+        }
+        outbox.add(text);
+        if (!writing) {
+            try {
+                writers.execute(this::drain);
+                writing = true;
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * REQUIRES: Runs on writers, never twice at once.
+     * MODIFIES: this.
+     * EFFECTS: Writes the queued lines to the socket until the outbox is empty, flushing whenever it runs dry, and
+     *          closes the socket afterwards if the client has quit.
+     */
+    private void drain() {
+        try {
+            for (String text = next(); text != null; text = next()) {
+                out.write(text);
+                out.write('\n');
+                if (isDrained()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    private synchronized String next() {
+        String text = outbox.poll();
+        writing = text != null;
+        if (!writing && quitting) {
+            close();
+        }
+        return text;
+    }
+
+    private synchronized boolean isDrained() {
+        return outbox.isEmpty();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Says goodbye and has the socket closed once everything queued has been written.
+     */
+    private synchronized void quit() {
+        quitting = true;
+        send("BYE");
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Closes the socket now if the client went away or nothing is left to write, and otherwise leaves it
+     *          to the writer task.
+     */
+    private synchronized void finish() {
+        if (!quitting || !writing) {
+            close();
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Discards the lines not yet written and closes the socket of this connection.
+     */
+    synchronized void close() {
+        outbox.clear();
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed.
+        }
+    }
+}
@@ -0,0 +1,547 @@
+package server;
+
+import model.Difficulty;
+import model.DeadEndRule;
+import model.EventLog;
+import model.Game;
+import model.GameRecord;
+import model.GameSession;
+import model.GameEventPublisher;
+import model.Gazetteer;
+import model.Player;
+import model.Replay;
+import model.SeededRandom;
+import model.SessionManager;
+import model.SpellingIndex;
+import model.TurnEngine;
+import model.TurnResult;
+import model.TurnTimer;
+import persistence.BinaryGameFormat;
+import persistence.EventSegmentWriter;
+import persistence.GameSnapshot;
+import persistence.GameWriter;
+import persistence.SaveQueue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The GameServer class hosts COMPAS games for remote players over TCP with a line protocol. Each connection is served
+ * by its own thread: a virtual thread when the JVM has them, otherwise a platform thread with a small stack. Games are
+ * played in rooms, each backed by one session of a shared SessionManager, so rooms never wait for each other.
+ *
+ * Commands, one per line: "join room name", "start [EASY|MEDIUM|HARD]", "load", "answer place", "status",
+ * "save [binary]", "record", "replay inputs", "watch room", "ack version" and "quit". "load" starts a room from its
+ * binary save instead of a new game, once everyone still in the saved game has joined it again. "record" answers with
+ * the GameRecord of the room's game as one line of JSON, and "replay inputs" with the state that game was in after its
+ * first inputs inputs, re-executed from the record.
+ * Replies start with OK or ERR. Turns are announced to the whole room with RESULT, ELIMINATED, PASSED, DEADEND and
+ * TURN lines, and OVER when the game ends. Every line is queued in the outbox of its ClientConnection and written by
+ * a task of its own, so no thread that plays the game ever waits for a slow client.
+ *
+ * Spectators watch a started room without joining it. They are sent the SNAPSHOT and DELTA lines of a
+ * SpectatorBroadcast, acknowledging each version they have applied with "ack version"; acks get no reply.
+ *
+ * Every answer autosaves the room in the JSON save format. Only a GameSnapshot is taken under the session lock; the
+ * save is encoded and written by a SaveQueue, so answering never waits for the disk and a burst of answers coalesces
+ * into few writes.
+ */
+public class GameServer implements Closeable {
+    public static final int DEFAULT_PORT = 4444;
+    public static final long IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000;
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+    private static final long REPORT_INTERVAL_MILLIS = 60 * 1000;
+
+    private final SessionManager sessions;
+    private final TurnTimer timer;
+    private final long idleTimeout;
+    private final String saveDirectory;
+    private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+    private final Map<Long, Room> roomsBySession = new ConcurrentHashMap<>();
+    private final Map<Long, Replay> replays = new ConcurrentHashMap<>();
+    private final LatencyHistogram answerLatency = new LatencyHistogram();
+    private final Set<ClientConnection> open = ConcurrentHashMap.newKeySet();
+    private final ExecutorService connections = newConnectionExecutor();
+    private final SaveQueue saves = new SaveQueue();
+    private final SpectatorBroadcast spectators;
+    private ServerSocket serverSocket;
+
+    /**
+     * REQUIRES: turnLimitMillis > 0; saveDirectory is an existing directory.
+     * MODIFIES: this.
+     * EFFECTS: Creates a stopped server whose games are judged by engine, give each turn turnLimitMillis, and are
+     *          saved into saveDirectory.
+     */
+    public GameServer(TurnEngine engine, long turnLimitMillis, String saveDirectory) {
+        this(engine, turnLimitMillis, saveDirectory, IDLE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * REQUIRES: turnLimitMillis > 0; idleTimeoutMillis > 0; saveDirectory is an existing directory.
+     * MODIFIES: this.
+     * EFFECTS: Same as GameServer(engine, turnLimitMillis, saveDirectory), with sessions expiring once they have
+     *          been idle for idleTimeoutMillis.
+     */
+    GameServer(TurnEngine engine, long turnLimitMillis, String saveDirectory, long idleTimeoutMillis) {
+        this.timer = new TurnTimer(50, 1024);
+        this.idleTimeout = idleTimeoutMillis;
+        this.sessions = new SessionManager(engine, idleTimeoutMillis, TurnTimer::monotonicMillis, timer,
+                turnLimitMillis);
+        this.saveDirectory = saveDirectory;
+        this.spectators = new SpectatorBroadcast(sessions, connections);
+        sessions.setTimeoutListener(this::announceTimeout);
+        engine.getEvents().subscribe(spectators, SpectatorBroadcast.BUFFER, GameEventPublisher.OverflowPolicy.CONFLATE);
+    }
+
+    /**
+     * REQUIRES: args is empty or holds a port number.
+     * MODIFIES: None.
+     * EFFECTS: Serves the built-in places on the given port (DEFAULT_PORT if none), reporting answer latency once a
+     *          minute and writing the event log to disk, until the process is stopped.
+     */
+    public static void main(String[] args) throws IOException {
+        EventSegmentWriter.attach(EventLog.getInstance(), EventSegmentWriter.DEFAULT_DIRECTORY);
+        Gazetteer places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        GameServer server = new GameServer(new TurnEngine(places, new SpellingIndex(places)),
+                Game.TURN_LIMIT_MILLIS, "./data");
+        int port = server.start(args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT);
+        System.out.println("COMPAS server listening on port " + port);
+        server.scheduleReport();
+    }
+
+    /**
+     * REQUIRES: The server has not been started.
+     * MODIFIES: this.
+     * EFFECTS: Starts accepting connections on the given port (any free port if 0) and returns the port.
+     */
+    public int start(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 1024, port == 0 ? InetAddress.getLoopbackAddress() : null);
+        timer.start();
+        Thread acceptor = new Thread(this::acceptConnections, "compas-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        scheduleExpiry();
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * REQUIRES: The server has been started.
+     * MODIFIES: this.
+     * EFFECTS: Hands every accepted socket to its own connection thread until the server is closed.
+     */
+    private void acceptConnections() {
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                ClientConnection connection = new ClientConnection(this, socket, connections);
+                open.add(connection);
+                connections.execute(connection);
+            }
+        } catch (IOException e) {
+            // The server socket was closed.
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns an executor that runs every task on a new virtual thread if the JVM supports them, and on a
+     *          new daemon platform thread with a small stack otherwise.
+     */
+    static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(null, task, "compas-connection", PLATFORM_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public LatencyHistogram getAnswerLatency() {
+        return answerLatency;
+    }
+
+    public SessionManager getSessions() {
+        return sessions;
+    }
+
+    public SaveQueue getSaves() {
+        return saves;
+    }
+
+    /**
+     * REQUIRES: roomName and playerName are valid names.
+     * MODIFIES: this.
+     * EFFECTS: Adds connection to the room with the given name as playerName, creating the room if needed, and
+     *          returns the room. Throws IllegalStateException if the room's game has started or the name is taken.
+     */
+    Room join(ClientConnection connection, String roomName, String playerName) {
+        return rooms.compute(roomName, (name, room) -> {
+            Room joined = room == null ? new Room(name) : room;
+            joined.add(connection, playerName);
+            return joined;
+        });
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Forgets connection and removes it from its room, closing the room and its session once nobody is left.
+     */
+    void leave(ClientConnection connection) {
+        open.remove(connection);
+        connection.unwatch();
+        Room room = connection.getRoom();
+        if (room == null) {
+            return;
+        }
+        rooms.computeIfPresent(room.getName(), (name, current) -> {
+            if (current != room || !room.remove(connection)) {
+                return current;
+            }
+            roomsBySession.remove(room.getSessionId());
+            replays.remove(room.getSessionId());
+            sessions.close(room.getSessionId());
+            spectators.close(room.getSessionId());
+            return null;
+        });
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: room.
+     * EFFECTS: Starts the game of room at the given level and announces the first turn. Throws IllegalStateException
+     *          if it has already started or has fewer than two players.
+     */
+    void start(Room room, Difficulty difficulty) {
+        room.start(players -> {
+            long id = sessions.create(players, difficulty, DeadEndRule.SKIP, ThreadLocalRandom.current().nextLong());
+            roomsBySession.put(id, room);
+            return id;
+        });
+        room.broadcast(sessions.withSession(room.getSessionId(), GameServer::describeTurn));
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: room.
+     * EFFECTS: Starts the game of room from its binary save and announces the turn it was saved at. The players left
+     *          in the save are played on by the members of the same names. Throws IllegalStateException if there is no
+     *          readable save, the saved game is over, the game has started, or a player of the save has not joined.
+     */
+    void load(Room room) {
+        GameSession saved = readSave(room);
+        room.start(players -> {
+            seatPlayers(saved, players);
+            long id = sessions.restore(saved);
+            roomsBySession.put(id, room);
+            return id;
+        });
+        room.broadcast(sessions.withSession(room.getSessionId(), GameServer::describeTurn));
+    }
+
+    private GameSession readSave(Room room) {
+        try {
+            GameSession saved = BinaryGameFormat.read(savePath(room, true), sessions.getEngine().getPlaces(),
+                    new SeededRandom(ThreadLocalRandom.current().nextLong()));
+            if (saved.isFinished()) {
+                throw new IllegalStateException("The saved game is over");
+            }
+            return saved;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load " + room.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: saved, members.
+     * EFFECTS: Replaces each player of saved by the member with the same name, who takes over its letters. Throws
+     *          IllegalStateException if a player of saved has no member of that name.
+     */
+    private static void seatPlayers(GameSession saved, List<Player> members) {
+        List<Player> seats = saved.getPlayers();
+        List<Player> seated = new ArrayList<>();
+        for (Player seat : seats) {
+            seated.add(members.stream().filter(m -> m.getName().equals(seat.getName())).findFirst()
+                    .orElseThrow(() -> new IllegalStateException(seat.getName() + " has not joined")));
+        }
+        for (int i = 0; i < seats.size(); i++) {
+            for (char letter : seats.get(i).getAssignedLetters()) {
+                seated.get(i).assignLetter(letter);
+                seated.get(i).incrementLettersAssigned();
+            }
+            seats.set(i, seated.get(i));
+        }
+    }
+
+    /**
+     * REQUIRES: player is a member of room.
+     * MODIFIES: room, later its JSON save file.
+     * EFFECTS: Submits text as the answer of player, autosaves the game and tells the room what happened. Throws
+     *          IllegalStateException if the game has not started, is over, or it is not player's turn.
+     */
+    void answer(Room room, Player player, String text) {
+        long id = requireSession(room);
+        TurnResult result = sessions.withSession(id, session -> {
+            if (!session.isFinished() && session.getActivePlayer() != player) {
+                throw new IllegalStateException("It is not your turn");
+            }
+            TurnResult played = sessions.getEngine().submitAnswer(session, text);
+            saves.save(savePath(room, false), snapshot(session, false));
+            return played;
+        });
+        room.broadcast(describe(result));
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Returns the spectator feed of the room with the given name. Throws IllegalStateException if there is
+     *          no such room or its game has not started.
+     */
+    SpectatorBroadcast.Feed watch(String roomName) {
+        Room room = rooms.get(roomName);
+        if (room == null) {
+            throw new IllegalStateException("There is no room " + roomName);
+        }
+        return sessions.withSession(requireSession(room), spectators::open);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns a STATUS line with the current letter and player and the letters of every player.
+     */
+    String status(Room room) {
+        if (room.getSessionId() < 0) {
+            return "STATUS waiting players=" + room.players().size();
+        }
+        return sessions.withSession(requireSession(room), session -> "STATUS " + describeState(session));
+    }
+
+    private static String describeState(GameSession session) {
+        StringBuilder sb = new StringBuilder(describeTurn(session));
+        for (Player p : session.getPlayers()) {
+            sb.append(' ').append(p.getName()).append('=').append(p.getLettersAssigned());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the GameRecord of the game of room as "RECORD json". Throws IllegalStateException if the game
+     *          has not started or is not recorded.
+     */
+    String record(Room room) {
+        return "RECORD " + recordOf(room).toJson();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Returns the state the game of room was in after its first inputs inputs, in the form of a status, as
+     *          "REPLAY inputs state". The game itself is not touched. Its record is re-executed by one Replay kept
+     *          for the whole game, which only plays the inputs added since it was last asked, so a seek costs a
+     *          checkpoint restore and a short replay. Throws IllegalStateException if the game has not started or
+     *          is not recorded, and IllegalArgumentException if inputs is more than were played.
+     */
+    String replay(Room room, int inputs) {
+        long id = requireSession(room);
+        Replay replay = replays.get(id);
+        if (replay == null) {
+            TurnEngine engine = sessions.getEngine();
+            replay = new Replay(engine.getPlaces(), engine.getSpelling(), sessions.withSession(id, this::liveRecord),
+                    Replay.DEFAULT_CHECKPOINT_EVERY);
+            Replay raced = replays.putIfAbsent(id, replay);
+            replay = raced == null ? replay : raced;
+        }
+        return "REPLAY " + inputs + " " + describeState(replay.seek(inputs));
+    }
+
+    private GameRecord recordOf(Room room) {
+        return sessions.withSession(requireSession(room), session -> {
+            GameRecord record = liveRecord(session);
+            return record.copy(record.size());
+        });
+    }
+
+    private GameRecord liveRecord(GameSession session) {
+        if (session.getRecord() == null) {
+            throw new IllegalStateException("The game is not recorded");
+        }
+        return session.getRecord();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: later the save file of room.
+     * EFFECTS: Queues a save of the game of room in the compressed binary save format if binary is true and in the
+     *          JSON save format otherwise, and returns the path of the file it will be written to.
+     */
+    String save(Room room, boolean binary) {
+        Path path = savePath(room, binary);
+        saves.save(path, sessions.withSession(requireSession(room), session -> snapshot(session, binary)));
+        return path.toString();
+    }
+
+    private Path savePath(Room room, boolean binary) {
+        return Paths.get(saveDirectory + "/" + room.getName() + (binary ? ".sav" : ".json"));
+    }
+
+    /**
+     * REQUIRES: The lock of session is held.
+     * MODIFIES: None.
+     * EFFECTS: Returns the save of session in the binary or JSON save format, from a GameSnapshot taken now, to be
+     *          encoded and written after the lock is released.
+     */
+    private SaveQueue.Contents snapshot(GameSession session, boolean binary) {
+        GameSnapshot snapshot = GameSnapshot.of(session);
+        if (binary) {
+            return () -> BinaryGameFormat.encode(snapshot, snapshot.getPlaces(), true);
+        }
+        return () -> GameWriter.encode(GameWriter.snapshot(snapshot));
+    }
+
+    private long requireSession(Room room) {
+        long id = room.getSessionId();
+        if (id < 0) {
+            throw new IllegalStateException("The game has not started");
+        }
+        return id;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: the room of the session.
+     * EFFECTS: Tells the room of the given session that its turn ran out of time. The lines are only queued in the
+     *          outboxes of its members, so the turn timer never waits for a socket.
+     */
+    private void announceTimeout(long sessionId, TurnResult result) {
+        Room room = roomsBySession.get(sessionId);
+        if (room != null) {
+            room.broadcast(describe(result));
+        }
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the lines that announce result to a room.
+     */
+    static String describe(TurnResult result) {
+        StringBuilder sb = new StringBuilder("RESULT ").append(result.getPlayer().getName()).append(' ')
+                .append(result.getOutcome());
+        if (result.getPlace() != null) {
+            sb.append(' ').append(result.getPlace());
+        }
+        if (result.getLetterAssigned() != 0) {
+            sb.append(" letter=").append(result.getLetterAssigned());
+        }
+        if (result.getEliminated() != null) {
+            sb.append("\nELIMINATED ").append(result.getEliminated().getName());
+        }
+        if (result.getDeadLetter() != 0) {
+            sb.append("\nDEADEND ").append(result.getDeadLetter());
+        }
+        if (result.getPassedOver() != null) {
+            sb.append("\nPASSED ").append(result.getPassedOver().getName());
+        }
+        if (result.isGameOver()) {
+            return sb.append("\nOVER ").append(result.getWinner() == null ? "-" : result.getWinner().getName())
+                    .toString();
+        }
+        return sb.append("\nTURN ").append(result.getNextLetter()).append(' ').append(result.getNextPlayer().getName())
+                .toString();
+    }
+
+    private static String describeTurn(GameSession session) {
+        if (session.isFinished()) {
+            return "OVER " + (session.getWinner() == null ? "-" : session.getWinner().getName());
+        }
+        return "TURN " + session.getCurrentLetter() + " " + session.getActivePlayer().getName();
+    }
+
+    /**
+     * REQUIRES: The server has been started.
+     * MODIFIES: this.
+     * EFFECTS: Removes idle sessions once per idle timeout, for as long as the server runs.
+     */
+    private void scheduleExpiry() {
+        timer.schedule(idleTimeout, () -> {
+            expireIdle();
+            if (!serverSocket.isClosed()) {
+                scheduleExpiry();
+            }
+        });
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Removes the sessions that have been idle for longer than the idle timeout, with their spectator
+     *          feeds and replays, and frees their rooms for another game.
+     */
+    void expireIdle() {
+        for (long id : sessions.expireIdle()) {
+            Room room = roomsBySession.remove(id);
+            if (room != null) {
+                room.reset(id);
+            }
+            replays.remove(id);
+            spectators.close(id);
+        }
+    }
+
+    /**
+     * REQUIRES: The server has been started.
+     * MODIFIES: None.
+     * EFFECTS: Prints the answer latency once a minute, for as long as the server runs.
+     */
+    private void scheduleReport() {
+        timer.schedule(REPORT_INTERVAL_MILLIS, () -> {
+            System.out.println("Answer latency: " + answerLatency);
+            if (!serverSocket.isClosed()) {
+                scheduleReport();
+            }
+        });
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Stops accepting connections, stops the turn timer, closes every open connection and writes the saves
+     *          still queued.
+     */
+    @Override
+    public void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        timer.stop();
+        for (ClientConnection connection : open) {
+            connection.close();
+        }
+        connections.shutdown();
+        saves.close();
+    }
+}
@@ -0,0 +1,91 @@
+package server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The LatencyHistogram class counts latencies in microseconds so that percentiles can be read while requests are
+ * still being recorded. Latencies below 16 us each have their own bucket; above that every power of two is split into
+ * 16 equal buckets, so a percentile is never off by more than about 6%. Recording is one atomic increment and never
+ * allocates, so every connection can record into the same histogram.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BITS = 4;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Records one latency given in nanoseconds; negative values count as zero.
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, nanos) / 1000));
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the number of latencies recorded.
+     */
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * REQUIRES: 0 < percentile <= 100.
+     * MODIFIES: None.
+     * EFFECTS: Returns the highest latency in microseconds of the bucket that holds the given percentile, or 0 if
+     *          nothing has been recorded.
+     */
+    public long percentile(double percentile) {
+        long total = count();
+        long rank = (long) Math.ceil(percentile / 100 * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && total > 0; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return lowerBound(i + 1) - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * REQUIRES: micros >= 0.
+     * MODIFIES: None.
+     * EFFECTS: Returns the bucket that counts the given latency.
+     */
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int power = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (power - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (power - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * REQUIRES: 0 <= bucket <= the last bucket + 1.
+     * MODIFIES: None.
+     * EFFECTS: Returns the smallest latency counted by the given bucket.
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int power = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (power - SUB_BITS);
+    }
+
+    @Override
+    public String toString() {
+        return "answers=" + count() + " p50=" + percentile(50) + "us p99=" + percentile(99) + "us";
+    }
+}
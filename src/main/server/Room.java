@@ -0,0 +1,122 @@
+package server;
+
+import model.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * The Room class groups the connections that play one game together. Players join a room by name, and once the game
+ * is started the room remembers the id of its session in the SessionManager. Everything said to the room is sent to
+ * every member, in the order the room was told. Sending only queues the text in the outbox of each member, so no
+ * socket is ever written while the room is locked.
+ */
+class Room {
+    private final String name;
+    private final List<ClientConnection> members = new ArrayList<>();
+    private final List<Player> players = new ArrayList<>();
+    private long sessionId = -1;
+
+    Room(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Adds connection to the room as a new player called playerName and returns the player. Throws
+     *          IllegalStateException if the game has started or the name is taken.
+     */
+    synchronized Player add(ClientConnection connection, String playerName) {
+        if (sessionId >= 0) {
+            throw new IllegalStateException("The game in " + name + " has already started");
+        }
+        for (Player player : players) {
+            if (player.getName().equals(playerName)) {
+                throw new IllegalStateException("The name " + playerName + " is taken");
+            }
+        }
+        Player player = new Player(playerName);
+        members.add(connection);
+        players.add(player);
+        return player;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Removes connection from the room and returns true if the room is now empty.
+     */
+    synchronized boolean remove(ClientConnection connection) {
+        int index = members.indexOf(connection);
+        if (index >= 0) {
+            members.remove(index);
+            players.remove(index);
+        }
+        return members.isEmpty();
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns the players of the room in the order they joined.
+     */
+    synchronized Player playerOf(ClientConnection connection) {
+        int index = members.indexOf(connection);
+        return index < 0 ? null : players.get(index);
+    }
+
+    synchronized List<Player> players() {
+        return new ArrayList<>(players);
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Starts the game of this room with the session created by create for its players. Throws
+     *          IllegalStateException if the game has already started or fewer than two players have joined.
+     */
+    synchronized void start(ToLongFunction<List<Player>> create) {
+        if (sessionId >= 0) {
+            throw new IllegalStateException("The game in " + name + " has already started");
+        } else if (players.size() < 2) {
+            throw new IllegalStateException("At least two players must join first");
+        }
+        sessionId = create.applyAsLong(new ArrayList<>(players));
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this, the players of this room.
+     * EFFECTS: If the game of this room is the session with the given id, forgets it and takes back the letters of
+     *          its players, so the members can start another game in the room.
+     */
+    synchronized void reset(long sessionId) {
+        if (this.sessionId == sessionId) {
+            this.sessionId = -1;
+            for (Player player : players) {
+                player.reset();
+            }
+        }
+    }
+
+    synchronized long getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: the members of this room.
+     * EFFECTS: Queues text to be sent to every member.
+     */
+    synchronized void broadcast(String text) {
+        for (ClientConnection member : members) {
+            member.send(text);
+        }
+    }
+}
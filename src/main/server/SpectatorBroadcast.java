@@ -0,0 +1,434 @@
+package server;
+
+import model.GameEvent;
+import model.GameSession;
+import model.Player;
+import model.SessionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The SpectatorBroadcast class streams the games of a server to spectators. It follows the events of every turn and
+ * keeps, for each session being watched, a Feed: one canonical state with a version that goes up by one per turn, and
+ * the compact binary deltas of the last HISTORY versions. Each delta and each snapshot is encoded once, into a line
+ * shared by every watcher, so the work of a turn does not grow with the audience.
+ *
+ * Watchers are sent "SNAPSHOT version data" or "DELTA version data" lines, where data is Base64. A watcher is only
+ * sent more once it has acknowledged everything it was sent, which keeps at most one batch in flight per watcher.
+ * A watcher that falls more than HISTORY versions behind is sent a snapshot instead of the deltas it missed.
+ *
+ * No socket is written while a feed is locked. Each watcher has a bounded outbox of lines that a writer task drains
+ * on its own thread, so a slow spectator only delays itself; a watcher whose outbox overflows has it replaced by the
+ * current snapshot. Events are taken with a conflating buffer, so a feed can miss some under load. It tells from a gap
+ * in the event numbers of its session, and then starts a new version from the session itself, which watchers are sent
+ * as a snapshot.
+ *
+ * A snapshot holds whether the game is over, the current letter, the active player and the winner (empty if none),
+ * and the players left with the letters of "LOSER" they have earned. A delta holds the events of one turn: for each,
+ * its GameEvent.Type ordinal, the player (empty if none), and then the place of an accepted answer or the letter of
+ * a letter assigned or of the next turn.
+ */
+class SpectatorBroadcast implements Flow.Subscriber<GameEvent> {
+    static final int HISTORY = 64;
+    static final int BUFFER = 8192;
+    static final int OUTBOX = 16;
+
+    private final Map<Long, Feed> feeds = new ConcurrentHashMap<>();
+    private final SessionManager sessions;
+    private final Executor writers;
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Creates a broadcast of the sessions of sessions whose watchers are written to by tasks on writers.
+     */
+    SpectatorBroadcast(SessionManager sessions, Executor writers) {
+        this.sessions = sessions;
+        this.writers = writers;
+    }
+
+    /**
+     * REQUIRES: The lock of session is held.
+     * MODIFIES: this.
+     * EFFECTS: Returns the feed of session, starting it from the state of session if it has no feed yet.
+     */
+    Feed open(GameSession session) {
+        return feeds.computeIfAbsent(session.getId(), id -> new Feed(session, writers));
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: this.
+     * EFFECTS: Forgets the feed of the session with the given id. Its watchers are sent nothing more.
+     */
+    void close(long sessionId) {
+        feeds.remove(sessionId);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(GameEvent event) {
+        Feed feed = feeds.get(event.getSession());
+        if (feed != null && !feed.apply(event)) {
+            resync(feed, event.getSession());
+        }
+    }
+
+    /**
+     * REQUIRES: The lock of feed is not held.
+     * MODIFIES: this, feed.
+     * EFFECTS: Starts feed over from the state its session is in now, or forgets it if the session has gone.
+     */
+    private void resync(Feed feed, long sessionId) {
+        try {
+            sessions.withSession(sessionId, session -> {
+                feed.resync(session);
+                return null;
+            });
+        } catch (IllegalArgumentException e) {
+            feeds.remove(sessionId, feed);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        // The feeds stop changing; their watchers keep what they have.
+    }
+
+    @Override
+    public void onComplete() {
+        // As for onError.
+    }
+
+    /**
+     * Writes an encoding to a stream.
+     */
+    private interface Encoding {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * REQUIRES: None.
+     * MODIFIES: None.
+     * EFFECTS: Returns what encoding writes, in Base64.
+     */
+    private static String encode(Encoding encoding) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            encoding.write(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode the game");
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * What has been sent to one watcher, how much of it the watcher has acknowledged, and the outbox of lines still to
+     * be written to it. The outbox has its own lock, which is taken inside the lock of the feed or alone, and a writer
+     * task drains it on the executor, at most one at a time.
+     */
+    private static final class Watcher implements Runnable {
+        private final ClientConnection connection;
+        private final Executor writer;
+        private final ArrayDeque<String> outbox = new ArrayDeque<>();
+        private boolean writing;
+        private long acked = -1;
+        private long sent;
+
+        Watcher(ClientConnection connection, Executor writer) {
+            this.connection = connection;
+            this.writer = writer;
+        }
+
+        /**
+         * REQUIRES: None.
+         * MODIFIES: this.
+         * EFFECTS: Queues line to be written and returns true, or returns false if the outbox is full.
+         */
+        synchronized boolean offer(String line) {
+            if (outbox.size() >= OUTBOX) {
+                return false;
+            }
+            outbox.add(line);
+            schedule();
+            return true;
+        }
+
+        /**
+         * REQUIRES: None.
+         * MODIFIES: this.
+         * EFFECTS: Discards the lines not yet written and queues line instead.
+         */
+        synchronized void replace(String line) {
+            outbox.clear();
+            outbox.add(line);
+            schedule();
+        }
+
+        synchronized void close() {
+            outbox.clear();
+        }
+
+        private void schedule() {
+            if (!writing) {
+                try {
+                    writer.execute(this);
+                    writing = true;
+                } catch (RejectedExecutionException e) {
+                    outbox.clear();
+                }
+            }
+        }
+
+        /**
+         * REQUIRES: Runs on the executor, never twice at once.
+         * MODIFIES: this, connection.
+         * EFFECTS: Writes the queued lines to the connection until the outbox is empty.
+         */
+        @Override
+        public void run() {
+            for (String line = next(); line != null; line = next()) {
+                connection.send(line);
+            }
+        }
+
+        private synchronized String next() {
+            String line = outbox.poll();
+            writing = line != null;
+            return line;
+        }
+    }
+
+    /**
+     * The canonical state of one watched session and its watchers. Turns are applied on the thread that delivers
+     * events, and acknowledgements on the threads of the watchers, so every method is synchronized. Deltas only
+     * reach back to baseVersion, the version the feed last started over at.
+     */
+    static final class Feed {
+        private final Executor writers;
+        private final Map<String, String> letters = new LinkedHashMap<>();
+        private final List<GameEvent> pending = new ArrayList<>();
+        private final String[] history = new String[HISTORY];
+        private final Map<ClientConnection, Watcher> watchers = new HashMap<>();
+        private long lastEvent;
+        private long baseVersion;
+        private long version;
+        private boolean over;
+        private char letter;
+        private String active;
+        private String winner;
+        private String snapshot;
+
+        /**
+         * REQUIRES: The lock of session is held.
+         * MODIFIES: this.
+         * EFFECTS: Creates a feed at version 0 with the state session is in now, whose watchers are written to by
+         *          tasks on writers. The events published before now are ignored when they arrive.
+         */
+        private Feed(GameSession session, Executor writers) {
+            this.writers = writers;
+            copy(session);
+        }
+
+        /**
+         * REQUIRES: The lock of session is held.
+         * MODIFIES: this.
+         * EFFECTS: Makes the state of this feed that of session now, with no turn in progress.
+         */
+        private void copy(GameSession session) {
+            lastEvent = session.getEventSequence();
+            pending.clear();
+            letters.clear();
+            for (Player player : session.getPlayers()) {
+                StringBuilder sb = new StringBuilder();
+                player.getAssignedLetters().forEach(sb::append);
+                letters.put(player.getName(), sb.toString());
+            }
+            over = session.isFinished();
+            letter = session.getCurrentLetter();
+            active = over ? null : session.getActivePlayer().getName();
+            winner = session.getWinner() == null ? null : session.getWinner().getName();
+        }
+
+        /**
+         * REQUIRES: The lock of session is held; this is the feed of session.
+         * MODIFIES: this, the watchers.
+         * EFFECTS: Starts a new version from the state session is in now, which deltas do not reach back past, and
+         *          queues its snapshot for every watcher that has acknowledged all it was sent.
+         */
+        synchronized void resync(GameSession session) {
+            copy(session);
+            version++;
+            baseVersion = version;
+            Arrays.fill(history, null);
+            snapshot = null;
+            for (Watcher watcher : watchers.values()) {
+                if (watcher.acked == watcher.sent) {
+                    watcher.sent = version;
+                    post(watcher, snapshotLine());
+                }
+            }
+        }
+
+        /**
+         * REQUIRES: None.
+         * MODIFIES: this, connection.
+         * EFFECTS: Makes connection a watcher of this feed and queues the snapshot of the current version for it.
+         */
+        synchronized void watch(ClientConnection connection) {
+            Watcher watcher = new Watcher(connection, writers);
+            watcher.sent = version;
+            watchers.put(connection, watcher);
+            post(watcher, snapshotLine());
+        }
+
+        synchronized void unwatch(ClientConnection connection) {
+            Watcher watcher = watchers.remove(connection);
+            if (watcher != null) {
+                watcher.close();
+            }
+        }
+
+        /**
+         * REQUIRES: The lock of this is held; watcher has been sent everything up to the current version.
+         * MODIFIES: watcher.
+         * EFFECTS: Queues line for watcher, or the current snapshot in place of everything queued if its outbox is
+         *          full.
+         */
+        private void post(Watcher watcher, String line) {
+            if (!watcher.offer(line)) {
+                watcher.replace(snapshotLine());
+            }
+        }
+
+        /**
+         * REQUIRES: connection watches this feed.
+         * MODIFIES: this, connection.
+         * EFFECTS: Records that connection has everything up to version acked. Once it has acknowledged all it was
+         *          sent, queues the deltas of the versions since for it, or the current snapshot if it is more than
+         *          HISTORY versions behind or the feed has started over since.
+         */
+        synchronized void ack(ClientConnection connection, long acked) {
+            Watcher watcher = watchers.get(connection);
+            if (watcher == null) {
+                throw new IllegalStateException("Watch a room first");
+            }
+            watcher.acked = Math.max(watcher.acked, Math.min(acked, watcher.sent));
+            if (watcher.acked < watcher.sent || watcher.sent == version) {
+                return;
+            }
+            watcher.sent = version;
+            post(watcher, version - watcher.acked > HISTORY || watcher.acked < baseVersion ? snapshotLine()
+                    : deltasSince(watcher.acked));
+        }
+
+        /**
+         * REQUIRES: None.
+         * MODIFIES: this, the watchers.
+         * EFFECTS: Applies event to the state, unless the state already includes it, and returns true; or returns
+         *          false if events of the session before it were missed, in which case the feed must be resynced. The
+         *          winner or the next turn ends the turn: its events become the delta of a new version, which is
+         *          queued for every watcher that has acknowledged the version before.
+         */
+        synchronized boolean apply(GameEvent event) {
+            if (event.getSequence() != 0 && event.getSequence() != lastEvent + 1) {
+                return event.getSequence() <= lastEvent;
+            }
+            lastEvent = Math.max(lastEvent, event.getSequence());
+            pending.add(event);
+            if (event.getType() == GameEvent.Type.LETTER_ASSIGNED) {
+                letters.computeIfPresent(event.getPlayer(), (name, earned) -> earned + event.getLetter());
+            } else if (event.getType() == GameEvent.Type.PLAYER_ELIMINATED) {
+                letters.remove(event.getPlayer());
+            } else if (event.getType() == GameEvent.Type.WINNER) {
+                over = true;
+                active = null;
+                winner = event.getPlayer();
+                commit();
+            } else if (event.getType() == GameEvent.Type.NEXT_TURN) {
+                letter = event.getLetter();
+                active = event.getPlayer();
+                commit();
+            }
+            return true;
+        }
+
+        /**
+         * REQUIRES: The lock of this is held.
+         * MODIFIES: this, the watchers.
+         * EFFECTS: Encodes the pending events as the delta of the next version and queues it for every idle watcher.
+         */
+        private void commit() {
+            version++;
+            String line = "DELTA " + version + " " + encode(this::writeDelta);
+            pending.clear();
+            history[(int) (version % HISTORY)] = line;
+            snapshot = null;
+            for (Watcher watcher : watchers.values()) {
+                if (watcher.acked == version - 1 && watcher.sent == version - 1) {
+                    watcher.sent = version;
+                    post(watcher, line);
+                }
+            }
+        }
+
+        private String deltasSince(long acked) {
+            StringBuilder sb = new StringBuilder(history[(int) ((acked + 1) % HISTORY)]);
+            for (long v = acked + 2; v <= version; v++) {
+                sb.append('\n').append(history[(int) (v % HISTORY)]);
+            }
+            return sb.toString();
+        }
+
+        private String snapshotLine() {
+            if (snapshot == null) {
+                snapshot = "SNAPSHOT " + version + " " + encode(this::writeSnapshot);
+            }
+            return snapshot;
+        }
+
+        private void writeDelta(DataOutputStream out) throws IOException {
+            out.writeByte(pending.size());
+            for (GameEvent event : pending) {
+                out.writeByte(event.getType().ordinal());
+                out.writeUTF(event.getPlayer() == null ? "" : event.getPlayer());
+                if (event.getType() == GameEvent.Type.ANSWER_ACCEPTED) {
+                    out.writeUTF(event.getPlace());
+                } else if (event.getType() == GameEvent.Type.LETTER_ASSIGNED
+                        || event.getType() == GameEvent.Type.NEXT_TURN) {
+                    out.writeByte(event.getLetter());
+                }
+            }
+        }
+
+        private void writeSnapshot(DataOutputStream out) throws IOException {
+            out.writeBoolean(over);
+            out.writeByte(letter);
+            out.writeUTF(active == null ? "" : active);
+            out.writeUTF(winner == null ? "" : winner);
+            out.writeShort(letters.size());
+            for (Map.Entry<String, String> entry : letters.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+        }
+    }
+}
@@ -1,13 +1,26 @@
 package ui;
 
+import model.EventLog;
+import model.EventType;
 import model.Game;
+import model.GameSession;
 import model.Player;
+import model.TurnResult;
+import model.TurnTimer;
+import persistence.SaveStore;
 
+import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.plaf.ColorUIResource;
+import javax.swing.table.TableModel;
 import java.awt.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 import static java.awt.Cursor.HAND_CURSOR;
@@ -23,57 +36,107 @@ public class Gui {
     JFrame mainFrame;
     JLayeredPane layeredPane;
     JTable table;
+    JLabel letterLabel;
+    JLabel playerLabel;
+    JLabel resultLabel;
     Game game = new Game();
+    TurnTimer timer = new TurnTimer(100, 512);
+    TurnTimer.Timeout turnTimeout;
+    JFrame splash;
+    JFrame playersFrame;
+    PlayerTableModel players = new PlayerTableModel();
+
+    private static final String SPLASH_IMAGE = "src/assets/splash-image.png";
+    private static final int COMPUTER_PAUSE_MILLIS = 800;
 
     /**
      * Constructor for the Gui class.
-     * Initializes the UIManager, sets up the main frame, and shows the main menu.
+     * Shows the splash screen while the places, the save index and the images load at the same time, then sets up
+     * the main frame and shows the main menu as soon as they have all loaded.
      * Requires: None
-     * Modifies: UIManager, mainFrame, layeredPane
-     * Effects: Initializes the GUI and shows the main menu.
+     * Modifies: UIManager, mainFrame, layeredPane, game
+     * Effects: Starts loading, shows the splash screen and, once loading is done, the main menu, and prints how long
+     *          each stage of startup took. If a stage fails, shows what went wrong and exits instead.
      */
     public Gui() {
         UIManager.put("Button.disabledText", new ColorUIResource(Color.white));
-        showSplashScreen();
-        init();
-        showMainMenu();
+        game.addPlayerListener(players);
+        Startup startup = new Startup(3);
+        CompletableFuture<Image> image = startup.stage("assets", Gui::readSplashImage);
+        startup.stage("gazetteer", () -> {
+            game.createData();
+            return null;
+        });
+        startup.stage("saves", game::listSaves);
+        SwingUtilities.invokeLater(() -> showSplashScreen(image));
+        startup.whenDone().whenComplete((done, failure) -> SwingUtilities.invokeLater(() -> {
+            splash.dispose();
+            if (failure != null) {
+                exitAfterFailure(failure);
+                return;
+            }
+            init(image.getNow(null));
+            showMainMenu();
+            System.out.println(startup.report());
+        }));
     }
 
     /**
-     * Displays a splash screen with a delay.
-     * Requires: None
+     * Tells the user that startup failed and why, since the game cannot be played without its places or saves.
+     * Requires: failure is the failure of a stage of startup
      * Modifies: None
-     * Effects: Shows a splash screen for 3 seconds.
+     * Effects: Shows an error dialog with the cause of failure and exits once it is closed.
      */
-    private void showSplashScreen() {
-        JFrame frame = new JFrame();
-        frame.setSize(180,180);
-        frame.setLocationRelativeTo(null);
-        frame.setUndecorated(true);
-        ImageIcon splashIcon = new ImageIcon("src/assets/splash-image.png");
-        ImageIcon newImage = new ImageIcon(splashIcon.getImage()
-                .getScaledInstance(220,180,Image.SCALE_SMOOTH));
-        JLabel splashLabel = new JLabel(newImage);
-        frame.add(splashLabel);
-        frame.setVisible(true);
+    private static void exitAfterFailure(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        JOptionPane.showMessageDialog(null, cause.getMessage(), "COMPAS could not start", JOptionPane.ERROR_MESSAGE);
+        System.exit(1);
+    }
 
+    /**
+     * Decodes the splash image, which is also the icon of the main frame.
+     * Requires: None
+     * Modifies: None
+     * Effects: Returns the splash image, or null if it cannot be read.
+     */
+    private static Image readSplashImage() {
         try {
-            Thread.sleep(3000); // Replace with your desired delay time
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            return ImageIO.read(new File(SPLASH_IMAGE));
+        } catch (IOException e) {
+            return null;
         }
+    }
 
-        frame.setVisible(false);
-        frame.dispose();
+    /**
+     * Displays a splash screen until startup is done, with the splash image once it has been decoded.
+     * Requires: None
+     * Modifies: splash
+     * Effects: Shows the splash screen.
+     */
+    private void showSplashScreen(CompletableFuture<Image> image) {
+        splash = new JFrame();
+        splash.setSize(180,180);
+        splash.setLocationRelativeTo(null);
+        splash.setUndecorated(true);
+        splash.getContentPane().setBackground(new Color(0x253439));
+        JLabel splashLabel = new JLabel();
+        splash.add(splashLabel);
+        splash.setVisible(true);
+        image.thenAccept(decoded -> SwingUtilities.invokeLater(() -> {
+            if (decoded != null) {
+                splashLabel.setIcon(new ImageIcon(decoded.getScaledInstance(220,180,Image.SCALE_SMOOTH)));
+            }
+        }));
     }
 
     /**
      * Initializes the main frame of the application.
      * Requires: None
      * Modifies: mainFrame, layeredPane
-     * Effects: Sets up the main frame with specified properties.
+     * Effects: Sets up the main frame with specified properties, with icon as its icon unless it is null.
      */
-    private void init() {
+    private void init(Image icon) {
         mainFrame = new JFrame();
         mainFrame.setTitle("COMPAS - Computerized Atlas");
         mainFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -84,8 +147,9 @@ public class Gui {
         layeredPane.setBounds(0,0,540,600);
         mainFrame.add(layeredPane);
 
-        ImageIcon icon = new ImageIcon("src/assets/splash-image.png");
-        mainFrame.setIconImage(icon.getImage());
+        if (icon != null) {
+            mainFrame.setIconImage(icon);
+        }
         mainFrame.getContentPane().setBackground(new Color(0x253439));
         mainFrame.setVisible(true);
         quitGame();
@@ -152,8 +216,8 @@ public class Gui {
             showSelectPlayers();
         });
 
-        b1.addActionListener(e -> {
-            // load
+        b2.addActionListener(e -> {
+            showLoadGame();
         });
 
         b3.addActionListener(e -> {
@@ -182,7 +246,7 @@ public class Gui {
      * Prompts the user to enter the number of players and initializes player information.
      * Requires: None
      * Modifies: game, layeredPane
-     * Effects: Prompts for player information and starts the game.
+     * Effects: Prompts for player information, adds a computer opponent for a single player, and starts the game.
      */
     private void showSelectPlayers() {
         String input = JOptionPane.showInputDialog("Enter a number:");
@@ -194,6 +258,9 @@ public class Gui {
             for (int i = 0; i < number; i++) {
                 askPlayerInfo(i + 1);
             }
+            if (number == 1) {
+                game.addComputerPlayer();
+            }
             startGame();
         } catch (NumberFormatException e) {
             // Handle the case where the input is not a valid integer
@@ -214,19 +281,58 @@ public class Gui {
         game.addToLop(p);
     }
 
+    /**
+     * Lets the user pick one of the saved games, most recent first, and continues it.
+     * Requires: None
+     * Modifies: game, layeredPane
+     * Effects: Loads the chosen game and shows the game interface, or says there is nothing to load.
+     */
+    private void showLoadGame() {
+        List<SaveStore.Entry> saves = game.listSaves();
+        if (saves.isEmpty()) {
+            JOptionPane.showMessageDialog(mainFrame, "No saved games!");
+            return;
+        }
+        String[] labels = new String[saves.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = Game.describeSave(saves.get(i));
+        }
+        Object choice = JOptionPane.showInputDialog(mainFrame, "Choose a saved game:", "Load Game",
+                JOptionPane.PLAIN_MESSAGE, null, labels, labels[0]);
+        int index = Arrays.asList(labels).indexOf(choice);
+        if (index >= 0 && game.handleLoad(saves.get(index).getSlot())) {
+            layeredPane.removeAll();
+            showGame();
+        }
+    }
+
     /**
      * Sets up the game interface after player information is entered.
      * Requires: None
-     * Modifies: layeredPane
-     * Effects: Initializes the game interface.
+     * Modifies: game, layeredPane
+     * Effects: Starts a game in the engine, over the places loaded at startup, and initializes the game interface.
      */
     private void startGame() {
+        game.startGame();
+        showGame();
+    }
+
+    /**
+     * Shows the game interface for the game that has been started or loaded.
+     * Requires: game has a session
+     * Modifies: layeredPane
+     * Effects: Starts the turn timer and shows the current turn with the answer panel.
+     */
+    private void showGame() {
+        timer.start();
         mainFrame.setSize(new Dimension(700,700));
         JPanel mainPanel = new JPanel();
         mainPanel.setLayout(new BoxLayout(mainPanel, BoxLayout.PAGE_AXIS));
         mainPanel.setBackground(new Color(0x253439));
         mainPanel.setBounds(0,0,680,700);
         mainPanel.add(createNavBar(mainPanel));
+        mainPanel.add(createAnswerPanel());
+        refreshTurn();
 
         layeredPane.add(mainPanel, Integer.valueOf(0));
         layeredPane.repaint();
@@ -246,8 +352,8 @@ public class Gui {
         navBar.setLayout(new BoxLayout(navBar, BoxLayout.X_AXIS));
         navBar.setOpaque(false);
 
-        JLabel activeGrid = createLabelForNav("Current Letter: " + "V");
-        JLabel activePlayer = createLabelForNav("Current player: " + "Chintu");
+        letterLabel = createLabelForNav("");
+        playerLabel = createLabelForNav("");
 
         JButton exitButton = createNavBarButtons("Exit");
         JButton showPlayers = createNavBarButtons("Display Players");
@@ -259,9 +365,9 @@ public class Gui {
 
         showPlayers.addActionListener(e -> displayPlayers());
 
-        navBar.add(activeGrid);
+        navBar.add(letterLabel);
         navBar.add(Box.createHorizontalStrut(50));
-        navBar.add(activePlayer);
+        navBar.add(playerLabel);
         navBar.add(Box.createHorizontalStrut(50));
         navBar.add(exitButton);
         navBar.add(Box.createHorizontalStrut(50));
@@ -270,6 +376,108 @@ public class Gui {
         return navBar;
     }
 
+    /**
+     * Creates the panel where the active player types an answer.
+     * Requires: startGame has started a session in the game
+     * Modifies: resultLabel
+     * Effects: Returns a panel with an answer field, a submit button and a label for the outcome of the last turn.
+     */
+    private JPanel createAnswerPanel() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        panel.setOpaque(false);
+        JTextField answerField = new JTextField(20);
+        JButton submit = createNavBarButtons("Submit");
+        resultLabel = createLabelForNav(" ");
+        Runnable submitAnswer = () -> {
+            if (!game.getSession().isFinished() && !answerField.getText().isBlank()) {
+                showResult(game.submitAnswer(answerField.getText()));
+                answerField.setText("");
+            }
+        };
+        answerField.addActionListener(e -> submitAnswer.run());
+        submit.addActionListener(e -> submitAnswer.run());
+        panel.add(answerField);
+        panel.add(submit);
+        panel.add(resultLabel);
+        return panel;
+    }
+
+    /**
+     * Shows the outcome of a turn.
+     * Requires: result
+     * Modifies: resultLabel, letterLabel, playerLabel
+     * Effects: Describes the outcome of the turn and shows who plays next.
+     */
+    private void showResult(TurnResult result) {
+        String text = result.getPlayer().getName() + ": " + result.getOutcome();
+        if (result.getOutcome() == TurnResult.Outcome.NEAR_MISS) {
+            text += " (did you mean " + result.getPlace() + "?)";
+        }
+        if (result.getLetterAssigned() != 0) {
+            text += " - earned '" + result.getLetterAssigned() + "'";
+        }
+        if (result.isGameOver()) {
+            text += result.getWinner() == null ? " - game over" : " - " + result.getWinner().getName() + " wins!";
+        }
+        resultLabel.setText(text);
+        refreshTurn();
+    }
+
+    /**
+     * Ends the current turn if its time has run out.
+     * Requires: startGame has started a session in the game
+     * Modifies: game, resultLabel, letterLabel, playerLabel
+     * Effects: Shows the timeout and the next turn if the active player ran out of time.
+     */
+    private void checkTimeout() {
+        TurnResult result = game.checkTimeout();
+        if (result != null) {
+            showResult(result);
+        }
+    }
+
+    /**
+     * Shows whose turn it is.
+     * Requires: startGame has started a session in the game
+     * Modifies: letterLabel, playerLabel, turnTimeout
+     * Effects: Updates the navigation bar with the current letter and player, or marks the game as over, and arms the
+     *          timer for the deadline of the current turn.
+     */
+    private void refreshTurn() {
+        GameSession session = game.getSession();
+        if (turnTimeout != null) {
+            turnTimeout.cancel();
+        }
+        if (session.isFinished()) {
+            letterLabel.setText("Game over");
+            playerLabel.setText("");
+        } else {
+            letterLabel.setText("Current Letter: " + session.getCurrentLetter());
+            playerLabel.setText("Current player: " + session.getActivePlayer().getName());
+            long delay = game.getTurnDeadline() - timer.now();
+            turnTimeout = timer.schedule(delay, () -> SwingUtilities.invokeLater(this::checkTimeout));
+            if (game.isComputerTurn()) {
+                scheduleComputerTurn();
+            }
+        }
+    }
+
+    /**
+     * Plays the turn of the computer player after a short pause, so that its answer can be followed.
+     * Requires: It is a computer player's turn
+     * Modifies: game, resultLabel, letterLabel, playerLabel
+     * Effects: Shows the computer player's turn and the next turn.
+     */
+    private void scheduleComputerTurn() {
+        Timer pause = new Timer(COMPUTER_PAUSE_MILLIS, e -> {
+            if (game.isComputerTurn()) {
+                showResult(game.playComputerTurn());
+            }
+        });
+        pause.setRepeats(false);
+        pause.start();
+    }
+
     /**
      * Creates navigation bar buttons with specified properties.
      * Requires: None
@@ -301,47 +509,36 @@ public class Gui {
     /**
      * Displays a window showing player progress.
      * Requires: None
-     * Modifies: None
-     * Effects: Displays a window with a table of player progress.
+     * Modifies: playersFrame
+     * Effects: Shows the player progress window, creating it the first time. Its table follows the players as they
+     *          change, so the window is never rebuilt.
      */
     private void displayPlayers() {
-        JFrame frame = new JFrame();
-        frame.setTitle("Player Progress");
-        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        frame.setResizable(false);
-        frame.setSize(new Dimension(540, 200));
-        frame.setLocationRelativeTo(null);
-        JPanel mainPanel = new JPanel();
-        mainPanel.setLayout(new BoxLayout(mainPanel, BoxLayout.Y_AXIS));
-
-        String[] columnNames = {"Name", "Assigned Letters"};
-        List<Player> lopCopy = game.getLop();
-
-        Object[][] playerData = new Object[lopCopy.size()][2];
-        for (int i = 0; i < lopCopy.size(); i++) {
-            Player player = lopCopy.get(i);
-            playerData[i][0] = player.getName();
-            if (player.getAssignedLetters().size() < 1) {
-                playerData[i][1] = "Not Started Yet";
-            } else {
-                playerData[i][1] = player.getAssignedLetters();
-            }
+        EventLog.getInstance().log(EventType.PLAYERS_DISPLAYED);
+        if (playersFrame == null) {
+            playersFrame = new JFrame();
+            playersFrame.setTitle("Player Progress");
+            playersFrame.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+            playersFrame.setResizable(false);
+            playersFrame.setSize(new Dimension(540, 200));
+            playersFrame.setLocationRelativeTo(null);
+            JPanel mainPanel = new JPanel();
+            mainPanel.setLayout(new BoxLayout(mainPanel, BoxLayout.Y_AXIS));
+            addStuffToPanel(mainPanel);
+            playersFrame.setContentPane(mainPanel);
         }
-
-        addStuffToPanel(mainPanel, playerData, columnNames, frame);
-
-        frame.setContentPane(mainPanel);
-        frame.setVisible(true);
+        playersFrame.setVisible(true);
+        playersFrame.toFront();
     }
 
     /**
      * Adds components to the player progress panel.
-     * Requires: mainPanel, playerData, columnNames, frame
-     * Modifies: None
-     * Effects: Adds components to the player progress panel.
+     * Requires: mainPanel
+     * Modifies: table
+     * Effects: Adds the player table and the buttons that add and rename players to the panel.
      */
-    private void addStuffToPanel(JPanel mainPanel, Object[][] playerData, String[] columnNames, JFrame frame) {
-        table = createTable(playerData, columnNames);
+    private void addStuffToPanel(JPanel mainPanel) {
+        table = createTable(players);
         mainPanel.add(new JScrollPane(table));
         JPanel panel = new JPanel();
         panel.setBounds(0,0,500,50);
@@ -351,16 +548,12 @@ public class Gui {
         JButton b2 = new JButton("Modify Selected Player");
 
         b1.addActionListener(e -> {
-            askPlayerInfo(1);
-            frame.dispose();
-            displayPlayers();
+            askPlayerInfo(players.getRowCount() + 1);
         });
 
         b2.addActionListener(e -> {
             if (!table.getSelectionModel().isSelectionEmpty()) {
                 modifyPlayerInfo();
-                frame.dispose();
-                displayPlayers();
             }
         });
 
@@ -379,17 +572,19 @@ public class Gui {
         String playerName = (String)table.getValueAt(table.getSelectedRow(), 0);
         String newName = JOptionPane.showInputDialog(null,
                 "Enter new name", "Update Player Name", JOptionPane.PLAIN_MESSAGE);
-        game.modifyPlayerFromLop(playerName, newName);
+        if (newName != null) {
+            game.modifyPlayerFromLop(playerName, newName);
+        }
     }
 
     /**
      * Creates a table for displaying player information.
-     * Requires: playerData, columnNames
+     * Requires: model
      * Modifies: None
-     * Effects: Returns a table with specified data and column names.
+     * Effects: Returns a table that shows the rows of model.
      */
-    private JTable createTable(Object[][] playerData, String[] columnNames) {
-        JTable table = new JTable(playerData, columnNames);
+    private JTable createTable(TableModel model) {
+        JTable table = new JTable(model);
         table.setPreferredScrollableViewportSize(new Dimension(500, 70));
         table.setFillsViewportHeight(true);
         table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
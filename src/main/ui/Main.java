@@ -1,9 +1,14 @@
 package ui;
 
+import model.EventLog;
 import model.Game;
+import persistence.EventSegmentWriter;
+
+import java.io.IOException;
 
 public class Main extends Game {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        EventSegmentWriter.attach(EventLog.getInstance(), EventSegmentWriter.DEFAULT_DIRECTORY);
         new Gui();
     }
 }
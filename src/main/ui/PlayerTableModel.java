@@ -0,0 +1,165 @@
+package ui;
+
+import model.Player;
+import model.PlayerListener;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The PlayerTableModel class backs the player progress table with a model that lives as long as the Gui and follows
+ * the players of its Game as they change, firing an event for each row inserted, updated or deleted instead of having
+ * the table rebuilt. Game may report changes from any thread: each change is copied into a row right away and applied
+ * on the EDT, which is the only thread that touches the rows. Updates are coalesced into one event per frame, covering
+ * every row that changed, so a burst of changes costs one repaint.
+ */
+class PlayerTableModel extends AbstractTableModel implements PlayerListener {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMNS = {"Name", "Assigned Letters"};
+    private static final int FRAME_MILLIS = 16;
+
+    private final List<Row> rows = new ArrayList<>();
+    private final Timer repaint = new Timer(FRAME_MILLIS, e -> flush());
+    private int firstDirty = -1;
+    private int lastDirty = -1;
+
+    /**
+     * What one row shows of a player at the time of the change that produced it.
+     */
+    private static final class Row {
+        private final Player player;
+        private final String name;
+        private final String letters;
+
+        Row(Player player) {
+            this.player = player;
+            this.name = player.getName();
+            this.letters = player.getAssignedLetters().isEmpty() ? "Not Started Yet"
+                    : player.getAssignedLetters().toString();
+        }
+    }
+
+    /**
+     * Requires: None
+     * Modifies: this
+     * Effects: Creates an empty model.
+     */
+    PlayerTableModel() {
+        repaint.setRepeats(false);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return column == 0 ? rows.get(row).name : rows.get(row).letters;
+    }
+
+    @Override
+    public void playerAdded(Player player) {
+        Row row = new Row(player);
+        onEdt(() -> {
+            flush();
+            rows.add(row);
+            fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+        });
+    }
+
+    @Override
+    public void playerChanged(Player player) {
+        Row row = new Row(player);
+        onEdt(() -> {
+            int index = indexOf(player);
+            if (index >= 0) {
+                rows.set(index, row);
+                markDirty(index);
+            }
+        });
+    }
+
+    @Override
+    public void playerRemoved(Player player) {
+        onEdt(() -> {
+            flush();
+            int index = indexOf(player);
+            if (index >= 0) {
+                rows.remove(index);
+                fireTableRowsDeleted(index, index);
+            }
+        });
+    }
+
+    @Override
+    public void playersCleared() {
+        onEdt(() -> {
+            repaint.stop();
+            firstDirty = -1;
+            lastDirty = -1;
+            rows.clear();
+            fireTableDataChanged();
+        });
+    }
+
+    private int indexOf(Player player) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).player == player) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Requires: Called on the EDT
+     * Modifies: this
+     * Effects: Adds row to the rows to be repainted at the end of the current frame.
+     */
+    private void markDirty(int row) {
+        firstDirty = firstDirty < 0 ? row : Math.min(firstDirty, row);
+        lastDirty = Math.max(lastDirty, row);
+        if (!repaint.isRunning()) {
+            repaint.start();
+        }
+    }
+
+    /**
+     * Requires: Called on the EDT
+     * Modifies: this
+     * Effects: Fires one update for every row changed since the last flush. Row inserts and deletes flush first, so
+     *          the pending rows still have the indexes they were marked with.
+     */
+    private void flush() {
+        repaint.stop();
+        if (firstDirty >= 0) {
+            int first = firstDirty;
+            int last = Math.min(lastDirty, rows.size() - 1);
+            firstDirty = -1;
+            lastDirty = -1;
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    private static void onEdt(Runnable change) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            change.run();
+        } else {
+            SwingUtilities.invokeLater(change);
+        }
+    }
+}
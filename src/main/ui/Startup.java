@@ -0,0 +1,94 @@
+package ui;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * The Startup class runs the stages of starting the application that do not depend on each other at the same time,
+ * each on its own worker thread, and times them, so the application is ready as soon as the slowest stage is and the
+ * report shows which one that was.
+ */
+class Startup {
+    private final long started = System.nanoTime();
+    private final ExecutorService workers;
+    private final Map<String, Long> timings = new LinkedHashMap<>();
+    private final List<CompletableFuture<?>> stages = new ArrayList<>();
+    private long finished;
+
+    /**
+     * Requires: threads > 0
+     * Modifies: this
+     * Effects: Creates a startup that runs up to threads stages at once on daemon threads.
+     */
+    Startup(int threads) {
+        workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "startup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Requires: whenDone() has not been called
+     * Modifies: this
+     * Effects: Starts running work as the stage with the given name and returns its result to come. The time it
+     *          takes is recorded under name, whether it succeeds or not. If work throws, the result fails with an
+     *          IllegalStateException that names the stage.
+     */
+    <T> CompletableFuture<T> stage(String name, Supplier<T> work) {
+        CompletableFuture<T> stage = CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return work.get();
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Could not load the " + name + ": " + e.getMessage(), e);
+            } finally {
+                record(name, System.nanoTime() - start);
+            }
+        }, workers);
+        stages.add(stage);
+        return stage;
+    }
+
+    private synchronized void record(String name, long nanos) {
+        timings.put(name, nanos / 1_000_000);
+    }
+
+    /**
+     * Requires: Every stage has been started
+     * Modifies: this
+     * Effects: Returns a future that completes once every stage has, exceptionally if any of them failed, and lets
+     *          the worker threads go.
+     */
+    CompletableFuture<Void> whenDone() {
+        return CompletableFuture.allOf(stages.toArray(new CompletableFuture<?>[0])).whenComplete((done, failure) -> {
+            synchronized (this) {
+                finished = System.nanoTime();
+            }
+            workers.shutdown();
+        });
+    }
+
+    /**
+     * Requires: None
+     * Modifies: None
+     * Effects: Returns the time each finished stage took and, once they all have, the total time to be ready, in
+     *          milliseconds.
+     */
+    synchronized String report() {
+        StringBuilder sb = new StringBuilder("Startup:");
+        for (Map.Entry<String, Long> timing : timings.entrySet()) {
+            sb.append(' ').append(timing.getKey()).append('=').append(timing.getValue()).append("ms");
+        }
+        if (finished != 0) {
+            sb.append(" total=").append((finished - started) / 1_000_000).append("ms");
+        }
+        return sb.toString();
+    }
+}
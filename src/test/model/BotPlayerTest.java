@@ -0,0 +1,87 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BotPlayerTest {
+
+    /**
+     * Never lets a bot slip.
+     */
+    private static class SureRandom extends Random {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public double nextDouble() {
+            return 0.99;
+        }
+    }
+
+    private static Gazetteer places(String... names) {
+        Gazetteer places = new Gazetteer();
+        for (String name : names) {
+            places.add(name, Category.COUNTRY);
+        }
+        return places;
+    }
+
+    @Test
+    void testGraphCountsWhatIsLeft() {
+        Gazetteer places = places("spain", "sweden", "serbia", "nepal", "norway", "niger", "austria", "albania");
+        AnswerSet answers = new AnswerSet(places, Difficulty.EASY);
+        LetterGraph graph = answers.letterGraph();
+        int sn = LetterGraph.pair('s', 'n');
+        assertEquals(2, graph.count(sn));
+        assertEquals(2, graph.count(LetterGraph.pair('a', 'a')));
+        assertEquals(-1, LetterGraph.pair('s', ' '));
+
+        answers.markAnswered(places.indexOf("sweden"));
+        assertEquals(1, answers.remainingPairs()[sn]);
+        assertEquals(2, graph.count(sn));
+        assertSame(graph, new AnswerSet(places, Difficulty.EASY).letterGraph());
+    }
+
+    @Test
+    void testLeavesTheFewestOptions() {
+        Gazetteer places = places("spain", "sweden", "serbia", "nepal", "norway", "niger", "austria", "albania");
+        BotPlayer bot = new BotPlayer("Computer", BotPlayer.Skill.MEDIUM, new SureRandom());
+        List<Player> players = new ArrayList<>(List.of(bot, new Player("Aarav")));
+        GameSession session = new GameSession(players, places, Difficulty.EASY, new Random(1));
+        session.setCurrentLetter('s');
+        assertEquals("serbia", bot.chooseAnswer(session));
+
+        session.getAnswers().markAnswered(places.indexOf("serbia"));
+        assertEquals("spain", bot.chooseAnswer(session));
+        session.getAnswers().markAnswered(places.indexOf("spain"));
+        assertEquals("sweden", bot.chooseAnswer(session));
+        session.getAnswers().markAnswered(places.indexOf("sweden"));
+        assertNull(bot.chooseAnswer(session));
+    }
+
+    @Test
+    void testBotsPlayAWholeGame() {
+        Gazetteer places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        TurnEngine engine = new TurnEngine(places, new SpellingIndex(places));
+        List<Player> players = new ArrayList<>();
+        for (BotPlayer.Skill skill : BotPlayer.Skill.values()) {
+            players.add(new BotPlayer(skill.name(), skill, new Random(skill.ordinal())));
+        }
+        GameSession session = new GameSession(players, places, Difficulty.HARD, new Random(3));
+        engine.start(session);
+        int turns = 0;
+        while (!session.isFinished() && turns++ < 10_000) {
+            BotPlayer bot = (BotPlayer) session.getActivePlayer();
+            String answer = bot.chooseAnswer(session);
+            TurnResult result = answer == null ? engine.timeout(session) : engine.submitAnswer(session, answer);
+            assertEquals(answer == null ? TurnResult.Outcome.TIMEOUT : TurnResult.Outcome.CORRECT,
+                    result.getOutcome());
+        }
+        assertTrue(session.isFinished());
+    }
+}
@@ -0,0 +1,105 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadEndRuleTest {
+    private Gazetteer gazetteer;
+    private TurnEngine engine;
+    private List<Player> players;
+
+    @BeforeEach
+    void setUp() {
+        gazetteer = new Gazetteer();
+        gazetteer.add("suez", Category.COUNTRY);
+        gazetteer.add("norway", Category.COUNTRY);
+        gazetteer.add("yemen", Category.COUNTRY);
+        engine = new TurnEngine(gazetteer, new SpellingIndex(gazetteer));
+        players = new ArrayList<>();
+        players.add(new Player("Aarav"));
+        players.add(new Player("Bhavya"));
+    }
+
+    private GameSession start(DeadEndRule rule, long seed) {
+        GameSession session = new GameSession(players, gazetteer, Difficulty.HARD, new Random(seed));
+        session.setDeadEndRule(rule);
+        engine.start(session);
+        session.setCurrentLetter('s');
+        session.setActivePlayerIndex(0);
+        return session;
+    }
+
+    @Test
+    void testLiveLetterIsNotADeadEnd() {
+        GameSession session = start(DeadEndRule.SKIP, 1);
+        session.setCurrentLetter('n');
+        TurnResult result = engine.submitAnswer(session, "norway");
+        assertEquals(0, result.getDeadLetter());
+        assertEquals('y', result.getNextLetter());
+        assertEquals(1, session.getAnswers().remainingFor('y'));
+    }
+
+    @Test
+    void testSkipWrapsPastZ() {
+        GameSession session = start(DeadEndRule.SKIP, 1);
+        TurnResult result = engine.submitAnswer(session, "suez");
+        assertEquals('z', result.getDeadLetter());
+        assertEquals('n', result.getNextLetter());
+        assertNull(result.getPassedOver());
+        assertEquals("Bhavya", result.getNextPlayer().getName());
+    }
+
+    @Test
+    void testRerollDrawsOnlyLiveStartLetters() {
+        gazetteer.add("spain", Category.COUNTRY);
+        gazetteer.add("togo", Category.COUNTRY);
+        Set<Character> drawn = new HashSet<>();
+        for (long seed = 0; seed < 20; seed++) {
+            GameSession session = start(DeadEndRule.REROLL, seed);
+            TurnResult result = engine.submitAnswer(session, "suez");
+            assertEquals('z', result.getDeadLetter());
+            drawn.add(result.getNextLetter());
+        }
+        assertEquals(Set.of('s', 't'), drawn);
+    }
+
+    @Test
+    void testRerollFallsBackToNextLiveLetter() {
+        GameSession session = start(DeadEndRule.REROLL, 1);
+        TurnResult result = engine.submitAnswer(session, "suez");
+        assertEquals('z', result.getDeadLetter());
+        assertEquals('n', result.getNextLetter());
+    }
+
+    @Test
+    void testNoPenaltyPassesOverTheNextPlayer() {
+        GameSession session = start(DeadEndRule.NO_PENALTY, 1);
+        TurnResult result = engine.submitAnswer(session, "suez");
+        assertEquals('z', result.getDeadLetter());
+        assertEquals('n', result.getNextLetter());
+        assertEquals("Bhavya", result.getPassedOver().getName());
+        assertEquals(0, result.getPassedOver().getLettersAssigned());
+        assertEquals("Aarav", result.getNextPlayer().getName());
+    }
+
+    @Test
+    void testNoRuleOnceEveryNameIsAnswered() {
+        gazetteer = new Gazetteer();
+        gazetteer.add("suez", Category.COUNTRY);
+        engine = new TurnEngine(gazetteer, new SpellingIndex(gazetteer));
+        GameSession session = start(DeadEndRule.NO_PENALTY, 1);
+        TurnResult result = engine.submitAnswer(session, "suez");
+        assertEquals(0, result.getDeadLetter());
+        assertEquals('z', result.getNextLetter());
+        assertNull(result.getPassedOver());
+        assertEquals(0, session.getAnswers().remainingTotal());
+    }
+}
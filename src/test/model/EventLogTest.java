@@ -0,0 +1,142 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventLogTest {
+    private static final int THREADS = 4;
+    private static final int EVENTS = 20_000;
+
+    @Test
+    void testSingleton() {
+        assertSame(EventLog.getInstance(), EventLog.getInstance());
+        assertEquals(EventLog.DEFAULT_CAPACITY, EventLog.getInstance().getCapacity());
+    }
+
+    @Test
+    void testDropOldest() {
+        EventLog log = new EventLog(3, EventLog.OverflowPolicy.DROP_OLDEST);
+        assertEquals(4, log.getCapacity());
+        for (int i = 0; i < 6; i++) {
+            log.logEvent(new Event("e" + i));
+        }
+        assertEquals(List.of("e2", "e3", "e4", "e5"), descriptions(log));
+        log.clear();
+        assertEquals(List.of("Event log cleared."), descriptions(log));
+        assertEquals(7, log.getLogged());
+    }
+
+    @Test
+    void testStructuredEvents() {
+        EventLog log = new EventLog(16, EventLog.OverflowPolicy.DROP_OLDEST);
+        log.log(EventType.PLAYER_RENAMED, "Aarav", "Bhavya");
+        log.log(EventType.TURN_PLAYED, "Bhavya", 's', TurnResult.Outcome.CORRECT);
+        log.logEvent(new Event("free text"));
+        Event turn = log.snapshot().get(1);
+        assertEquals(EventType.TURN_PLAYED, turn.getType());
+        assertEquals('s', turn.getLetter());
+        assertTrue(turn.getTimestamp() <= System.currentTimeMillis());
+        assertEquals(List.of("Modified Aarav to Bhavya.", "Bhavya: CORRECT on letter 's'.", "free text"),
+                descriptions(log));
+    }
+
+    @Test
+    void testGating() {
+        EventLog log = new EventLog(16, EventLog.OverflowPolicy.DROP_OLDEST);
+        log.log(EventType.PLAYERS_DISPLAYED);
+        assertEquals(0, log.getLogged());
+        log.setLevel(Event.Level.DEBUG);
+        log.log(EventType.PLAYERS_DISPLAYED);
+        log.setEnabled(EventType.GAME_STARTED, false);
+        log.log(EventType.GAME_STARTED);
+        log.setLevel(Event.Level.WARN);
+        log.log(EventType.PLAYER_ADDED, "Aarav", null);
+        log.log(EventType.TIMER_FAILED, null, "boom");
+        log.setLevel(Event.Level.INFO);
+        assertFalse(log.isEnabled(EventType.GAME_STARTED));
+        log.setEnabled(EventType.GAME_STARTED, true);
+        log.log(EventType.GAME_STARTED);
+        assertEquals(List.of("Displayed all players.", "Turn timer task failed: boom", "Game started."),
+                descriptions(log));
+    }
+
+    @Test
+    void testSnapshotWhileLogging() throws InterruptedException {
+        EventLog log = new EventLog(1024, EventLog.OverflowPolicy.DROP_OLDEST);
+        AtomicBoolean ordered = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (log.getLogged() < THREADS * EVENTS) {
+                ordered.compareAndSet(true, inOrder(descriptions(log)));
+            }
+        });
+        reader.start();
+        runWriters(log);
+        reader.join();
+        assertTrue(ordered.get());
+        assertEquals(THREADS * EVENTS, log.getLogged());
+        assertEquals(1024, log.snapshot().size());
+        assertTrue(inOrder(descriptions(log)));
+    }
+
+    @Test
+    void testBlockUntilDrained() throws InterruptedException {
+        EventLog log = new EventLog(64, EventLog.OverflowPolicy.BLOCK);
+        List<String> drained = new ArrayList<>();
+        Thread consumer = new Thread(() -> {
+            while (drained.size() < THREADS * EVENTS) {
+                log.drain(e -> drained.add(e.getDescription()), 16);
+            }
+        });
+        consumer.start();
+        runWriters(log);
+        consumer.join();
+        assertEquals(THREADS * EVENTS, drained.size());
+        assertTrue(inOrder(drained));
+        assertEquals(0, log.getDropped());
+    }
+
+    private static void runWriters(EventLog log) throws InterruptedException {
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int writer = t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < EVENTS; i++) {
+                    log.logEvent(new Event(writer + ":" + i));
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+    }
+
+    private static List<String> descriptions(EventLog log) {
+        List<String> descriptions = new ArrayList<>();
+        for (Event e : log) {
+            descriptions.add(e.getDescription());
+        }
+        return descriptions;
+    }
+
+    // True if the events of each writer appear in the order it logged them.
+    private static boolean inOrder(List<String> descriptions) {
+        int[] last = new int[THREADS];
+        Arrays.fill(last, -1);
+        for (String d : descriptions) {
+            int writer = Integer.parseInt(d.substring(0, d.indexOf(':')));
+            int i = Integer.parseInt(d.substring(d.indexOf(':') + 1));
+            if (i <= last[writer]) {
+                return false;
+            }
+            last[writer] = i;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,144 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameEventPublisherTest {
+
+    /**
+     * Records what it is sent, requesting events only when asked to.
+     */
+    private static class Recorder implements Flow.Subscriber<GameEvent> {
+        private final List<GameEvent> events = new ArrayList<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private CountDownLatch received = new CountDownLatch(0);
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public synchronized void onNext(GameEvent item) {
+            events.add(item);
+            received.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+
+        void request(int n) throws InterruptedException {
+            received = new CountDownLatch(n);
+            subscription.request(n);
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+        }
+
+        synchronized List<GameEvent> events() {
+            return new ArrayList<>(events);
+        }
+    }
+
+    @Test
+    void testTurnsArePublished() throws InterruptedException {
+        Gazetteer places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        TurnEngine engine = new TurnEngine(places, new SpellingIndex(places));
+        Recorder recorder = new Recorder();
+        engine.getEvents().subscribe(recorder);
+        GameSession session = new GameSession(new ArrayList<>(List.of(new Player("Aarav"), new Player("Bhavya"))),
+                places, Difficulty.EASY, new Random(1));
+        engine.start(session);
+        String player = session.getActivePlayer().getName();
+        String answer = places.nameAt(0);
+        session.setCurrentLetter(answer.charAt(0));
+        engine.submitAnswer(session, answer);
+        engine.submitAnswer(session, "xyz");
+
+        recorder.request(4);
+        List<GameEvent> events = recorder.events();
+        assertEquals(GameEvent.Type.ANSWER_ACCEPTED, events.get(0).getType());
+        assertEquals(player, events.get(0).getPlayer());
+        assertEquals(answer, events.get(0).getPlace());
+        assertEquals(GameEvent.Type.NEXT_TURN, events.get(1).getType());
+        assertEquals(GameEvent.Type.LETTER_ASSIGNED, events.get(2).getType());
+        assertEquals('L', events.get(2).getLetter());
+        assertEquals(GameEvent.Type.NEXT_TURN, events.get(3).getType());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i + 1, events.get(i).getSequence());
+        }
+        assertEquals(4, session.getEventSequence());
+    }
+
+    @Test
+    void testSlowSubscribersOverflowByPolicy() throws InterruptedException {
+        GameEventPublisher publisher = new GameEventPublisher();
+        Recorder dropping = new Recorder();
+        Recorder conflating = new Recorder();
+        publisher.subscribe(dropping, 4, GameEventPublisher.OverflowPolicy.DROP);
+        publisher.subscribe(conflating, 4, GameEventPublisher.OverflowPolicy.CONFLATE);
+        for (int turn = 0; turn < 100; turn++) {
+            publisher.publish(new GameEvent(GameEvent.Type.NEXT_TURN, 1, turn, "Aarav", null, 'a'));
+        }
+        assertEquals(192, publisher.getDropped());
+
+        dropping.request(4);
+        conflating.request(4);
+        assertEquals(0, dropping.events().get(0).getTurn());
+        assertEquals(3, dropping.events().get(3).getTurn());
+        assertEquals(96, conflating.events().get(0).getTurn());
+        assertEquals(99, conflating.events().get(3).getTurn());
+
+        publisher.close();
+        assertTrue(dropping.done.await(5, TimeUnit.SECONDS));
+        assertFalse(publisher.hasSubscribers());
+    }
+
+    @Test
+    void testBadRequestFailsOnTheDrainTask() {
+        List<Runnable> tasks = new ArrayList<>();
+        GameEventPublisher publisher = new GameEventPublisher(tasks::add);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+        publisher.publish(new GameEvent(GameEvent.Type.WINNER, 1, 1, null, null, '\0'));
+        recorder.subscription.request(1);
+        recorder.subscription.request(0);
+        assertEquals(1, recorder.done.getCount());
+        assertFalse(publisher.hasSubscribers());
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+        assertEquals(0, recorder.done.getCount());
+        assertTrue(recorder.events().isEmpty());
+    }
+
+    @Test
+    void testBlockWaitsForRoomThenDrops() throws InterruptedException {
+        GameEventPublisher publisher = new GameEventPublisher();
+        Recorder blocked = new Recorder();
+        publisher.subscribe(blocked, 1, GameEventPublisher.OverflowPolicy.BLOCK);
+        publisher.publish(new GameEvent(GameEvent.Type.WINNER, 1, 1, null, null, '\0'));
+        long start = System.nanoTime();
+        publisher.publish(new GameEvent(GameEvent.Type.WINNER, 1, 2, null, null, '\0'));
+        long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(waited >= GameEventPublisher.BLOCK_MILLIS - 5 && waited < 5000, "waited " + waited + " ms");
+        assertEquals(1, publisher.getDropped());
+        blocked.request(1);
+        assertEquals(1, blocked.events().get(0).getTurn());
+    }
+}
@@ -0,0 +1,105 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GazetteerTest {
+    private Gazetteer gazetteer;
+
+    @BeforeEach
+    void setUp() {
+        gazetteer = new Gazetteer();
+        gazetteer.add("India", Category.COUNTRY);
+        gazetteer.add("italy", Category.COUNTRY);
+        gazetteer.add("germany", Category.COUNTRY);
+    }
+
+    @Test
+    void testAddAndLookup() {
+        assertEquals(3, gazetteer.size());
+        assertTrue(gazetteer.contains("india"));
+        assertFalse(gazetteer.contains("India"));
+        assertFalse(gazetteer.contains("spain"));
+        assertEquals("italy", gazetteer.nameAt(gazetteer.indexOf("italy")));
+    }
+
+    @Test
+    void testAddDuplicate() {
+        int id = gazetteer.indexOf("india");
+        assertEquals(id, gazetteer.add(" INDIA ", Category.CITY));
+        assertEquals(3, gazetteer.size());
+        assertEquals(Category.COUNTRY, gazetteer.categoryOf(id));
+    }
+
+    @Test
+    void testGrowth() {
+        for (int i = 0; i < 1000; i++) {
+            gazetteer.add("place " + i, Category.CITY);
+        }
+        assertEquals(1003, gazetteer.size());
+        assertEquals(1000, gazetteer.countStartingWith('p'));
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(gazetteer.contains("place " + i));
+        }
+    }
+
+    @Test
+    void testLetterBuckets() {
+        assertEquals(2, gazetteer.countStartingWith('i'));
+        assertEquals(2, gazetteer.countStartingWith('I'));
+        assertEquals(0, gazetteer.countStartingWith('z'));
+        assertEquals(0, gazetteer.countStartingWith('?'));
+        assertEquals("germany", gazetteer.nameAt(gazetteer.idStartingWith('g', 0)));
+    }
+
+    @Test
+    void testAnswerSet() {
+        AnswerSet answers = new AnswerSet(gazetteer, Difficulty.EASY);
+        int italy = gazetteer.indexOf("italy");
+        assertTrue(answers.markAnswered(italy));
+        assertFalse(answers.markAnswered(italy));
+        assertTrue(answers.isAnswered(italy));
+        assertEquals(1, answers.remainingFor('i'));
+        assertEquals(1, answers.size());
+        assertEquals(2, answers.remainingTotal());
+        assertEquals(List.of("italy"), answers.answeredNames());
+        assertEquals(List.of("india", "germany"), answers.remainingNames());
+    }
+
+    @Test
+    void testAnswerSetAfterGazetteerGrows() {
+        AnswerSet answers = new AnswerSet(gazetteer, Difficulty.EASY);
+        for (int i = 0; i < 200; i++) {
+            gazetteer.add("town " + i, Category.CITY);
+        }
+        assertTrue(answers.markAnswered(gazetteer.indexOf("town 199")));
+        assertEquals(199, answers.remainingFor('t'));
+    }
+
+    @Test
+    void testViews() {
+        gazetteer.add("goa", Category.STATE);
+        gazetteer.add("geneva", Category.CITY);
+        assertEquals(5, gazetteer.view(Difficulty.EASY).size());
+        assertEquals(3, gazetteer.view(Difficulty.EASY).countStartingWith('g'));
+        assertEquals(2, gazetteer.view(Difficulty.MEDIUM).countStartingWith('g'));
+        assertEquals(1, gazetteer.view(Difficulty.HARD).countStartingWith('g'));
+        assertTrue(gazetteer.view(Difficulty.MEDIUM).includes(gazetteer.indexOf("goa")));
+        assertFalse(gazetteer.view(Difficulty.HARD).includes(gazetteer.indexOf("goa")));
+        assertFalse(gazetteer.view(Difficulty.HARD).includes(-1));
+    }
+
+    @Test
+    void testAnswerSetRespectsLevel() {
+        gazetteer.add("goa", Category.STATE);
+        AnswerSet answers = new AnswerSet(gazetteer, Difficulty.HARD);
+        assertFalse(answers.isPlayable(gazetteer.indexOf("goa")));
+        assertEquals(1, answers.remainingFor('g'));
+        assertEquals(List.of("india", "italy", "germany"), answers.remainingNames());
+        assertEquals(Difficulty.HARD, answers.getDifficulty());
+    }
+}
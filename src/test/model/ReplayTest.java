@@ -0,0 +1,114 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayTest {
+
+    @Test
+    void testSeededRandomDrawsLikeRandom() {
+        Random plain = new Random(42);
+        SeededRandom seeded = new SeededRandom(42);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(plain.nextInt(1000), seeded.nextInt(1000));
+        }
+        SeededRandom copy = new SeededRandom(42);
+        copy.setState(seeded.getState());
+        assertEquals(plain.nextLong(), copy.nextLong());
+        assertEquals(42, copy.getSeed());
+    }
+
+    @Test
+    void testSeekMatchesTheRecordedGame() {
+        Gazetteer places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        SpellingIndex spelling = new SpellingIndex(places);
+        TurnEngine engine = new TurnEngine(places, spelling);
+        List<Player> players = new ArrayList<>();
+        for (String name : List.of("Aarav", "Bhavya", "Chen", "Dana")) {
+            players.add(new Player(name));
+        }
+        GameSession session = new GameSession(players, places, Difficulty.HARD, new SeededRandom(2024));
+        session.setDeadEndRule(DeadEndRule.REROLL);
+        GameRecord record = GameRecord.of(session);
+        engine.start(session);
+        List<String> states = new ArrayList<>(List.of(describe(session)));
+        Random driver = new Random(7);
+        while (!session.isFinished()) {
+            play(engine, session, driver);
+            states.add(describe(session));
+        }
+
+        Replay replay = new Replay(places, spelling, GameRecord.fromJson(record.toJson()), 8);
+        assertEquals(record.size(), replay.length());
+        assertEquals(record.size() / 8 + 1, replay.getCheckpoints());
+        for (int inputs = replay.length(); inputs >= 0; inputs--) {
+            assertEquals(states.get(inputs), describe(replay.seek(inputs)), "after " + inputs + " inputs");
+        }
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(replay.length() + 1));
+    }
+
+    @Test
+    void testReplayFollowsAGrowingRecord() {
+        Gazetteer places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        SpellingIndex spelling = new SpellingIndex(places);
+        TurnEngine engine = new TurnEngine(places, spelling);
+        List<Player> players = new ArrayList<>(List.of(new Player("Aarav"), new Player("Bhavya"), new Player("Chen")));
+        GameSession session = new GameSession(players, places, Difficulty.EASY, new SeededRandom(99));
+        GameRecord record = GameRecord.of(session);
+        engine.start(session);
+        Replay replay = new Replay(places, spelling, record, 4);
+        List<String> states = new ArrayList<>(List.of(describe(session)));
+        Random driver = new Random(3);
+        while (!session.isFinished()) {
+            play(engine, session, driver);
+            states.add(describe(session));
+            assertEquals(describe(session), describe(replay.seek(record.size())));
+        }
+        assertEquals(record.size(), replay.length());
+        assertEquals(record.size() / 4 + 1, replay.getCheckpoints());
+        for (int inputs = 0; inputs <= replay.length(); inputs++) {
+            assertEquals(states.get(inputs), describe(replay.seek(inputs)), "after " + inputs + " inputs");
+        }
+    }
+
+    /**
+     * Mostly answers correctly, and otherwise misspells an answer, answers wrongly or lets the turn time out.
+     */
+    private static void play(TurnEngine engine, GameSession session, Random driver) {
+        List<String> names = new ArrayList<>();
+        for (String name : session.getAnswers().remainingNames()) {
+            if (name.charAt(0) == session.getCurrentLetter()) {
+                names.add(name);
+            }
+        }
+        int roll = driver.nextInt(10);
+        if (roll == 0) {
+            engine.timeout(session);
+        } else if (roll == 1 || names.isEmpty()) {
+            engine.submitAnswer(session, "xyz");
+        } else {
+            String name = names.get(driver.nextInt(names.size()));
+            engine.submitAnswer(session, roll == 2 ? name.substring(0, name.length() - 1) : name);
+        }
+    }
+
+    private static String describe(GameSession session) {
+        StringBuilder sb = new StringBuilder().append(session.getTurn()).append(' ').append(session.getState())
+                .append(' ').append(session.getCurrentLetter()).append(' ').append(session.getActivePlayerIndex())
+                .append(' ').append(session.getWinner() == null ? "-" : session.getWinner().getName());
+        for (Player player : session.getPlayers()) {
+            sb.append(' ').append(player.getName()).append(player.getAssignedLetters())
+                    .append(player.getLettersAssigned());
+        }
+        return sb.append(Arrays.toString(session.getAnswers().answeredIds())).append(' ')
+                .append(((SeededRandom) session.getRandom()).getState()).toString();
+    }
+}
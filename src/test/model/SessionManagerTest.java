@@ -0,0 +1,124 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionManagerTest {
+    private long now;
+    private SessionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        Gazetteer gazetteer = new Gazetteer();
+        Game.addDefaultPlaces(gazetteer);
+        TurnEngine engine = new TurnEngine(gazetteer, new SpellingIndex(gazetteer));
+        now = 0;
+        manager = new SessionManager(engine, 1000, () -> now);
+    }
+
+    private long newSession(long seed) {
+        List<Player> players = Arrays.asList(new Player("Aarav"), new Player("Bhavya"));
+        long id = manager.create(players, Difficulty.EASY, DeadEndRule.SKIP, seed);
+        manager.withSession(id, session -> {
+            session.setCurrentLetter('s');
+            session.setActivePlayerIndex(0);
+            return null;
+        });
+        return id;
+    }
+
+    @Test
+    void testSessionsAreIndependent() {
+        long first = newSession(1);
+        long second = newSession(2);
+        assertEquals(TurnResult.Outcome.CORRECT, manager.submitAnswer(first, "spain").getOutcome());
+        assertEquals(TurnResult.Outcome.CORRECT, manager.submitAnswer(second, "spain").getOutcome());
+        assertEquals(1, (int) manager.withSession(first, s -> s.getAnswers().size()));
+        assertEquals('n', (char) manager.withSession(second, GameSession::getCurrentLetter));
+        assertEquals(2, manager.size());
+    }
+
+    @Test
+    void testUnknownAndClosedSessions() {
+        long id = newSession(1);
+        assertTrue(manager.close(id));
+        assertFalse(manager.contains(id));
+        assertFalse(manager.close(id));
+        assertThrows(IllegalArgumentException.class, () -> manager.submitAnswer(id, "spain"));
+    }
+
+    @Test
+    void testExpireIdle() {
+        long idle = newSession(1);
+        now = 800;
+        long busy = newSession(2);
+        now = 1500;
+        manager.submitAnswer(busy, "spain");
+        assertEquals(List.of(idle), manager.expireIdle());
+        assertFalse(manager.contains(idle));
+        assertTrue(manager.contains(busy));
+        now = 2600;
+        assertEquals(List.of(busy), manager.expireIdle());
+        assertEquals(0, manager.size());
+    }
+
+    @Test
+    void testTurnDeadlines() {
+        TurnTimer timer = new TurnTimer(100, 64, () -> now);
+        manager = new SessionManager(manager.getEngine(), 60_000, () -> now, timer, 30_000);
+        List<TurnResult> timeouts = new ArrayList<>();
+        manager.setTimeoutListener((id, result) -> timeouts.add(result));
+        long id = newSession(1);
+        now = 20_000;
+        assertEquals(TurnResult.Outcome.NEAR_MISS, manager.submitAnswer(id, "spian").getOutcome());
+        now = 30_000;
+        timer.advance();
+        assertEquals(1, timeouts.size());
+        assertEquals(TurnResult.Outcome.TIMEOUT, timeouts.get(0).getOutcome());
+        assertEquals("Aarav", timeouts.get(0).getPlayer().getName());
+        now = 50_000;
+        manager.withSession(id, s -> {
+            s.setCurrentLetter('s');
+            return null;
+        });
+        manager.submitAnswer(id, "spain");
+        now = 70_000;
+        timer.advance();
+        assertEquals(1, timeouts.size());
+        assertTrue(manager.close(id));
+        assertEquals(0, timer.pending());
+    }
+
+    @Test
+    void testConcurrentSessions() throws InterruptedException {
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long id = newSession(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    manager.withSession(id, s -> {
+                        s.setCurrentLetter('s');
+                        return s.getAnswers().size();
+                    });
+                }
+                if (manager.submitAnswer(id, "spain").getOutcome() != TurnResult.Outcome.CORRECT) {
+                    failures.incrementAndGet();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failures.get());
+        assertEquals(8, manager.size());
+    }
+}
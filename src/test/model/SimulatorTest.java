@@ -0,0 +1,63 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorTest {
+
+    @Test
+    void testHistogramsMerge() {
+        Histogram low = new Histogram(10);
+        Histogram high = new Histogram(10);
+        for (int i = 1; i <= 5; i++) {
+            low.record(i);
+            high.record(i + 10);
+        }
+        low.merge(high);
+        assertEquals(10, low.count());
+        assertEquals(8, low.mean(), 1e-9);
+        assertEquals(5, low.percentile(50));
+        assertEquals(10, low.percentile(100));
+        assertEquals(15, low.max());
+    }
+
+    @Test
+    void testReusedSessionPlaysLikeFreshOnes() {
+        Gazetteer places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        Simulator simulator = new Simulator(places, new SpellingIndex(places), Difficulty.EASY, DeadEndRule.SKIP,
+                List.of(BotPlayer.Skill.MEDIUM, BotPlayer.Skill.HARD, BotPlayer.Skill.EASY), 7);
+        SimulationStats fresh = simulator.play(0, 1);
+        for (long game = 1; game < 20; game++) {
+            fresh.merge(simulator.play(game, game + 1));
+        }
+        assertEquals(fresh.toString(), simulator.play(0, 20).toString());
+    }
+
+    @Test
+    void testResultsDoNotDependOnThreads() {
+        Gazetteer places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        Simulator simulator = new Simulator(places, new SpellingIndex(places), Difficulty.MEDIUM, DeadEndRule.REROLL,
+                List.of(BotPlayer.Skill.HARD, BotPlayer.Skill.EASY), 42);
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            SimulationStats serial = simulator.run(one, 3 * Simulator.GRAIN + 7);
+            SimulationStats parallel = simulator.run(four, 3 * Simulator.GRAIN + 7);
+            assertEquals(3 * Simulator.GRAIN + 7, parallel.games());
+            assertEquals(serial.toString(), parallel.toString());
+            double total = parallel.winRate(0) + parallel.winRate(1) + (double) parallel.getNoWinner() / parallel.games();
+            assertEquals(1, total, 1e-9);
+            assertTrue(parallel.winRate(0) > parallel.winRate(1));
+            assertTrue(parallel.getTurns().percentile(50) > 5);
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpellingIndexTest {
+    private Gazetteer gazetteer;
+    private SpellingIndex spelling;
+
+    @BeforeEach
+    void setUp() {
+        gazetteer = new Gazetteer();
+        gazetteer.add("germany", Category.COUNTRY);
+        gazetteer.add("greece", Category.COUNTRY);
+        gazetteer.add("goa", Category.STATE);
+        gazetteer.add("netherlands", Category.COUNTRY);
+        spelling = new SpellingIndex(gazetteer);
+    }
+
+    @Test
+    void testNearMisses() {
+        GazetteerView view = gazetteer.view(Difficulty.EASY);
+        assertEquals("germany", gazetteer.nameAt(spelling.suggest("germny", view)));
+        assertEquals("germany", gazetteer.nameAt(spelling.suggest("germanny", view)));
+        assertEquals("germany", gazetteer.nameAt(spelling.suggest("germani", view)));
+        assertEquals("germany", gazetteer.nameAt(spelling.suggest("gremany", view)));
+        assertEquals("greece", gazetteer.nameAt(spelling.suggest("grece", view)));
+        assertEquals("netherlands", gazetteer.nameAt(spelling.suggest("nehterlands", view)));
+        assertEquals("goa", gazetteer.nameAt(spelling.suggest("goa", view)));
+    }
+
+    @Test
+    void testDoubledFirstLetter() {
+        gazetteer.add("aachen", Category.CITY);
+        spelling.update();
+        GazetteerView view = gazetteer.view(Difficulty.EASY);
+        assertEquals("aachen", gazetteer.nameAt(spelling.suggest("achen", view)));
+        assertEquals("aachen", gazetteer.nameAt(spelling.suggest("aaachen", view)));
+    }
+
+    @Test
+    void testInvalid() {
+        GazetteerView view = gazetteer.view(Difficulty.EASY);
+        assertEquals(-1, spelling.suggest("gmrny", view));
+        assertEquals(-1, spelling.suggest("hermany", view));
+        assertEquals(-1, spelling.suggest("ghana", view));
+    }
+
+    @Test
+    void testRespectsViewAndUpdates() {
+        assertEquals(-1, spelling.suggest("gao", gazetteer.view(Difficulty.HARD)));
+        assertEquals(-1, spelling.suggest("ghanna", gazetteer.view(Difficulty.EASY)));
+        gazetteer.add("ghana", Category.COUNTRY);
+        spelling.update();
+        assertEquals("ghana", gazetteer.nameAt(spelling.suggest("ghanna", gazetteer.view(Difficulty.HARD))));
+    }
+
+    @Test
+    void testWithinOneEdit() {
+        assertTrue(SpellingIndex.withinOneEdit("chad", "chad"));
+        assertTrue(SpellingIndex.withinOneEdit("chad", "chat"));
+        assertTrue(SpellingIndex.withinOneEdit("chad", "cahd"));
+        assertTrue(SpellingIndex.withinOneEdit("chad", "chads"));
+        assertFalse(SpellingIndex.withinOneEdit("chad", "cadh"));
+        assertFalse(SpellingIndex.withinOneEdit("chad", "ch"));
+        assertFalse(SpellingIndex.withinOneEdit("chad", "chile"));
+    }
+}
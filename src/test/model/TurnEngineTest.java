@@ -0,0 +1,158 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TurnEngineTest {
+    private Gazetteer gazetteer;
+    private TurnEngine engine;
+    private List<Player> players;
+    private GameSession session;
+
+    @BeforeEach
+    void setUp() {
+        gazetteer = new Gazetteer();
+        gazetteer.add("spain", Category.COUNTRY);
+        gazetteer.add("norway", Category.COUNTRY);
+        gazetteer.add("nepal", Category.COUNTRY);
+        gazetteer.add("yemen", Category.COUNTRY);
+        gazetteer.add("yukon", Category.STATE);
+        gazetteer.add("sweden", Category.COUNTRY);
+        engine = new TurnEngine(gazetteer, new SpellingIndex(gazetteer));
+        players = new ArrayList<>();
+        players.add(new Player("Aarav"));
+        players.add(new Player("Bhavya"));
+        session = new GameSession(players, gazetteer, Difficulty.HARD, new Random(1));
+        engine.start(session);
+        session.setCurrentLetter('s');
+        session.setActivePlayerIndex(0);
+    }
+
+    @Test
+    void testCorrectAnswer() {
+        TurnResult result = engine.submitAnswer(session, " Spain ");
+        assertEquals(TurnResult.Outcome.CORRECT, result.getOutcome());
+        assertEquals("spain", result.getPlace());
+        assertEquals('n', result.getNextLetter());
+        assertEquals("Bhavya", result.getNextPlayer().getName());
+        assertEquals(0, result.getLetterAssigned());
+        assertEquals(1, session.getAnswers().size());
+    }
+
+    @Test
+    void testWrongAnswers() {
+        TurnResult result = engine.submitAnswer(session, "nepal");
+        assertEquals(TurnResult.Outcome.WRONG_LETTER, result.getOutcome());
+        assertEquals('L', result.getLetterAssigned());
+        engine.submitAnswer(session, "spain");
+        session.setCurrentLetter('s');
+        result = engine.submitAnswer(session, "spain");
+        assertEquals(TurnResult.Outcome.ALREADY_ANSWERED, result.getOutcome());
+        assertEquals('O', result.getLetterAssigned());
+        assertEquals(TurnResult.Outcome.INVALID, engine.submitAnswer(session, "sxyz").getOutcome());
+    }
+
+    @Test
+    void testNearMissGetsOneRetry() {
+        TurnResult result = engine.submitAnswer(session, "spian");
+        assertEquals(TurnResult.Outcome.NEAR_MISS, result.getOutcome());
+        assertEquals("spain", result.getPlace());
+        assertEquals(GameSession.State.AWAITING_RETRY, session.getState());
+        assertEquals("Aarav", session.getActivePlayer().getName());
+        result = engine.submitAnswer(session, "spian");
+        assertEquals(TurnResult.Outcome.INVALID, result.getOutcome());
+        assertEquals("Bhavya", session.getActivePlayer().getName());
+    }
+
+    @Test
+    void testLevelIsRespected() {
+        session.setCurrentLetter('y');
+        assertEquals(TurnResult.Outcome.INVALID, engine.submitAnswer(session, "yukon").getOutcome());
+    }
+
+    @Test
+    void testEliminationAndWinner() {
+        TurnResult result = null;
+        int turns = 0;
+        while (!session.isFinished()) {
+            result = engine.submitAnswer(session, "xyz");
+            turns++;
+        }
+        assertEquals(9, turns);
+        assertTrue(result.isGameOver());
+        assertEquals("Aarav", result.getEliminated().getName());
+        assertEquals("Bhavya", result.getWinner().getName());
+        assertEquals(List.of(result.getWinner()), players);
+        assertTrue(session.isFinished());
+        assertThrows(IllegalStateException.class, () -> engine.submitAnswer(session, "spain"));
+    }
+
+    @Test
+    void testDeadEndSkip() {
+        TurnResult result = engine.submitAnswer(session, "sweden");
+        assertEquals(0, result.getDeadLetter());
+        result = engine.submitAnswer(session, "nepal");
+        assertEquals('l', result.getDeadLetter());
+        assertEquals('n', result.getNextLetter());
+        assertNull(result.getPassedOver());
+        assertEquals("Aarav", result.getNextPlayer().getName());
+    }
+
+    @Test
+    void testDeadEndReroll() {
+        session.setDeadEndRule(DeadEndRule.REROLL);
+        session.setCurrentLetter('n');
+        TurnResult result = engine.submitAnswer(session, "nepal");
+        assertEquals('l', result.getDeadLetter());
+        assertEquals('s', result.getNextLetter());
+    }
+
+    @Test
+    void testDeadEndNoPenalty() {
+        players.add(new Player("Chirag"));
+        session.setDeadEndRule(DeadEndRule.NO_PENALTY);
+        session.setCurrentLetter('n');
+        TurnResult result = engine.submitAnswer(session, "nepal");
+        assertEquals('l', result.getDeadLetter());
+        assertEquals("Bhavya", result.getPassedOver().getName());
+        assertEquals("Chirag", result.getNextPlayer().getName());
+        assertEquals('s', result.getNextLetter());
+        assertEquals(0, result.getPassedOver().getLettersAssigned());
+    }
+
+    @Test
+    void testTimeout() {
+        long turn = session.getTurn();
+        TurnResult result = engine.timeout(session);
+        assertEquals(TurnResult.Outcome.TIMEOUT, result.getOutcome());
+        assertEquals('L', result.getLetterAssigned());
+        assertEquals("Bhavya", result.getNextPlayer().getName());
+        assertEquals('s', result.getNextLetter());
+        assertEquals(turn + 1, session.getTurn());
+        engine.submitAnswer(session, "spian");
+        assertEquals(turn + 1, session.getTurn());
+    }
+
+    @Test
+    void testLongGameInLoop() {
+        Gazetteer big = new Gazetteer();
+        for (int i = 0; i < 200000; i++) {
+            big.add("s" + i + "s", Category.COUNTRY);
+        }
+        TurnEngine bigEngine = new TurnEngine(big, new SpellingIndex(big));
+        GameSession bigSession = new GameSession(players, big, Difficulty.HARD, new Random(1));
+        bigEngine.start(bigSession);
+        bigSession.setCurrentLetter('s');
+        for (int i = 0; i < big.size(); i++) {
+            assertEquals(TurnResult.Outcome.CORRECT, bigEngine.submitAnswer(bigSession, big.nameAt(i)).getOutcome());
+        }
+        assertEquals(0, bigSession.getAnswers().remainingTotal());
+        assertFalse(bigSession.isFinished());
+    }
+}
@@ -0,0 +1,91 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TurnTimerTest {
+    private long now;
+    private TurnTimer timer;
+    private List<String> fired;
+
+    @BeforeEach
+    void setUp() {
+        now = 1000;
+        timer = new TurnTimer(10, 8, () -> now);
+        fired = new ArrayList<>();
+    }
+
+    @Test
+    void testFiresAtDeadline() {
+        TurnTimer.Timeout timeout = timer.schedule(25, () -> fired.add("a"));
+        assertEquals(1025, timeout.getDeadline());
+        now = 1024;
+        assertEquals(0, timer.advance());
+        now = 1030;
+        assertEquals(1, timer.advance());
+        assertEquals(List.of("a"), fired);
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timer.pending());
+    }
+
+    @Test
+    void testCancel() {
+        TurnTimer.Timeout first = timer.schedule(20, () -> fired.add("first"));
+        timer.schedule(20, () -> fired.add("second"));
+        assertTrue(first.cancel());
+        assertFalse(first.cancel());
+        assertTrue(first.isCancelled());
+        now = 1100;
+        timer.advance();
+        assertEquals(List.of("second"), fired);
+    }
+
+    @Test
+    void testDeadlinesBeyondOneTurnOfTheWheel() {
+        timer.schedule(500, () -> fired.add("late"));
+        timer.schedule(30, () -> fired.add("early"));
+        for (now = 1000; now < 1490; now += 10) {
+            timer.advance();
+        }
+        assertEquals(List.of("early"), fired);
+        now = 1500;
+        timer.advance();
+        assertEquals(List.of("early", "late"), fired);
+    }
+
+    @Test
+    void testTaskCanReschedule() {
+        timer.schedule(10, () -> timer.schedule(10, () -> fired.add("again")));
+        now = 1010;
+        timer.advance();
+        assertTrue(fired.isEmpty());
+        now = 1020;
+        timer.advance();
+        assertEquals(List.of("again"), fired);
+    }
+
+    @Test
+    void testManyTurns() {
+        TurnTimer wheel = new TurnTimer(100, 512, () -> now);
+        List<TurnTimer.Timeout> timeouts = new ArrayList<>();
+        int[] count = new int[1];
+        for (int i = 0; i < 100_000; i++) {
+            timeouts.add(wheel.schedule(30_000 + i % 1000, () -> count[0]++));
+        }
+        for (int i = 0; i < timeouts.size(); i += 2) {
+            timeouts.get(i).cancel();
+        }
+        assertEquals(50_000, wheel.pending());
+        now += 29_000;
+        assertEquals(0, wheel.advance());
+        now += 2_100;
+        assertEquals(50_000, wheel.advance());
+        assertEquals(50_000, count[0]);
+    }
+}
@@ -0,0 +1,173 @@
+package persistence;
+
+import model.BotPlayer;
+import model.Category;
+import model.DeadEndRule;
+import model.Difficulty;
+import model.Game;
+import model.GameRecord;
+import model.GameSession;
+import model.Gazetteer;
+import model.Player;
+import model.SeededRandom;
+import model.SpellingIndex;
+import model.TurnEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryGameFormatTest {
+    private Gazetteer places;
+    private GameSession session;
+
+    @BeforeEach
+    void setUp() {
+        places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        TurnEngine engine = new TurnEngine(places, new SpellingIndex(places));
+        List<Player> players = new ArrayList<>(List.of(new Player("Aarav"), new Player("Bhavya"), new Player("Chen")));
+        session = new GameSession(players, places, Difficulty.MEDIUM, new Random(3));
+        session.setDeadEndRule(DeadEndRule.REROLL);
+        engine.start(session);
+        for (int i = 0; i < 12 && !session.isFinished(); i++) {
+            String answer = "xyz";
+            for (String name : session.getAnswers().remainingNames()) {
+                if (name.charAt(0) == session.getCurrentLetter() && i % 4 != 3) {
+                    answer = name;
+                    break;
+                }
+            }
+            engine.submitAnswer(session, answer);
+        }
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        for (boolean compress : new boolean[] {false, true}) {
+            GameSession loaded = BinaryGameFormat.decode(BinaryGameFormat.encode(session, places, compress), places,
+                    new Random());
+            assertEquals(session.getDifficulty(), loaded.getDifficulty());
+            assertEquals(session.getDeadEndRule(), loaded.getDeadEndRule());
+            assertEquals(session.getState(), loaded.getState());
+            assertEquals(session.getCurrentLetter(), loaded.getCurrentLetter());
+            assertEquals(session.getActivePlayer().getName(), loaded.getActivePlayer().getName());
+            assertEquals(session.getAnswers().answeredNames(), loaded.getAnswers().answeredNames());
+            assertEquals(session.getAnswers().remainingTotal(), loaded.getAnswers().remainingTotal());
+            for (int i = 0; i < session.getPlayers().size(); i++) {
+                assertEquals(session.getPlayers().get(i).getName(), loaded.getPlayers().get(i).getName());
+                assertEquals(session.getPlayers().get(i).getAssignedLetters(),
+                        loaded.getPlayers().get(i).getAssignedLetters());
+            }
+        }
+    }
+
+    @Test
+    void testRecordAndRandomStateSurviveBothFormats() throws IOException {
+        TurnEngine engine = new TurnEngine(places, new SpellingIndex(places));
+        GameSession recorded = new GameSession(new ArrayList<>(List.of(new Player("Aarav"), new Player("Bhavya"))),
+                places, Difficulty.EASY, new SeededRandom(11));
+        GameRecord record = GameRecord.of(recorded);
+        engine.start(recorded);
+        engine.submitAnswer(recorded, "xyz");
+        engine.timeout(recorded);
+        long state = ((SeededRandom) recorded.getRandom()).getState();
+
+        GameSession decoded = BinaryGameFormat.decode(BinaryGameFormat.encode(recorded, places, true), places,
+                new SeededRandom(0));
+        assertEquals(record.toJson().toString(), decoded.getRecord().toJson().toString());
+        assertEquals(11, ((SeededRandom) decoded.getRandom()).getSeed());
+        assertEquals(state, ((SeededRandom) decoded.getRandom()).getState());
+
+        GameRecord[] streamed = new GameRecord[1];
+        long[] streamedState = new long[1];
+        GameReader.stream(GameWriter.encode(GameWriter.snapshot(recorded)), new GameReader.Visitor() {
+            @Override
+            public void record(GameRecord record) {
+                streamed[0] = record;
+            }
+
+            @Override
+            public void randomState(long state) {
+                streamedState[0] = state;
+            }
+        });
+        assertEquals(record.toJson().toString(), streamed[0].toJson().toString());
+        assertEquals(state, streamedState[0]);
+        assertNull(BinaryGameFormat.decode(BinaryGameFormat.encode(session, places, false), places,
+                new SeededRandom(0)).getRecord());
+    }
+
+    @Test
+    void testBotSkillSurvivesBothFormats() throws IOException {
+        session.getPlayers().set(1, new BotPlayer("Computer", BotPlayer.Skill.HARD, new Random(5)));
+        GameSession decoded = BinaryGameFormat.decode(BinaryGameFormat.encode(session, places, true), places,
+                new Random());
+        assertFalse(decoded.getPlayers().get(0) instanceof BotPlayer);
+        assertEquals(BotPlayer.Skill.HARD, ((BotPlayer) decoded.getPlayers().get(1)).getSkill());
+        assertEquals("Computer", decoded.getPlayers().get(1).getName());
+
+        List<String> skills = new ArrayList<>();
+        GameReader.stream(GameWriter.encode(GameWriter.snapshot(session)), new GameReader.Visitor() {
+            @Override
+            public void player(String name, List<Character> lettersAssigned, String botSkill) {
+                skills.add(botSkill);
+            }
+        });
+        assertEquals(Arrays.asList(null, "HARD", null), skills);
+    }
+
+    @Test
+    void testSnapshotIsDetachedFromLaterPlay() throws IOException {
+        byte[] before = BinaryGameFormat.encode(session, places, false);
+        String json = GameWriter.snapshot(session).toString();
+        GameSnapshot snapshot = GameSnapshot.of(session);
+        for (int id = 0; id < places.size(); id++) {
+            session.getAnswers().markAnswered(id);
+        }
+        session.getPlayers().get(0).assignLetter('q');
+        session.setCurrentLetter('q');
+        assertArrayEquals(before, BinaryGameFormat.encode(snapshot, places, false));
+        assertEquals(json, GameWriter.snapshot(snapshot).toString());
+    }
+
+    @Test
+    void testMuchSmallerThanJson() throws IOException {
+        Path json = Files.createTempFile("compas", ".json");
+        new GameWriter(json.toString()).save(session);
+        byte[] binary = BinaryGameFormat.encode(session, places, false);
+        assertTrue(BinaryGameFormat.isBinary(binary));
+        assertTrue(binary.length * 10 < Files.size(json), binary.length + " vs " + Files.size(json));
+    }
+
+    @Test
+    void testDenseAnswersUseBitset() throws IOException {
+        for (int id = 0; id < places.size(); id += 2) {
+            session.getAnswers().markAnswered(id);
+        }
+        byte[] save = BinaryGameFormat.encode(session, places, false);
+        assertTrue(save.length < 100 + places.size() / 8);
+        assertEquals(session.getAnswers().answeredNames(),
+                BinaryGameFormat.decode(save, places, new Random()).getAnswers().answeredNames());
+    }
+
+    @Test
+    void testRejectsOtherPlacesAndCorruption() throws IOException {
+        byte[] save = BinaryGameFormat.encode(session, places, true);
+        Gazetteer changed = new Gazetteer();
+        Game.addDefaultPlaces(changed);
+        changed.add("zanzibar", Category.STATE);
+        assertThrows(IOException.class, () -> BinaryGameFormat.decode(save, changed, new Random()));
+        save[save.length - 1] ^= 1;
+        assertThrows(IOException.class, () -> BinaryGameFormat.decode(save, places, new Random()));
+        assertThrows(IOException.class, () -> BinaryGameFormat.decode(new byte[] {'{'}, places, new Random()));
+    }
+}
@@ -0,0 +1,88 @@
+package persistence;
+
+import model.Category;
+import model.DawgGazetteer;
+import model.Difficulty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DawgTest {
+    private static final List<String> NAMES = Arrays.asList("spain", "sweden", "Singapore", "sri lanka",
+            "south africa", "south sudan", "chad", "chile", "china", "ch", "s\u00e3o paulo", "sweden", "");
+    private DawgGazetteer dawg;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = Files.createTempFile("gazetteer", ".dawg");
+        file.toFile().deleteOnExit();
+        Map<String, Category> places = new LinkedHashMap<>();
+        for (String name : NAMES) {
+            places.put(name, name.startsWith("s") ? Category.COUNTRY : Category.CITY);
+        }
+        places.put("ohio", Category.STATE);
+        new DawgWriter(file.toString()).write(places);
+        dawg = new DawgReader(file.toString()).read();
+    }
+
+    @Test
+    void testLookupRoundTrip() {
+        assertEquals(12, dawg.size());
+        List<String> names = new ArrayList<>();
+        for (int id = 0; id < dawg.size(); id++) {
+            names.add(dawg.nameAt(id));
+            assertEquals(id, dawg.indexOf(dawg.nameAt(id)));
+        }
+        assertEquals(Arrays.asList("ch", "chad", "chile", "china", "ohio", "singapore", "south africa",
+                "south sudan", "spain", "sri lanka", "sweden", "s\u00e3o paulo"), names);
+    }
+
+    @Test
+    void testMissingNames() {
+        assertEquals(-1, dawg.indexOf("c"));
+        assertEquals(-1, dawg.indexOf("chil"));
+        assertEquals(-1, dawg.indexOf("chiles"));
+        assertEquals(-1, dawg.indexOf("Spain"));
+        assertEquals(-1, dawg.indexOf(""));
+        assertTrue(dawg.contains("s\u00e3o paulo"));
+    }
+
+    @Test
+    void testLettersAndPrefixes() {
+        assertEquals(4, dawg.countStartingWith('c'));
+        assertEquals(7, dawg.countStartingWith('s'));
+        assertEquals(0, dawg.countStartingWith('x'));
+        assertEquals("singapore", dawg.nameAt(dawg.idStartingWith('s', 0)));
+        assertEquals('s', dawg.firstLetter(dawg.indexOf("sweden")));
+        assertEquals(2, dawg.countWithPrefix("south "));
+        assertEquals("south africa", dawg.nameAt(dawg.firstIdWithPrefix("south")));
+        assertEquals(-1, dawg.firstIdWithPrefix("x"));
+    }
+
+    @Test
+    void testCategoriesAndViews() {
+        assertEquals(Category.CITY, dawg.categoryOf(dawg.indexOf("chad")));
+        assertEquals(Category.STATE, dawg.categoryOf(dawg.indexOf("ohio")));
+        assertEquals(Category.COUNTRY, dawg.categoryOf(dawg.indexOf("sweden")));
+        assertEquals(12, dawg.view(Difficulty.EASY).size());
+        assertEquals(7, dawg.view(Difficulty.MEDIUM).size());
+        assertEquals(0, dawg.view(Difficulty.HARD).countStartingWith('c'));
+        assertEquals(1, dawg.view(Difficulty.MEDIUM).countStartingWith('o'));
+    }
+
+    @Test
+    void testRejectsOtherFiles() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DawgGazetteer(java.nio.ByteBuffer.wrap(new byte[16])));
+    }
+}
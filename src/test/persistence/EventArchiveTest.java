@@ -0,0 +1,83 @@
+package persistence;
+
+import model.Event;
+import model.EventType;
+import model.TurnResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventArchiveTest {
+    private static final String[] PLAYERS = {"Aarav", "Bhavya", "Chen", "Dara"};
+    private static final int EVENTS = 2000;
+
+    private Path directory;
+    private List<Event> logged;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("compas-archive");
+        EventSegmentWriter writer = new EventSegmentWriter(directory.toString(), 16 * 1024, 64, 1000);
+        writer.setArchive(new EventArchive(directory.toString()));
+        logged = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            long session = 1 + i / 500;
+            Event e = new Event(1000L * i, session, EventType.TURN_PLAYED, PLAYERS[i % PLAYERS.length],
+                    (char) ('a' + i % 26), TurnResult.Outcome.CORRECT);
+            logged.add(e);
+            writer.write(List.of(e));
+        }
+        writer.close();
+    }
+
+    @Test
+    void testArchivesSealedSegments() throws IOException {
+        List<Path> files = EventSegmentWriter.segments(directory);
+        assertTrue(files.size() > 2);
+        for (Path file : files.subList(0, files.size() - 1)) {
+            assertTrue(EventArchive.isArchive(file));
+        }
+        assertFalse(EventArchive.isArchive(files.get(files.size() - 1)));
+        assertEquals(descriptions(logged), descriptions(new EventSegmentReader(directory.toString()).readAll()));
+    }
+
+    @Test
+    void testQuery() throws IOException {
+        EventArchive archive = new EventArchive(directory.toString());
+        EventQuery query = new EventQuery(300_000, 1_200_000).inSession(2).byPlayer("Bhavya");
+        List<Event> expected = logged.stream().filter(query::matches).collect(Collectors.toList());
+        List<Event> found = archive.query(query).collect(Collectors.toList());
+        assertFalse(expected.isEmpty());
+        assertEquals(descriptions(expected), descriptions(found));
+        for (Event e : found) {
+            assertEquals(2, e.getSession());
+            assertTrue(e.getTimestamp() >= 500_000 && e.getTimestamp() <= 1_200_000);
+        }
+        assertEquals(0, archive.query(new EventQuery(0, Long.MAX_VALUE).byPlayer("Nobody")).count());
+        assertEquals(EVENTS, archive.query(new EventQuery(0, Long.MAX_VALUE)).count());
+    }
+
+    @Test
+    void testIndexSkipsBlocks() throws IOException {
+        EventArchive archive = new EventArchive(directory.toString());
+        Path first = EventSegmentWriter.segments(directory).get(0);
+        ArchiveIndex index = archive.indexOf(first);
+        assertTrue(index.size() > 1);
+        assertEquals(1, index.candidates(new EventQuery(0, 0)).cardinality());
+        assertEquals(0, index.candidates(new EventQuery(0, Long.MAX_VALUE).inSession(4)).cardinality());
+        assertEquals(index.size(), index.candidates(new EventQuery(0, Long.MAX_VALUE).byPlayer("Chen")).cardinality());
+        assertTrue(archive.query(new EventQuery(0, Long.MAX_VALUE)).findFirst().isPresent());
+    }
+
+    private static List<String> descriptions(List<Event> events) {
+        return events.stream().map(e -> e.getTimestamp() + " " + e.getDescription()).collect(Collectors.toList());
+    }
+}
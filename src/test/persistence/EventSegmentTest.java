@@ -0,0 +1,97 @@
+package persistence;
+
+import model.Event;
+import model.EventDrainer;
+import model.EventLog;
+import model.EventType;
+import model.TurnResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventSegmentTest {
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("compas-events");
+    }
+
+    @Test
+    void testDrainAndReplay() throws IOException {
+        EventLog log = new EventLog(64, EventLog.OverflowPolicy.DROP_OLDEST);
+        EventDrainer drainer = new EventDrainer(log,
+                new EventSegmentWriter(directory.toString(), 1 << 20, 16, 1000), 8, 5);
+        log.log(EventType.PLAYER_ADDED, "Aarav", null);
+        log.log(EventType.TURN_PLAYED, "Aarav", 's', TurnResult.Outcome.CORRECT);
+        log.logEvent(new Event("free text"));
+        drainer.close();
+
+        assertEquals(3, drainer.getWritten());
+        assertEquals(0, drainer.getFailures());
+        List<Event> events = new EventSegmentReader(directory.toString()).readAll();
+        assertEquals(3, events.size());
+        assertEquals(EventType.TURN_PLAYED, events.get(1).getType());
+        assertEquals("Aarav", events.get(1).getPlayer());
+        assertEquals('s', events.get(1).getLetter());
+        assertEquals("Aarav: CORRECT on letter 's'.", events.get(1).getDescription());
+        assertEquals("free text", events.get(2).getDescription());
+    }
+
+    @Test
+    void testIdleDrainerSyncsWhenDue() throws IOException, InterruptedException {
+        EventLog log = new EventLog(64, EventLog.OverflowPolicy.DROP_OLDEST);
+        EventSegmentWriter writer = new EventSegmentWriter(directory.toString(), 1 << 20, 100, 20);
+        EventDrainer drainer = new EventDrainer(log, writer, 8, 5);
+        log.logEvent(new Event("last before quiet"));
+        for (int i = 0; i < 200 && (drainer.getWritten() == 0 || writer.getUnsynced() > 0); i++) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, drainer.getWritten());
+        assertEquals(0, writer.getUnsynced());
+        drainer.close();
+    }
+
+    @Test
+    void testRollingSegments() throws IOException {
+        EventSegmentWriter writer = new EventSegmentWriter(directory.toString(), 200, 1, 0);
+        for (int i = 0; i < 20; i++) {
+            writer.write(List.of(new Event(i, EventType.MESSAGE, null, '\0', "event " + i)));
+        }
+        writer.close();
+
+        assertTrue(EventSegmentWriter.segments(directory).size() > 1);
+        List<Event> events = new EventSegmentReader(directory.toString()).readAll();
+        assertEquals(20, events.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, events.get(i).getTimestamp());
+            assertEquals("event " + i, events.get(i).getDescription());
+        }
+
+        new EventSegmentWriter(directory.toString(), 200, 1, 0).close();
+        assertEquals(20, new EventSegmentReader(directory.toString()).readAll().size());
+    }
+
+    @Test
+    void testTornTail() throws IOException {
+        EventSegmentWriter writer = new EventSegmentWriter(directory.toString(), 1 << 20, 100, 1000);
+        writer.write(List.of(new Event("first"), new Event("second"), new Event("third")));
+        writer.close();
+
+        List<Path> segments = EventSegmentWriter.segments(directory);
+        try (FileChannel channel = FileChannel.open(segments.get(0), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        List<Event> events = new EventSegmentReader(directory.toString()).readAll();
+        assertEquals(2, events.size());
+        assertEquals("second", events.get(1).getDescription());
+    }
+}
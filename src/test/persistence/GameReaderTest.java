@@ -5,10 +5,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class GameReaderTest {
@@ -51,4 +55,60 @@ public class GameReaderTest {
         }
     }
 
+    @Test
+    void testStreamGame() throws IOException {
+        String path = Files.createTempFile("compas", ".json").toString();
+        ArrayList<JSONObject> listOfPlayers = new ArrayList<>();
+        listOfPlayers.add(new JSONObject().put("name", "Aarav").put("lettersAssigned", List.of('L', 'O')));
+        listOfPlayers.add(new JSONObject().put("name", "Bhavya \"B\"").put("lettersAssigned", List.of()));
+        List<String> left = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            left.add("place " + i);
+        }
+        List<String> answered = List.of("cote d'ivoire", "tab\tand\\slash", "");
+        new GameWriter(path).save('c', listOfPlayers, left, answered, "Aarav", "HARD", "REROLL");
+
+        List<String> players = new ArrayList<>();
+        List<String> streamedLeft = new ArrayList<>();
+        List<String> streamedAnswered = new ArrayList<>();
+        StringBuilder settings = new StringBuilder();
+        assertTrue(new GameReader(path).stream(new GameReader.Visitor() {
+            public void player(String name, List<Character> letters) {
+                players.add(name + letters);
+            }
+
+            public void countryLeft(String name) {
+                streamedLeft.add(name);
+            }
+
+            public void countryAnswered(String name) {
+                streamedAnswered.add(name);
+            }
+
+            public void difficulty(String difficulty) {
+                settings.append(difficulty).append(' ');
+            }
+
+            public void currentLetter(char letter) {
+                settings.append(letter).append(' ');
+            }
+        }));
+        assertEquals(List.of("Aarav[L, O]", "Bhavya \"B\"[]"), players);
+        assertEquals(left, streamedLeft);
+        assertEquals(answered, streamedAnswered);
+        assertTrue(settings.toString().contains("HARD "));
+        assertTrue(settings.toString().contains("c "));
+    }
+
+    @Test
+    void testStreamEmptyGame() throws IOException {
+        assertFalse(new GameReader("data/emptyGame.json").stream(new GameReader.Visitor() { }));
+    }
+
+    @Test
+    void testStreamBadEscape() {
+        byte[] save = "{\"data\": {\"currentLetter\": \"\\uzz41\"}}".getBytes(StandardCharsets.UTF_8);
+        IOException e = assertThrows(IOException.class, () -> GameReader.stream(save, new GameReader.Visitor() { }));
+        assertEquals("Bad escape \\uzz41 in JSON", e.getMessage());
+    }
 }
@@ -0,0 +1,89 @@
+package persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveQueueTest {
+    private Path directory;
+    private SaveQueue queue;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("compas-saves");
+        queue = new SaveQueue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.close();
+    }
+
+    @Test
+    void testBurstCoalesces() throws IOException, InterruptedException {
+        Path target = directory.resolve("data.json");
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue.save(target, () -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return bytes("first");
+        });
+        writing.await();
+        for (int i = 0; i < 100; i++) {
+            String save = "save " + i;
+            queue.save(target, () -> bytes(save));
+        }
+        release.countDown();
+        assertTrue(queue.awaitIdle(5000));
+        assertEquals(2, queue.getWritten());
+        assertEquals(99, queue.getCoalesced());
+        assertEquals("save 99", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(directory.resolve("data.json" + AtomicFile.TEMP_SUFFIX)));
+    }
+
+    @Test
+    void testFailedSaveKeepsPreviousFile() throws IOException, InterruptedException {
+        Path target = directory.resolve("data.json");
+        AtomicFile.write(target, bytes("good"));
+        queue.save(target, () -> {
+            throw new IOException("disk full");
+        });
+        assertTrue(queue.awaitIdle(5000));
+        assertEquals(1, queue.getFailures());
+        assertEquals("disk full", queue.getLastFailure().getMessage());
+        assertEquals("good", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+
+        queue.save(target, () -> bytes("better"));
+        assertTrue(queue.awaitIdle(5000));
+        assertEquals("better", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testTargetsAreIndependent() throws InterruptedException, IOException {
+        for (int i = 0; i < 5; i++) {
+            String name = "room" + i + ".json";
+            queue.save(directory.resolve(name), () -> bytes(name));
+        }
+        assertTrue(queue.awaitIdle(5000));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(Files.exists(directory.resolve("room" + i + ".json")));
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,139 @@
+package persistence;
+
+import model.Difficulty;
+import model.Game;
+import model.GameSession;
+import model.Gazetteer;
+import model.Player;
+import model.SpellingIndex;
+import model.TurnEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveStoreTest {
+    private Path directory;
+    private SaveStore store;
+    private GameSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("compas-store");
+        store = new SaveStore(directory, 4);
+        Gazetteer places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        List<Player> players = new ArrayList<>(List.of(new Player("Aarav"), new Player("Bhavya")));
+        session = new GameSession(players, places, Difficulty.MEDIUM, new Random(5));
+        session.setId(42);
+        new TurnEngine(places, new SpellingIndex(places)).start(session);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void testSaveListAndLoad() throws IOException {
+        store.save(SaveStore.slotOf(session.getId()), session);
+        store.put("other", List.of("Chen"), GameWriter.encode(GameWriter.snapshot(session)));
+        assertEquals(2, store.size());
+        assertEquals(List.of("Aarav", "Bhavya"), store.get("session-42").getPlayers());
+
+        store.close();
+        store = new SaveStore(directory, 4);
+        assertEquals(2, store.list().size());
+        List<String> players = new ArrayList<>();
+        long[] id = new long[1];
+        assertTrue(store.load("session-42", new GameReader.Visitor() {
+            @Override
+            public void player(String name, List<Character> lettersAssigned) {
+                players.add(name);
+            }
+
+            @Override
+            public void sessionId(long sessionId) {
+                id[0] = sessionId;
+            }
+        }));
+        assertEquals(List.of("Aarav", "Bhavya"), players);
+        assertEquals(42, id[0]);
+        assertFalse(store.load("missing", new GameReader.Visitor() { }));
+    }
+
+    @Test
+    void testResavingCompactsAndDeleteSurvivesReopen() throws IOException {
+        for (int i = 0; i < 200; i++) {
+            store.save("slot" + (i % 3), session);
+        }
+        assertTrue(store.delete("slot1"));
+        assertFalse(store.delete("slot1"));
+        long dataBytes = 0;
+        for (Path file : Files.newDirectoryStream(directory, "*.dat")) {
+            dataBytes += Files.size(file);
+        }
+        assertTrue(dataBytes < 50L * store.get("slot0").getLength(), "data file is " + dataBytes + " bytes");
+
+        store.close();
+        store = new SaveStore(directory, 4);
+        assertEquals(2, store.size());
+        assertNull(store.get("slot1"));
+        assertNotNull(store.read("slot2"));
+    }
+
+    @Test
+    void testJournalTailFollowsItsSlot() throws IOException {
+        byte[] tail = "{\"seq\": 1}\n".getBytes(StandardCharsets.UTF_8);
+        assertFalse(store.putTail("a", tail));
+        store.save("a", session, 0);
+        assertEquals(0, store.readTail("a").length);
+        assertTrue(store.putTail("a", tail));
+        store.close();
+        store = new SaveStore(directory, 4);
+        assertArrayEquals(tail, store.readTail("a"));
+        store.compact();
+        assertArrayEquals(tail, store.readTail("a"));
+
+        store.save("a", session, 1);
+        assertEquals(0, store.readTail("a").length);
+        assertTrue(store.putTail("a", tail));
+        assertTrue(store.delete("a"));
+        store.close();
+        store = new SaveStore(directory, 4);
+        assertEquals(0, store.readTail("a").length);
+    }
+
+    @Test
+    void testTornIndexLineAndCorruptSave() throws IOException {
+        store.save("a", session);
+        Files.write(directory.resolve(SaveStore.INDEX_FILE), "{\"slot\": \"b\", \"pla".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        store.close();
+        store = new SaveStore(directory, 0);
+        assertEquals(1, store.size());
+        store.save("c", session);
+        store.close();
+        store = new SaveStore(directory, 0);
+        assertEquals(2, store.size());
+
+        SaveStore.Entry entry = store.get("a");
+        Path file = Files.newDirectoryStream(directory, "*.dat").iterator().next();
+        try (FileChannel data = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            data.write(ByteBuffer.wrap(new byte[] {'#'}), entry.getOffset() + 5);
+        }
+        assertThrows(IOException.class, () -> store.read("a"));
+    }
+}
@@ -0,0 +1,171 @@
+package persistence;
+
+import model.Difficulty;
+import model.Game;
+import model.GameRecord;
+import model.GameSession;
+import model.Gazetteer;
+import model.Player;
+import model.SeededRandom;
+import model.SpellingIndex;
+import model.TurnEngine;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TurnJournalTest {
+    private Gazetteer places;
+    private TurnEngine engine;
+    private GameSession session;
+    private String path;
+    private TurnJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        engine = new TurnEngine(places, new SpellingIndex(places));
+        List<Player> players = new ArrayList<>(List.of(new Player("Aarav"), new Player("Bhavya"), new Player("Chen")));
+        session = new GameSession(players, places, Difficulty.HARD, new SeededRandom(7));
+        GameRecord.of(session);
+        engine.start(session);
+        path = Files.createTempDirectory("compas-journal").resolve("data.json").toString();
+        journal = new TurnJournal(path, 10);
+    }
+
+    @Test
+    void testSaveAppendsOnlyNewTurns() throws IOException {
+        assertTrue(journal.save(session));
+        assertFalse(Files.exists(Path.of(path + TurnJournal.SUFFIX)));
+        play(3);
+        assertFalse(journal.save(session));
+        play(4);
+        assertFalse(journal.save(session));
+        assertEquals(7, Files.readAllLines(Path.of(path + TurnJournal.SUFFIX)).size());
+        assertSameGame(session, load());
+
+        play(3);
+        assertTrue(journal.save(session));
+        assertFalse(Files.exists(Path.of(path + TurnJournal.SUFFIX)));
+        assertSameGame(session, load());
+    }
+
+    @Test
+    void testTornTailIsIgnored() throws IOException {
+        journal.save(session);
+        play(5);
+        journal.save(session);
+        Files.write(Path.of(path + TurnJournal.SUFFIX), "{\"seq\": 6, \"pla".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        assertSameGame(session, load());
+    }
+
+    @Test
+    void testPlainSaveIgnoresJournal() throws IOException {
+        journal.save(session);
+        play(4);
+        journal.save(session);
+        new GameWriter(path).save(session);
+        Files.write(Path.of(path + TurnJournal.SUFFIX), "{\"seq\": 99}\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        assertSameGame(session, load());
+    }
+
+    @Test
+    void testTailReplaysOnACopyOfTheSnapshot() throws IOException {
+        assertTrue(journal.save(session));
+        long sequence = journal.getSequence();
+        play(5);
+        journal.save(session);
+        play(2);
+        journal.save(session);
+        byte[] tail = journal.tail();
+        Files.delete(Path.of(path + TurnJournal.SUFFIX));
+
+        GameSession loaded = load();
+        assertEquals(7, TurnJournal.replayTail(sequence, tail, loaded, places));
+        assertSameGame(session, loaded);
+        assertEquals(0, TurnJournal.replayTail(sequence - 1, tail, load(), places));
+
+        assertTrue(new TurnJournal(path, 10).save(session));
+        assertEquals(0, journal.replay(new GameReader(path).read(), load(), places));
+        assertEquals(0, journal.tail().length);
+    }
+
+    /**
+     * Plays n turns, answering with a playable place when there is one and giving a wrong answer otherwise.
+     */
+    private void play(int n) {
+        for (int i = 0; i < n && !session.isFinished(); i++) {
+            String answer = "xyz";
+            for (String name : session.getAnswers().remainingNames()) {
+                if (name.charAt(0) == session.getCurrentLetter() && i % 3 != 2) {
+                    answer = name;
+                    break;
+                }
+            }
+            journal.record(session, engine.submitAnswer(session, answer));
+        }
+    }
+
+    /**
+     * Loads the saved game the way Game.handleLoad does and replays the journal on top of it.
+     */
+    private GameSession load() throws IOException {
+        JSONObject data = new GameReader(path).read();
+        List<Player> players = new ArrayList<>();
+        JSONArray saved = data.getJSONArray("listOfPlayers");
+        for (int i = 0; i < saved.length(); i++) {
+            Player p = new Player(saved.getJSONObject(i).getString("name"));
+            JSONArray letters = saved.getJSONObject(i).getJSONArray("lettersAssigned");
+            for (int j = 0; j < letters.length(); j++) {
+                p.assignLetter(letters.getString(j).charAt(0));
+                p.incrementLettersAssigned();
+            }
+            players.add(p);
+        }
+        SeededRandom numbers = new SeededRandom(7);
+        numbers.setState(data.getLong(GameWriter.RANDOM_KEY));
+        GameSession loaded = new GameSession(players, places, Difficulty.valueOf(data.getString("difficulty")),
+                numbers);
+        loaded.setRecord(GameRecord.fromJson(data.getJSONObject(GameWriter.RECORD_KEY)));
+        JSONArray answered = data.getJSONArray("countriesAnswered");
+        for (int i = 0; i < answered.length(); i++) {
+            loaded.getAnswers().markAnswered(places.indexOf(answered.getString(i)));
+        }
+        loaded.setCurrentLetter(data.getString("currentLetter").charAt(0));
+        for (Player p : players) {
+            if (p.getName().equals(data.getString("activePlayer"))) {
+                loaded.setActivePlayerIndex(players.indexOf(p));
+            }
+        }
+        new TurnJournal(path, 10).replay(data, loaded, places);
+        return loaded;
+    }
+
+    private static void assertSameGame(GameSession expected, GameSession actual) {
+        assertEquals(expected.getRecord().toJson().toString(), actual.getRecord().toJson().toString());
+        assertEquals(((SeededRandom) expected.getRandom()).getState(), ((SeededRandom) actual.getRandom()).getState());
+        assertEquals(expected.getCurrentLetter(), actual.getCurrentLetter());
+        assertEquals(expected.getState(), actual.getState());
+        assertEquals(expected.getActivePlayer().getName(), actual.getActivePlayer().getName());
+        assertEquals(expected.getAnswers().answeredNames(), actual.getAnswers().answeredNames());
+        assertEquals(expected.getPlayers().size(), actual.getPlayers().size());
+        for (int i = 0; i < expected.getPlayers().size(); i++) {
+            assertEquals(expected.getPlayers().get(i).getName(), actual.getPlayers().get(i).getName());
+            assertEquals(expected.getPlayers().get(i).getAssignedLetters(),
+                    actual.getPlayers().get(i).getAssignedLetters());
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package server;
+
+import model.Game;
+import model.GameEvent;
+import model.Gazetteer;
+import model.SpellingIndex;
+import model.TurnEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+    private static final Map<Character, String> ANSWERS = Map.of(
+            'a', "albania", 't', "turkey", 'l', "latvia", 's', "spain");
+
+    private TurnEngine engine;
+    private GameServer server;
+    private int port;
+    private Path saves;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Gazetteer places = new Gazetteer();
+        Game.addDefaultPlaces(places);
+        saves = Files.createTempDirectory("compas");
+        engine = new TurnEngine(places, new SpellingIndex(places));
+        server = new GameServer(engine, 60_000, saves.toString());
+        port = server.start(0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void testPlayOverLocalhost() throws IOException, InterruptedException {
+        try (Client aarav = new Client(); Client bhavya = new Client()) {
+            assertEquals("OK joined r1 as Aarav", aarav.call("join r1 Aarav"));
+            assertEquals("OK joined r1 as Bhavya", bhavya.call("join r1 Bhavya"));
+            assertTrue(bhavya.call("join r1 Again").startsWith("ERR Already in room"));
+            String turn = aarav.call("start");
+            assertEquals(turn, bhavya.read());
+            Client active = turn.endsWith("Aarav") ? aarav : bhavya;
+            Client waiting = active == aarav ? bhavya : aarav;
+            assertEquals("ERR It is not your turn", waiting.call("answer spain"));
+            char letter = turn.charAt("TURN ".length());
+            String place = ANSWERS.get(letter);
+            assertEquals("RESULT " + active.name + " CORRECT " + place, active.call("answer " + place));
+            assertEquals("RESULT " + active.name + " CORRECT " + place, waiting.read());
+            String next = "TURN " + place.charAt(place.length() - 1) + " " + waiting.name;
+            assertEquals(next, active.read());
+            assertEquals(next, waiting.read());
+            assertEquals("STATUS " + next + " Aarav=0 Bhavya=0", aarav.call("status"));
+            assertEquals("OK saved " + saves.resolve("r1.json"), waiting.call("save"));
+            assertEquals("OK saved " + saves.resolve("r1.sav"), waiting.call("save binary"));
+            assertTrue(server.getSaves().awaitIdle(5000));
+            assertTrue(Files.exists(saves.resolve("r1.json")));
+            assertTrue(Files.size(saves.resolve("r1.sav")) < Files.size(saves.resolve("r1.json")));
+            assertEquals("BYE", aarav.call("quit"));
+        }
+        assertEquals(1, server.getAnswerLatency().count());
+        assertTrue(server.getAnswerLatency().percentile(99) > 0);
+    }
+
+    @Test
+    void testLoadBinarySave() throws IOException, InterruptedException {
+        String status;
+        String record;
+        try (Client aarav = new Client(); Client bhavya = new Client()) {
+            aarav.call("join r4 Aarav");
+            bhavya.call("join r4 Bhavya");
+            String turn = aarav.call("start");
+            bhavya.read();
+            Client active = turn.endsWith("Aarav") ? aarav : bhavya;
+            Client waiting = active == aarav ? bhavya : aarav;
+            assertTrue(active.call("answer xyz").endsWith("letter=L"));
+            active.read();
+            waiting.read();
+            waiting.read();
+            status = aarav.call("status");
+            record = aarav.call("record");
+            assertTrue(record.startsWith("RECORD {") && record.contains("\"inputs\":[\"xyz\"]"), record);
+            assertEquals("REPLAY 0 " + turn + " Aarav=0 Bhavya=0", aarav.call("replay 0"));
+            assertEquals("REPLAY 1 " + status.substring("STATUS ".length()), aarav.call("replay 1"));
+            assertEquals("ERR The record has 1 inputs", aarav.call("replay 2"));
+            assertEquals("OK saved " + saves.resolve("r4.sav"), aarav.call("save binary"));
+            assertTrue(server.getSaves().awaitIdle(5000));
+            assertEquals("ERR The game in r4 has already started", aarav.call("load"));
+        }
+        Files.copy(saves.resolve("r4.sav"), saves.resolve("r5.sav"));
+        try (Client aarav = new Client(); Client bhavya = new Client(); Client chirag = new Client()) {
+            aarav.call("join r5 Aarav");
+            chirag.call("join r5 Chirag");
+            assertEquals("ERR Bhavya has not joined", aarav.call("load"));
+            bhavya.call("join r5 Bhavya");
+            String turn = bhavya.call("load");
+            assertEquals(turn, aarav.read());
+            assertEquals(status, aarav.call("status"));
+            assertEquals(record, aarav.call("record"));
+            chirag.call("quit");
+        }
+        try (Client aarav = new Client(); Client bhavya = new Client()) {
+            aarav.call("join r6 Aarav");
+            bhavya.call("join r6 Bhavya");
+            assertTrue(aarav.call("load").startsWith("ERR Could not load r6"));
+        }
+    }
+
+    @Test
+    void testErrors() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("ERR Join a room first", client.call("status"));
+            assertEquals("ERR Unknown command dance", client.call("dance"));
+            assertEquals("ERR Usage: join <room> <name>", client.call("join"));
+            client.call("join r2 Aarav");
+            assertEquals("ERR At least two players must join first", client.call("start"));
+            assertEquals("ERR The game has not started", client.call("answer spain"));
+        }
+    }
+
+    @Test
+    void testSpectatorsGetDeltasOnceAcked() throws IOException {
+        try (Client aarav = new Client(); Client bhavya = new Client(); Client spectator = new Client()) {
+            assertEquals("ERR There is no room r3", spectator.call("watch r3"));
+            aarav.call("join r3 Aarav");
+            bhavya.call("join r3 Bhavya");
+            assertEquals("ERR The game has not started", spectator.call("watch r3"));
+            String turn = aarav.call("start");
+            bhavya.read();
+            assertEquals("OK watching r3", spectator.call("watch r3"));
+            DataInputStream snapshot = decode(spectator.read(), "SNAPSHOT 0 ");
+            assertFalse(snapshot.readBoolean());
+            assertEquals(turn.charAt("TURN ".length()), snapshot.readByte());
+            assertEquals(turn.substring("TURN x ".length()), snapshot.readUTF());
+
+            Client active = turn.endsWith("Aarav") ? aarav : bhavya;
+            Client waiting = active == aarav ? bhavya : aarav;
+            for (Client player : List.of(active, waiting)) {
+                player.call("answer xyz");
+                aarav.read();
+                bhavya.read();
+                (player == aarav ? bhavya : aarav).read();
+            }
+            DataInputStream delta = decode(spectator.call("ack 0"), "DELTA 1 ");
+            assertEquals(2, delta.readByte());
+            assertEquals(GameEvent.Type.LETTER_ASSIGNED.ordinal(), delta.readByte());
+            assertEquals(active.name, delta.readUTF());
+            assertEquals('L', delta.readByte());
+            assertEquals(GameEvent.Type.NEXT_TURN.ordinal(), delta.readByte());
+            assertEquals(waiting.name, delta.readUTF());
+            assertTrue(spectator.call("ack 1").startsWith("DELTA 2 "));
+            assertEquals("ERR Usage: ack <version>", spectator.call("ack two"));
+        }
+    }
+
+    @Test
+    void testSpectatorsResyncAfterMissedEvents() throws IOException, InterruptedException {
+        try (Client aarav = new Client(); Client bhavya = new Client(); Client spectator = new Client()) {
+            aarav.call("join r7 Aarav");
+            bhavya.call("join r7 Bhavya");
+            String turn = aarav.call("start");
+            bhavya.read();
+            assertEquals("OK watching r7", spectator.call("watch r7"));
+            assertTrue(spectator.read().startsWith("SNAPSHOT 0 "));
+            spectator.send("ack 0");
+            BlockingQueue<GameEvent> seen = new LinkedBlockingQueue<>();
+            engine.getEvents().subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(GameEvent event) {
+                    seen.add(event);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+            Client active = turn.endsWith("Aarav") ? aarav : bhavya;
+            active.call("answer xyz");
+            assertTrue(spectator.read().startsWith("DELTA 1 "));
+            spectator.send("ack 1");
+            GameEvent last = seen.poll(5, TimeUnit.SECONDS);
+            last = seen.poll(5, TimeUnit.SECONDS);
+            engine.getEvents().publish(new GameEvent(GameEvent.Type.NEXT_TURN, last.getSession(), last.getTurn(),
+                    "Aarav", null, 'z', last.getSequence() + 5));
+            DataInputStream snapshot = decode(spectator.read(), "SNAPSHOT 2 ");
+            assertFalse(snapshot.readBoolean());
+            assertEquals(last.getLetter(), snapshot.readByte());
+            assertEquals(last.getPlayer(), snapshot.readUTF());
+            spectator.send("ack 2");
+            (active == aarav ? bhavya : aarav).call("answer xyz");
+            assertTrue(spectator.read().startsWith("DELTA 3 "));
+        }
+    }
+
+    @Test
+    void testClientThatStopsReadingIsDisconnected() throws IOException, InterruptedException {
+        try (Client aarav = new Client(); Socket flood = new Socket()) {
+            flood.setReceiveBufferSize(4096);
+            flood.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            OutputStream out = flood.getOutputStream();
+            out.write("join r8 Bhavya\n".getBytes(StandardCharsets.UTF_8));
+            byte[] statuses = "status\n".repeat(1024).getBytes(StandardCharsets.UTF_8);
+            assertThrows(IOException.class, () -> {
+                for (int i = 0; i < 64 * 1024; i++) {
+                    out.write(statuses);
+                }
+            });
+            assertEquals("OK joined r8 as Aarav", aarav.call("join r8 Aarav"));
+            String status = aarav.call("status");
+            for (int i = 0; i < 100 && !status.endsWith("=1"); i++) {
+                Thread.sleep(50);
+                status = aarav.call("status");
+            }
+            assertEquals("STATUS waiting players=1", status);
+        }
+    }
+
+    @Test
+    void testExpiredGameFreesItsRoom() throws IOException, InterruptedException {
+        server.close();
+        server = new GameServer(engine, 60_000, saves.toString(), 200);
+        port = server.start(0);
+        try (Client aarav = new Client(); Client bhavya = new Client()) {
+            aarav.call("join r9 Aarav");
+            bhavya.call("join r9 Bhavya");
+            String turn = aarav.call("start");
+            bhavya.read();
+            Client active = turn.endsWith("Aarav") ? aarav : bhavya;
+            assertTrue(active.call("answer xyz").endsWith("letter=L"));
+            active.read();
+            (active == aarav ? bhavya : aarav).read();
+            (active == aarav ? bhavya : aarav).read();
+            Thread.sleep(300);
+            server.expireIdle();
+            assertEquals(0, server.getSessions().size());
+            assertEquals("STATUS waiting players=2", aarav.call("status"));
+            assertTrue(aarav.call("start").startsWith("TURN "));
+            assertTrue(aarav.call("status").endsWith(" Aarav=0 Bhavya=0"));
+        }
+    }
+
+    @Test
+    void testOverlongLineIsDisconnected() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("OK joined r10 as Aarav", client.call("join r10 Aarav"));
+            client.send("answer " + "x".repeat(ClientConnection.MAX_LINE));
+            assertNull(client.read());
+        }
+        try (Client client = new Client()) {
+            assertEquals("OK joined r10 as Aarav", client.call("join r10 Aarav"));
+        }
+    }
+
+    private static DataInputStream decode(String line, String prefix) {
+        assertTrue(line.startsWith(prefix), line);
+        return new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(line.substring(prefix.length()))));
+    }
+
+    @Test
+    void testManyIdleConnections() throws IOException {
+        List<Client> idle = new ArrayList<>();
+        try {
+            for (int i = 0; i < 500; i++) {
+                idle.add(new Client());
+            }
+            try (Client client = new Client()) {
+                assertEquals("OK joined big as Aarav", client.call("join big Aarav"));
+                assertEquals("STATUS waiting players=1", client.call("status"));
+            }
+        } finally {
+            for (Client client : idle) {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.count());
+        assertEquals(500, histogram.percentile(50), 500 * 0.07);
+        assertEquals(990, histogram.percentile(99), 990 * 0.07);
+        for (long micros = 0; micros < 100_000; micros += 7) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            assertTrue(LatencyHistogram.lowerBound(bucket) <= micros);
+            assertTrue(micros < LatencyHistogram.lowerBound(bucket + 1));
+        }
+    }
+
+    /**
+     * A test client that sends one line at a time and reads the replies.
+     */
+    private class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+        private String name;
+
+        Client() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            assertEquals("WELCOME COMPAS", read());
+        }
+
+        void send(String line) {
+            out.println(line);
+        }
+
+        String call(String line) throws IOException {
+            out.println(line);
+            String reply = read();
+            if (reply.startsWith("OK joined")) {
+                name = line.split(" ")[2];
+            }
+            return reply;
+        }
+
+        String read() throws IOException {
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}